@@ -2,17 +2,52 @@ package com.example.multilingualchatassistant.data;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
-@Database(entities = {MessageEntity.class}, version = 1, exportSchema = false)
+@Database(entities = {MessageEntity.class, GifQueryEntity.class}, version = 4, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
 
     private static volatile AppDatabase INSTANCE;
 
+    // v2: index for the keyset-paged history (ORDER BY timestamp DESC)
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_messages_timestamp` "
+                    + "ON `messages` (`timestamp`)");
+        }
+    };
+
+    // v3: query → GIF URL cache
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `gif_queries` ("
+                    + "`query` TEXT NOT NULL, `gifUrl` TEXT NOT NULL, "
+                    + "`createdAt` INTEGER NOT NULL, `lastUsedAt` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`query`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_gif_queries_lastUsedAt` "
+                    + "ON `gif_queries` (`lastUsedAt`)");
+        }
+    };
+
+    // v4: ranked result list per GIF query (fills the carousel on a cache hit)
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `gif_queries` ADD COLUMN `gifUrls` TEXT NOT NULL DEFAULT ''");
+        }
+    };
+
     public abstract MessageDao messageDao();
 
+    public abstract GifQueryDao gifQueryDao();
+
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
             synchronized (AppDatabase.class) {
@@ -22,8 +57,8 @@ public abstract class AppDatabase extends RoomDatabase {
                                     AppDatabase.class,
                                     "chat_db"
                             )
-                            .allowMainThreadQueries() // OK for this project
-                            .build();
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                            .build(); // queries run on MessageRepository's thread
                 }
             }
         }
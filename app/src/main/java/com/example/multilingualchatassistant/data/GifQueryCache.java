@@ -0,0 +1,121 @@
+package com.example.multilingualchatassistant.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * GifQueryCache
+ *
+ * Persistent GIF search cache: sanitized query → ranked GIF URLs (best
+ * first, up to MAX_URLS), stored in Room. GifQueryBuilder only produces a
+ * small set of distinct queries, so most "Generate GIF" taps resolve here,
+ * carousel included, without a network call.
+ *
+ *  - TTL: entries older than TTL_MS are ignored and purged.
+ *  - LRU: at most MAX_ENTRIES rows, least recently used dropped first.
+ *  - Async calls run on one background thread; lookups answer on main.
+ */
+public class GifQueryCache {
+
+    public static final long TTL_MS = 3L * 24 * 60 * 60 * 1000; // 3 days
+    public static final int MAX_ENTRIES = 200;
+    public static final int MAX_URLS = 10;
+
+    public interface Lookup {
+        /** Best first, never empty; null on a miss. */
+        void onResult(@Nullable List<String> gifUrls);
+    }
+
+    private static volatile GifQueryCache INSTANCE;
+
+    private final GifQueryDao dao;
+    private final ExecutorService io = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "gif-query-cache"));
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    private GifQueryCache(GifQueryDao dao) {
+        this.dao = dao;
+    }
+
+    public static GifQueryCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (GifQueryCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new GifQueryCache(
+                            AppDatabase.getInstance(context).gifQueryDao());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Cached URLs for the query, or null (missing / expired). Answers on main.
+     */
+    public void get(@NonNull String query, @NonNull Lookup callback) {
+        io.execute(() -> {
+            List<String> urls = getBlocking(query);
+            main.post(() -> callback.onResult(urls));
+        });
+    }
+
+    /** gifUrls best first (GifRanker order); only the first MAX_URLS are kept. */
+    public void put(@NonNull String query, @NonNull List<String> gifUrls) {
+        List<String> copy = new ArrayList<>(gifUrls);
+        io.execute(() -> putBlocking(query, copy));
+    }
+
+    // --------------------------------------------------------------------
+    // Blocking variants (background threads only, e.g. GifPrewarmWorker)
+    // --------------------------------------------------------------------
+
+    @WorkerThread
+    @Nullable
+    public List<String> getBlocking(@NonNull String query) {
+        long now = System.currentTimeMillis();
+        GifQueryEntity e = dao.get(query);
+        if (e == null || now - e.createdAt > TTL_MS) {
+            return null;
+        }
+        dao.touch(query, now);
+        if (e.gifUrls.isEmpty()) {
+            return Collections.singletonList(e.gifUrl); // cached before v4
+        }
+        List<String> urls = new ArrayList<>();
+        int start = 0;
+        for (int nl; (nl = e.gifUrls.indexOf('\n', start)) >= 0; start = nl + 1) {
+            urls.add(e.gifUrls.substring(start, nl));
+        }
+        urls.add(e.gifUrls.substring(start));
+        return urls;
+    }
+
+    @WorkerThread
+    public void putBlocking(@NonNull String query, @NonNull List<String> gifUrls) {
+        if (gifUrls.isEmpty()) return;
+        List<String> kept = gifUrls.subList(0, Math.min(MAX_URLS, gifUrls.size()));
+
+        long now = System.currentTimeMillis();
+        GifQueryEntity e = new GifQueryEntity();
+        e.query = query;
+        e.gifUrl = kept.get(0);
+        e.gifUrls = String.join("\n", kept);
+        e.createdAt = now;
+        e.lastUsedAt = now;
+        dao.put(e);
+
+        dao.deleteExpired(now - TTL_MS);
+        dao.trimTo(MAX_ENTRIES);
+    }
+}
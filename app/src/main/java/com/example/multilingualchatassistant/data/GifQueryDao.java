@@ -0,0 +1,27 @@
+package com.example.multilingualchatassistant.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+@Dao
+public interface GifQueryDao {
+
+    @Query("SELECT * FROM gif_queries WHERE `query` = :query LIMIT 1")
+    GifQueryEntity get(String query);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void put(GifQueryEntity entry);
+
+    @Query("UPDATE gif_queries SET lastUsedAt = :now WHERE `query` = :query")
+    void touch(String query, long now);
+
+    @Query("DELETE FROM gif_queries WHERE createdAt < :createdBefore")
+    int deleteExpired(long createdBefore);
+
+    // LRU: keep the most recently used rows only
+    @Query("DELETE FROM gif_queries WHERE `query` NOT IN "
+            + "(SELECT `query` FROM gif_queries ORDER BY lastUsedAt DESC LIMIT :keep)")
+    int trimTo(int keep);
+}
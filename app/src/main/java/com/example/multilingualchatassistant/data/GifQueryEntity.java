@@ -0,0 +1,31 @@
+package com.example.multilingualchatassistant.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * One cached GIF search: sanitized query (GifQueryBuilder output) → ranked
+ * GIF URLs (GifRanker order, best first).
+ */
+@Entity(tableName = "gif_queries",
+        indices = {@Index(value = {"lastUsedAt"}, name = "index_gif_queries_lastUsedAt")})
+public class GifQueryEntity {
+
+    @PrimaryKey
+    @NonNull
+    public String query = "";
+
+    @NonNull
+    public String gifUrl = "";              // best result
+
+    // All cached results, best first, one per line ("" in rows from before v4)
+    @NonNull
+    @ColumnInfo(defaultValue = "")
+    public String gifUrls = "";
+
+    public long createdAt;                  // when the URL was fetched (TTL)
+    public long lastUsedAt;                 // last lookup / store (LRU)
+}
@@ -0,0 +1,118 @@
+package com.example.multilingualchatassistant.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * HistoryPagingSource
+ *
+ * Keyset pagination over messages, newest first:
+ *   ORDER BY timestamp DESC, id DESC
+ * A key is the (timestamp, id) of a row, so every page is an index range
+ * scan on index_messages_timestamp, however deep the user scrolls (no
+ * OFFSET):
+ *   append   rows older than the key (the last row loaded)
+ *   prepend  rows newer than the key (the first row loaded)
+ *   refresh  from the key's row down, or from the newest row without one
+ *
+ * A refresh (after an insert / clear) restarts at the first row of the page
+ * the user is looking at, so the list does not jump back to the top; the
+ * rows above come back by prepending, as do pages dropped past maxSize.
+ */
+public class HistoryPagingSource extends ListenableFuturePagingSource<HistoryPagingSource.Key, MessageEntity> {
+
+    /**
+     * A row position; which side of it loads depends on the load type.
+     */
+    public static final class Key {
+        final long timestamp;
+        final int id;
+
+        Key(long timestamp, int id) {
+            this.timestamp = timestamp;
+            this.id = id;
+        }
+    }
+
+    private final MessageDao dao;
+    private final Executor executor;
+
+    HistoryPagingSource(@NonNull MessageDao dao, @NonNull Executor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Key, MessageEntity>> loadFuture(
+            @NonNull LoadParams<Key> params) {
+        ListenableFutureTask<LoadResult<Key, MessageEntity>> task =
+                ListenableFutureTask.create(() -> load(params));
+        executor.execute(task);
+        return task;
+    }
+
+    private LoadResult<Key, MessageEntity> load(LoadParams<Key> params) {
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+
+        try {
+            Key key = params.getKey();
+            int limit = params.getLoadSize();
+            boolean prepend = params instanceof LoadParams.Prepend;
+            List<MessageEntity> rows;
+            if (key == null) {
+                rows = dao.getNewest(limit);
+            } else if (prepend) {
+                rows = new ArrayList<>(dao.getNewerThan(key.timestamp, key.id, limit));
+                Collections.reverse(rows);
+            } else if (params instanceof LoadParams.Refresh) {
+                rows = dao.getFrom(key.timestamp, key.id, limit);
+            } else {
+                rows = dao.getOlderThan(key.timestamp, key.id, limit);
+            }
+
+            Key prev = null;
+            Key next = null;
+            if (!rows.isEmpty()) {
+                boolean full = rows.size() >= limit;
+                // Nothing is newer than a load from the top, or a short prepend
+                if (key != null && (full || !prepend)) {
+                    MessageEntity first = rows.get(0);
+                    prev = new Key(first.timestamp, first.id);
+                }
+                if (full && !prepend) {
+                    MessageEntity last = rows.get(rows.size() - 1);
+                    next = new Key(last.timestamp, last.id);
+                }
+            }
+            return new LoadResult.Page<>(rows, prev, next);
+        } catch (RuntimeException e) {
+            return new LoadResult.Error<>(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, MessageEntity> state) {
+        // Restart at the page holding the anchor row; the top page restarts
+        // from the newest row, so new messages show up there
+        Integer anchor = state.getAnchorPosition();
+        if (anchor == null) return null;
+        LoadResult.Page<Key, MessageEntity> page = state.closestPageToPosition(anchor);
+        if (page == null || page.getPrevKey() == null || page.getData().isEmpty()) return null;
+        MessageEntity first = page.getData().get(0);
+        return new Key(first.timestamp, first.id);
+    }
+}
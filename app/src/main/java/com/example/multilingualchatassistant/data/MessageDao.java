@@ -10,10 +10,28 @@ import java.util.List;
 public interface MessageDao {
 
     @Insert
-    void insert(MessageEntity message);
+    long insert(MessageEntity message);
 
-    @Query("SELECT * FROM messages ORDER BY timestamp DESC")
-    List<MessageEntity> getAllMessages();
+    // Keyset pages, newest first (all use index_messages_timestamp)
+    @Query("SELECT * FROM messages ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<MessageEntity> getNewest(int limit);
+
+    @Query("SELECT * FROM messages "
+            + "WHERE timestamp < :timestamp OR (timestamp = :timestamp AND id < :id) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<MessageEntity> getOlderThan(long timestamp, int id, int limit);
+
+    // Refresh around the viewport: from this row (inclusive) down
+    @Query("SELECT * FROM messages "
+            + "WHERE timestamp < :timestamp OR (timestamp = :timestamp AND id <= :id) "
+            + "ORDER BY timestamp DESC, id DESC LIMIT :limit")
+    List<MessageEntity> getFrom(long timestamp, int id, int limit);
+
+    // Prepend: the rows just above, oldest first (reversed by the caller)
+    @Query("SELECT * FROM messages "
+            + "WHERE timestamp > :timestamp OR (timestamp = :timestamp AND id > :id) "
+            + "ORDER BY timestamp ASC, id ASC LIMIT :limit")
+    List<MessageEntity> getNewerThan(long timestamp, int id, int limit);
 
     @Query("DELETE FROM messages")
     void clearAll();
@@ -1,9 +1,11 @@
 package com.example.multilingualchatassistant.data;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "messages")
+@Entity(tableName = "messages",
+        indices = {@Index(value = {"timestamp"}, name = "index_messages_timestamp")})
 public class MessageEntity {
 
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,104 @@
+package com.example.multilingualchatassistant.data;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MessageRepository
+ *
+ * The only way the UI talks to the messages table.
+ *
+ *  - Writes run on one background "writer" thread, in submission order,
+ *    so the main thread never touches SQLite.
+ *  - History is exposed as paged LiveData (Paging 3, keyset pages from
+ *    HistoryPagingSource). Only pages near the viewport stay in memory,
+ *    however long the history gets.
+ *  - After each write the current paging source is invalidated, so the
+ *    list refreshes and the adapter diffs in the change.
+ */
+public class MessageRepository {
+
+    private static final int PAGE_SIZE = 30;
+    private static final int MAX_LOADED_ROWS = 150; // older pages are dropped past this
+
+    private static volatile MessageRepository INSTANCE;
+
+    private final MessageDao dao;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "history-db"));
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "history-db-read"));
+
+    private volatile HistoryPagingSource currentSource;
+
+    private MessageRepository(MessageDao dao) {
+        this.dao = dao;
+    }
+
+    public static MessageRepository getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (MessageRepository.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MessageRepository(
+                            AppDatabase.getInstance(context).messageDao());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * History pages, newest first, cached for the given lifecycle
+     * (so a re-observe does not reload from the database).
+     */
+    @NonNull
+    public LiveData<PagingData<MessageEntity>> getHistoryPages(@NonNull Lifecycle lifecycle) {
+        PagingConfig config = new PagingConfig(
+                PAGE_SIZE,
+                PAGE_SIZE,        // prefetch distance
+                false,            // no placeholders
+                PAGE_SIZE * 2,    // initial load
+                MAX_LOADED_ROWS);
+
+        Pager<HistoryPagingSource.Key, MessageEntity> pager = new Pager<>(config, () -> {
+            HistoryPagingSource source = new HistoryPagingSource(dao, reader);
+            currentSource = source;
+            return source;
+        });
+        return PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager), lifecycle);
+    }
+
+    /**
+     * Insert in the background; observers get a refreshed page.
+     */
+    public void insert(@NonNull MessageEntity message) {
+        writer.execute(() -> {
+            message.id = (int) dao.insert(message);
+            invalidateHistory();
+        });
+    }
+
+    public void clearAll() {
+        writer.execute(() -> {
+            dao.clearAll();
+            invalidateHistory();
+        });
+    }
+
+    private void invalidateHistory() {
+        HistoryPagingSource source = currentSource;
+        if (source != null) {
+            source.invalidate();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.multilingualchatassistant.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.bumptech.glide.Glide;
+import com.example.multilingualchatassistant.data.GifQueryCache;
+import com.example.multilingualchatassistant.util.GifQueryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Response;
+
+/**
+ * Pre-warms GifQueryCache (query → ranked URLs) and Glide's disk cache (bytes
+ * of the top GIF) for the fixed GifQueryBuilder fallback phrases, while the
+ * device is idle on an unmetered network. Results are ranked by GifRanker as
+ * a live search would be, so common reactions then resolve instantly (with
+ * the same GIF and carousel), and the first one still works offline.
+ */
+public class GifPrewarmWorker extends Worker {
+
+    private static final String TAG = "GifPrewarmWorker";
+    private static final String WORK_NAME = "gif-prewarm";
+
+    public GifPrewarmWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedule the daily pre-warm (kept if already scheduled).
+     */
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request =
+                new PeriodicWorkRequest.Builder(GifPrewarmWorker.class, 1, TimeUnit.DAYS)
+                        .setConstraints(constraints)
+                        .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        GifQueryCache cache = GifQueryCache.getInstance(context);
+        GiphyApi api = RetrofitClient.getClient(context).create(GiphyApi.class);
+
+        int warmed = 0;
+        for (String phrase : GifQueryBuilder.fallbackPhrases()) {
+            if (isStopped()) return Result.retry();
+            if (cache.getBlocking(phrase) != null) continue; // still fresh
+
+            try {
+                Response<GiphyResponse> response = api.searchGifs(
+                        GiphyApi.API_KEY, phrase, GifQueryCache.MAX_URLS, "g").execute();
+                if (!response.isSuccessful()) continue;
+                String[] intentTone = GifQueryBuilder.intentToneFor(phrase);
+                List<GifRanker.Candidate> ranked =
+                        GifRanker.rank(response.body(), intentTone[0], intentTone[1]);
+                if (ranked.isEmpty()) continue;
+                List<String> urls = new ArrayList<>(ranked.size());
+                for (GifRanker.Candidate c : ranked) urls.add(c.url);
+
+                // Download the top GIF's bytes into Glide's disk cache for offline use
+                Glide.with(context).asFile().load(urls.get(0)).submit().get();
+                cache.putBlocking(phrase, urls);
+                warmed++;
+            } catch (Exception e) {
+                Log.w(TAG, "pre-warm failed for '" + phrase + "'", e);
+                return Result.retry();
+            }
+        }
+        Log.d(TAG, "pre-warmed " + warmed + " GIF queries");
+        return Result.success();
+    }
+}
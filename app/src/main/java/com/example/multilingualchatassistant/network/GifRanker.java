@@ -0,0 +1,134 @@
+package com.example.multilingualchatassistant.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * GifRanker
+ *
+ * Orders the results of one multi-result Giphy search on the device, so the
+ * GIF carousel can switch between them without another request.
+ *
+ * Score per GIF:
+ *  - title / slug words matching the intent (+2 each) and tone (+1 each)
+ *  - penalty for heavy renditions (> LARGE_BYTES) and extreme aspect ratios
+ * Ties keep Giphy's own relevance order.
+ */
+public final class GifRanker {
+
+    static final long LARGE_BYTES = 2L * 1024 * 1024;
+
+    private static final Map<String, String[]> INTENT_WORDS = new HashMap<>();
+    private static final Map<String, String[]> TONE_WORDS = new HashMap<>();
+
+    static {
+        INTENT_WORDS.put("greeting", new String[]{"hello", "hi", "hey", "wave", "waving", "greeting"});
+        INTENT_WORDS.put("thanks", new String[]{"thank", "thanks", "thankyou", "grateful", "appreciate"});
+        INTENT_WORDS.put("love", new String[]{"love", "heart", "hearts", "kiss", "hug", "romantic"});
+        INTENT_WORDS.put("apology", new String[]{"sorry", "apology", "apologize", "oops", "sad"});
+        INTENT_WORDS.put("congrats", new String[]{"congrats", "congratulations", "celebrate", "party", "cheers"});
+
+        TONE_WORDS.put("humorous", new String[]{"funny", "lol", "laugh", "laughing", "lmao", "meme"});
+        TONE_WORDS.put("friendly", new String[]{"happy", "smile", "cute", "friends"});
+        TONE_WORDS.put("empathetic", new String[]{"hug", "support", "care", "comfort"});
+        TONE_WORDS.put("formal", new String[]{"thank", "respect", "bow", "professional"});
+        TONE_WORDS.put("sad", new String[]{"sad", "cry", "crying", "tears"});
+        TONE_WORDS.put("angry", new String[]{"angry", "mad", "rage", "annoyed"});
+    }
+
+    /**
+     * One GIF of the carousel, with the rendition we will show.
+     */
+    public static final class Candidate {
+        public final String url;
+        public final int width;
+        public final int height;
+        public final long sizeBytes;
+        public final String title;
+        final int score;
+
+        Candidate(String url, int width, int height, long sizeBytes, String title, int score) {
+            this.url = url;
+            this.width = width;
+            this.height = height;
+            this.sizeBytes = sizeBytes;
+            this.title = title;
+            this.score = score;
+        }
+    }
+
+    private GifRanker() {
+    }
+
+    /**
+     * Best first. GIFs without a usable rendition are dropped.
+     */
+    @NonNull
+    public static List<Candidate> rank(GiphyResponse response, String intent, String tone) {
+        List<Candidate> out = new ArrayList<>();
+        if (response == null || response.data == null) return out;
+
+        String[] intentWords = lookup(INTENT_WORDS, intent);
+        String[] toneWords = lookup(TONE_WORDS, tone);
+
+        for (GiphyResponse.GifObject gif : response.data) {
+            if (gif == null) continue;
+            GiphyResponse.GifImage image = gif.bestRendition();
+            if (image == null) continue;
+
+            String text = ((gif.title != null ? gif.title : "") + " "
+                    + (gif.slug != null ? gif.slug.replace('-', ' ') : ""))
+                    .toLowerCase(Locale.ROOT);
+            List<String> words = words(text);
+
+            int score = 2 * matches(words, intentWords) + matches(words, toneWords);
+            if (image.size > LARGE_BYTES) score--;
+            if (image.width > 0 && image.height > 0) {
+                float aspect = (float) image.width / image.height;
+                if (aspect < 0.5f || aspect > 2.5f) score--;
+            }
+
+            out.add(new Candidate(image.url, image.width, image.height, image.size,
+                    gif.title, score));
+        }
+
+        // Stable sort → equal scores keep Giphy's order
+        Collections.sort(out, (a, b) -> Integer.compare(b.score, a.score));
+        return out;
+    }
+
+    private static String[] lookup(Map<String, String[]> table, String key) {
+        if (key == null) return new String[0];
+        String[] words = table.get(key.toLowerCase(Locale.ROOT));
+        return words != null ? words : new String[0];
+    }
+
+    private static int matches(List<String> words, String[] wanted) {
+        int n = 0;
+        for (String w : wanted) {
+            if (words.contains(w)) n++;
+        }
+        return n;
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+}
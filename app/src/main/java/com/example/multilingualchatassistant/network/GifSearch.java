@@ -0,0 +1,316 @@
+package com.example.multilingualchatassistant.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * GifSearch
+ *
+ * Primary query + intent/tone fallback query against Giphy.
+ *
+ * Racing mode (default): both searches start at once. The primary result
+ * wins if it has a GIF; otherwise the fallback result is used. As soon as
+ * the outcome is known the other call is cancelled. Worst case is one round
+ * trip instead of two.
+ *
+ * Sequential mode: the old behaviour, fallback only after an empty primary.
+ *
+ * Stats count how often the fallback wins and how much time racing saved
+ * compared to running the two searches one after the other.
+ *
+ * setResultLimit(n) asks for n GIFs per search (one request), so callers
+ * can rank and switch between them locally (see GifRanker).
+ */
+public final class GifSearch {
+
+    public interface Callback {
+        /** response has at least one GIF with a usable rendition */
+        void onFound(@NonNull GiphyResponse response, @NonNull String usedQuery);
+        void onNoneFound();
+        void onFailure(@NonNull Throwable t);
+    }
+
+    /**
+     * Snapshot of the race counters.
+     */
+    public static class Stats {
+        public long searches;
+        public long primaryWins;
+        public long fallbackWins;
+        public long noneFound;
+        public long failures;
+        public long cancelledLosers;
+        public long totalSavedMs;         // vs. sequential primary → fallback
+
+        public double fallbackWinRate() {
+            long won = primaryWins + fallbackWins;
+            return won == 0 ? 0.0 : (double) fallbackWins / won;
+        }
+
+        public long avgSavedMsPerFallback() {
+            return fallbackWins == 0 ? 0 : totalSavedMs / fallbackWins;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "searches=" + searches + " primaryWins=" + primaryWins
+                    + " fallbackWins=" + fallbackWins + " none=" + noneFound
+                    + " failures=" + failures + " cancelled=" + cancelledLosers
+                    + String.format(Locale.ROOT, " fallbackWinRate=%.2f", fallbackWinRate())
+                    + " saved(total/avg)=" + totalSavedMs + "/" + avgSavedMsPerFallback() + "ms";
+        }
+    }
+
+    private static final String RATING = "g";
+
+    private final GiphyApi api;
+    private final String apiKey;
+    private volatile boolean raceFallback = true;
+    private volatile int resultLimit = 1;
+
+    // Counters (guarded by this)
+    private long searches;
+    private long primaryWins;
+    private long fallbackWins;
+    private long noneFound;
+    private long failures;
+    private long cancelledLosers;
+    private long totalSavedMs;
+
+    public GifSearch(@NonNull GiphyApi api, @NonNull String apiKey) {
+        this.api = api;
+        this.apiKey = apiKey;
+    }
+
+    public void setRaceFallback(boolean raceFallback) {
+        this.raceFallback = raceFallback;
+    }
+
+    /**
+     * GIFs per search, 1..RetrofitClient.MAX_GIF_RESULTS (the converter reads no more).
+     */
+    public void setResultLimit(int resultLimit) {
+        this.resultLimit = Math.max(1, Math.min(RetrofitClient.MAX_GIF_RESULTS, resultLimit));
+    }
+
+    /**
+     * @param fallbackQuery may be null or equal to the primary (then only one search)
+     */
+    public void search(@NonNull String primaryQuery,
+                       @Nullable String fallbackQuery,
+                       @NonNull Callback callback) {
+        synchronized (this) {
+            searches++;
+        }
+        boolean hasFallback = fallbackQuery != null && !fallbackQuery.equalsIgnoreCase(primaryQuery);
+
+        if (hasFallback && raceFallback) {
+            new Race(primaryQuery, fallbackQuery, callback).start();
+        } else {
+            searchSequential(primaryQuery, hasFallback ? fallbackQuery : null, callback);
+        }
+    }
+
+    @NonNull
+    public synchronized Stats getStats() {
+        Stats s = new Stats();
+        s.searches = searches;
+        s.primaryWins = primaryWins;
+        s.fallbackWins = fallbackWins;
+        s.noneFound = noneFound;
+        s.failures = failures;
+        s.cancelledLosers = cancelledLosers;
+        s.totalSavedMs = totalSavedMs;
+        return s;
+    }
+
+    // --------------------------------------------------------------------
+    // Racing
+    // --------------------------------------------------------------------
+
+    private final class Race {
+        final String primaryQuery;
+        final String fallbackQuery;
+        final Callback callback;
+        final long startedAt = now();
+
+        // Only the fallback can lose while still running (we always wait for the primary)
+        Call<GiphyResponse> fallbackCall;
+
+        // Guarded by this Race
+        boolean primaryDone;
+        GiphyResponse primaryFound;
+        Throwable primaryError;
+        long primaryDoneAt;
+
+        boolean fallbackDone;
+        GiphyResponse fallbackFound;
+        Throwable fallbackError;
+        long fallbackDoneAt;
+
+        boolean finished;
+
+        Race(String primaryQuery, String fallbackQuery, Callback callback) {
+            this.primaryQuery = primaryQuery;
+            this.fallbackQuery = fallbackQuery;
+            this.callback = callback;
+        }
+
+        void start() {
+            Call<GiphyResponse> primaryCall = newCall(primaryQuery);
+            fallbackCall = newCall(fallbackQuery); // assigned before any callback can run
+            enqueue(primaryCall, (found, error) -> onResult(true, found, error));
+            enqueue(fallbackCall, (found, error) -> onResult(false, found, error));
+        }
+
+        void onResult(boolean primary, GiphyResponse found, Throwable error) {
+            Runnable outcome;
+            synchronized (this) {
+                if (finished) return;
+                if (primary) {
+                    primaryDone = true;
+                    primaryFound = found;
+                    primaryError = error;
+                    primaryDoneAt = now();
+                } else {
+                    fallbackDone = true;
+                    fallbackFound = found;
+                    fallbackError = error;
+                    fallbackDoneAt = now();
+                }
+                outcome = decide();
+                if (outcome == null) return;
+                finished = true;
+            }
+            outcome.run();
+        }
+
+        // Called with the lock held; null while the outcome is still open
+        Runnable decide() {
+            if (primaryDone && primaryFound != null) {
+                cancelLoser(fallbackDone ? null : fallbackCall);
+                record(true, 0);
+                return () -> callback.onFound(primaryFound, primaryQuery);
+            }
+            if (!primaryDone || !fallbackDone) {
+                return null; // primary still pending, or primary empty and fallback pending
+            }
+            if (fallbackFound != null) {
+                // Sequential would have started the fallback after the primary returned
+                long fallbackTook = fallbackDoneAt - startedAt;
+                long sequentialAt = primaryDoneAt + fallbackTook;
+                record(false, Math.max(0L, sequentialAt - Math.max(primaryDoneAt, fallbackDoneAt)));
+                return () -> callback.onFound(fallbackFound, fallbackQuery);
+            }
+
+            Throwable error = primaryError != null ? primaryError : fallbackError;
+            if (error != null) {
+                countFailure();
+                return () -> callback.onFailure(error);
+            }
+            countNoneFound();
+            return callback::onNoneFound;
+        }
+
+        void cancelLoser(Call<GiphyResponse> loser) {
+            if (loser == null || loser.isCanceled()) return;
+            loser.cancel();
+            synchronized (GifSearch.this) {
+                cancelledLosers++;
+            }
+        }
+    }
+
+    private void record(boolean primaryWon, long savedMs) {
+        synchronized (this) {
+            if (primaryWon) {
+                primaryWins++;
+            } else {
+                fallbackWins++;
+                totalSavedMs += savedMs;
+            }
+        }
+    }
+
+    private synchronized void countFailure() {
+        failures++;
+    }
+
+    private synchronized void countNoneFound() {
+        noneFound++;
+    }
+
+    // --------------------------------------------------------------------
+    // Sequential (primary, then fallback if empty)
+    // --------------------------------------------------------------------
+
+    private void searchSequential(String primaryQuery, @Nullable String fallbackQuery, Callback callback) {
+        enqueue(newCall(primaryQuery), (found, error) -> {
+            if (found != null) {
+                record(true, 0);
+                callback.onFound(found, primaryQuery);
+            } else if (error != null) {
+                countFailure();
+                callback.onFailure(error);
+            } else if (fallbackQuery == null) {
+                countNoneFound();
+                callback.onNoneFound();
+            } else {
+                enqueue(newCall(fallbackQuery), (found2, error2) -> {
+                    if (found2 != null) {
+                        record(false, 0);
+                        callback.onFound(found2, fallbackQuery);
+                    } else if (error2 != null) {
+                        countFailure();
+                        callback.onFailure(error2);
+                    } else {
+                        countNoneFound();
+                        callback.onNoneFound();
+                    }
+                });
+            }
+        });
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+
+    private interface Result {
+        /** found is null for an empty result; error is set only on failure. */
+        void onResult(@Nullable GiphyResponse found, @Nullable Throwable error);
+    }
+
+    private Call<GiphyResponse> newCall(String query) {
+        return api.searchGifs(apiKey, query, resultLimit, RATING);
+    }
+
+    // A call we cancelled reports nothing
+    private static void enqueue(Call<GiphyResponse> call, Result result) {
+        call.enqueue(new retrofit2.Callback<GiphyResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<GiphyResponse> call,
+                                   @NonNull Response<GiphyResponse> response) {
+                GiphyResponse body = response.body();
+                boolean hasGif = response.isSuccessful() && GiphyResponse.firstGifUrl(body) != null;
+                result.onResult(hasGif ? body : null, null);
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<GiphyResponse> call, @NonNull Throwable t) {
+                if (call.isCanceled()) return;
+                result.onResult(null, t);
+            }
+        });
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1_000_000L;
+    }
+}
@@ -6,6 +6,8 @@ import retrofit2.http.Query;
 
 public interface GiphyApi {
 
+    String API_KEY = "guZjkLGwI9IGzQSQqiZ0NOdR07hkwBbz";
+
     @GET("gifs/search")
     Call<GiphyResponse> searchGifs(
             @Query("api_key") String apiKey,
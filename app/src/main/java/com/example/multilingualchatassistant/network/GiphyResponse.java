@@ -8,9 +8,48 @@ public class GiphyResponse {
     @SerializedName("data")
     public List<GifObject> data;
 
+    /**
+     * URL of the first result (downsized_medium, else original), or null.
+     */
+    public static String firstGifUrl(GiphyResponse body) {
+        if (body == null || body.data == null) return null;
+
+        for (GifObject gif : body.data) {
+            GifImage image = gif != null ? gif.bestRendition() : null;
+            if (image != null) return image.url;
+        }
+        return null;
+    }
+
     public static class GifObject {
+        @SerializedName("id")
+        public String id;
+
+        @SerializedName("title")
+        public String title;
+
+        @SerializedName("slug")
+        public String slug;
+
+        @SerializedName("rating")
+        public String rating;
+
         @SerializedName("images")
         public Images images;
+
+        /**
+         * downsized_medium if present, else original; null if neither has a URL.
+         */
+        public GifImage bestRendition() {
+            if (images == null) return null;
+            if (images.downsizedMedium != null && images.downsizedMedium.url != null) {
+                return images.downsizedMedium;
+            }
+            if (images.original != null && images.original.url != null) {
+                return images.original;
+            }
+            return null;
+        }
     }
 
     public static class Images {
@@ -21,8 +60,18 @@ public class GiphyResponse {
         public GifImage original;
     }
 
+    // Giphy sends the numbers as strings ("480"); Gson converts them
     public static class GifImage {
         @SerializedName("url")
         public String url;
+
+        @SerializedName("width")
+        public int width;
+
+        @SerializedName("height")
+        public int height;
+
+        @SerializedName("size")
+        public long size;                   // bytes
     }
 }
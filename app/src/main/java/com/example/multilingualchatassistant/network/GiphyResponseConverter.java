@@ -0,0 +1,203 @@
+package com.example.multilingualchatassistant.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+import okhttp3.ResponseBody;
+import okio.Okio;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * GiphyResponseConverter
+ *
+ * Streaming replacement for Gson's reflective GiphyResponse parsing.
+ * A Giphy search result carries ~30 renditions, analytics URLs, user
+ * profiles, meta and pagination per GIF; we only need a handful of fields:
+ *
+ *   data[].{id, title, slug, rating}
+ *   data[].images.{downsized_medium, original}.{url, width, height, size}
+ *
+ * Everything else is skipped token by token without building objects, and
+ * parsing stops once maxResults GIFs are read: the rest of the body,
+ * including meta / pagination, is never tokenized.
+ */
+final class GiphyResponseConverter implements Converter<ResponseBody, GiphyResponse> {
+
+    private final int maxResults;
+
+    GiphyResponseConverter(int maxResults) {
+        this.maxResults = Math.max(1, maxResults);
+    }
+
+    /**
+     * Registers the converter for GiphyResponse only; other types fall through.
+     */
+    static Converter.Factory factory(int maxResults) {
+        GiphyResponseConverter converter = new GiphyResponseConverter(maxResults);
+        return new Converter.Factory() {
+            @Nullable
+            @Override
+            public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type,
+                                                                    @NonNull Annotation[] annotations,
+                                                                    @NonNull Retrofit retrofit) {
+                return type == GiphyResponse.class ? converter : null;
+            }
+        };
+    }
+
+    @Override
+    public GiphyResponse convert(@NonNull ResponseBody body) throws IOException {
+        try (ResponseBody b = body) {
+            GiphyResponse response = read(new JsonReader(b.charStream()));
+            // Drop the unread tail as raw bytes (no tokenizing): OkHttp only
+            // commits the cache entry and reuses the connection once the body
+            // is exhausted.
+            b.source().readAll(Okio.blackhole());
+            return response;
+        }
+    }
+
+    GiphyResponse read(JsonReader in) throws IOException {
+        GiphyResponse response = new GiphyResponse();
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("data".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                response.data = readData(in);
+                return response; // meta / pagination are not needed
+            }
+            in.skipValue();
+        }
+        in.endObject();
+        return response;
+    }
+
+    private ArrayList<GiphyResponse.GifObject> readData(JsonReader in) throws IOException {
+        ArrayList<GiphyResponse.GifObject> data = new ArrayList<>(Math.min(maxResults, 25));
+        in.beginArray();
+        while (in.hasNext() && data.size() < maxResults) {
+            if (in.peek() == JsonToken.BEGIN_OBJECT) {
+                data.add(readGif(in));
+            } else {
+                in.skipValue();
+            }
+        }
+        return data;
+    }
+
+    private static GiphyResponse.GifObject readGif(JsonReader in) throws IOException {
+        GiphyResponse.GifObject gif = new GiphyResponse.GifObject();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    gif.id = nextString(in);
+                    break;
+                case "title":
+                    gif.title = nextString(in);
+                    break;
+                case "slug":
+                    gif.slug = nextString(in);
+                    break;
+                case "rating":
+                    gif.rating = nextString(in);
+                    break;
+                case "images":
+                    gif.images = readImages(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return gif;
+    }
+
+    private static GiphyResponse.Images readImages(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        GiphyResponse.Images images = new GiphyResponse.Images();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "downsized_medium":
+                    images.downsizedMedium = readImage(in);
+                    break;
+                case "original":
+                    images.original = readImage(in);
+                    break;
+                default:
+                    in.skipValue(); // ~30 other renditions
+            }
+        }
+        in.endObject();
+        return images;
+    }
+
+    private static GiphyResponse.GifImage readImage(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
+        GiphyResponse.GifImage image = new GiphyResponse.GifImage();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "url":
+                    image.url = nextString(in);
+                    break;
+                case "width":
+                    image.width = (int) nextLong(in);
+                    break;
+                case "height":
+                    image.height = (int) nextLong(in);
+                    break;
+                case "size":
+                    image.size = nextLong(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return image;
+    }
+
+    @Nullable
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (in.peek() != JsonToken.STRING && in.peek() != JsonToken.NUMBER) {
+            in.skipValue();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    // Giphy sends numbers as strings ("480"); JsonReader.nextLong accepts both
+    private static long nextLong(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            in.skipValue();
+            return 0;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            in.skipValue(); // still buffered after the failed parse
+            return 0;       // "" or garbage: same as a missing field
+        }
+    }
+}
@@ -1,20 +1,89 @@
 package com.example.multilingualchatassistant.network;
 
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+/**
+ * Shared Retrofit / OkHttp client for the Giphy API.
+ *
+ *  - One OkHttpClient (connection pool + dispatcher) for the whole app.
+ *  - 5 MB disk cache. Giphy sends no-cache headers, so search responses are
+ *    rewritten to be cacheable for SEARCH_MAX_AGE_S: repeated queries
+ *    (e.g. the "thank you" / "hello wave" fallbacks) skip the network.
+ *  - Explicit connect / read / call timeouts instead of OkHttp's defaults.
+ *  - GiphyResponse is parsed by the streaming GiphyResponseConverter (only
+ *    the fields we use, at most MAX_GIF_RESULTS GIFs); Gson handles the rest.
+ */
 public class RetrofitClient {
 
     private static Retrofit retrofit;
     private static final String BASE_URL = "https://api.giphy.com/v1/";
 
-    public static Retrofit getClient() {
+    static final long CACHE_BYTES = 5L * 1024 * 1024;
+    static final int SEARCH_MAX_AGE_S = 10 * 60;
+
+    // Giphy's default page size; GifSearch never asks for more
+    static final int MAX_GIF_RESULTS = 25;
+
+    private static final int CONNECT_TIMEOUT_S = 10;
+    private static final int READ_TIMEOUT_S = 15;
+    private static final int CALL_TIMEOUT_S = 20;
+
+    // Giphy is one host; a few idle keep-alive connections are plenty
+    private static final int MAX_IDLE_CONNECTIONS = 3;
+    private static final int KEEP_ALIVE_MIN = 5;
+
+    public static synchronized Retrofit getClient(Context context) {
         if (retrofit == null) {
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .build();
+            File cacheDir = new File(context.getApplicationContext().getCacheDir(), "http");
+            retrofit = create(BASE_URL, buildHttpClient(cacheDir));
         }
         return retrofit;
     }
+
+    static Retrofit create(String baseUrl, OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                .addConverterFactory(GiphyResponseConverter.factory(MAX_GIF_RESULTS))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build();
+    }
+
+    static OkHttpClient buildHttpClient(File cacheDir) {
+        return new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir, CACHE_BYTES))
+                .addNetworkInterceptor(RetrofitClient::cacheSearchResults)
+                .connectTimeout(CONNECT_TIMEOUT_S, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_S, TimeUnit.SECONDS)
+                .callTimeout(CALL_TIMEOUT_S, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MIN, TimeUnit.MINUTES))
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    // Network interceptor: runs before the response is written to the cache
+    private static Response cacheSearchResults(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (!response.isSuccessful()
+                || !chain.request().url().encodedPath().endsWith("/gifs/search")) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "public, max-age=" + SEARCH_MAX_AGE_S)
+                .build();
+    }
 }
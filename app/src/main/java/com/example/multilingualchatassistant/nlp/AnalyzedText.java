@@ -0,0 +1,236 @@
+package com.example.multilingualchatassistant.nlp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.multilingualchatassistant.util.TextScan;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * AnalyzedText
+ *
+ * One message, analysed once and shared by every NLP stage of a tap:
+ *  - the original text (trimmed), its code-point classes and emoji count
+ *  - the language LanguageDetector guesses for it
+ *  - the slang-normalised text (in the given or guessed language), its
+ *    lowercase form and its word tokens (SlangDictionary tokenizer)
+ *
+ * Immutable, so it can be handed to worker threads. IntentDetector,
+ * ToneDetector, LocalNlpModel, LanguageDetector and KeywordExtractor all
+ * accept it and never normalise, lowercase or tokenize the message again.
+ */
+public final class AnalyzedText {
+
+    // ---- Code-point classes of the original text ----
+    public static final int LATIN = 1;
+    public static final int TAMIL = 1 << 1;          // U+0B80..U+0BFF
+    public static final int OTHER_LETTER = 1 << 2;
+    public static final int DIGIT = 1 << 3;
+    public static final int EMOJI = 1 << 4;          // U+1F000..U+1FAFF
+    public static final int PUNCTUATION = 1 << 5;
+    public static final int LINE_BREAK = 1 << 6;     // \n \r U+0085 U+2028 U+2029
+    // Language hints (see LanguageDetector.guess)
+    static final int SPANISH_MARK = 1 << 7;          // ¿ ¡
+    static final int SPANISH_ACCENT = 1 << 8;        // á é í ó ú ñ, any case
+    static final int FRENCH_ACCENT = 1 << 9;         // à â ä ç é è ê ë î ï ô œ ù û ü ÿ, any case
+
+    private final String text;
+    private final String langCode;
+    private final String normalized;
+    private final String lower;
+    private final List<String> tokens;
+    private final int classes;
+    private final int emojiCount;
+    private final int languageKeywords;
+
+    // Computed on first use unless needed for normalisation (racy
+    // single-check: the result is the same String on every thread)
+    private String detectedLanguage;
+
+    private AnalyzedText(String text, String langCode, String detectedLanguage,
+                         String normalized, List<String> tokens, Scan scan) {
+        this.text = text;
+        this.langCode = langCode;
+        this.detectedLanguage = detectedLanguage;
+        this.normalized = normalized;
+        this.lower = normalized.toLowerCase(Locale.ROOT);
+        this.tokens = tokens;
+        this.classes = scan.classes;
+        this.emojiCount = scan.emojis;
+        this.languageKeywords = scan.keywords;
+    }
+
+    /**
+     * Analyse raw user text. Slang is normalised for langCode, or for the
+     * guessed language when langCode is null.
+     */
+    @NonNull
+    public static AnalyzedText of(@Nullable String text, @Nullable String langCode) {
+        return analyze(text, langCode, true);
+    }
+
+    /**
+     * Analyse text that is already slang-normalised. langCode is kept as is
+     * (null = no language, e.g. no slang filtering in KeywordExtractor).
+     */
+    @NonNull
+    public static AnalyzedText ofNormalized(@Nullable String text, @Nullable String langCode) {
+        return analyze(text, langCode, false);
+    }
+
+    private static AnalyzedText analyze(String text, String langCode, boolean normalize) {
+        String t = text == null ? "" : text.trim();
+        Scan scan = scan(t);
+
+        String lang = langCode;
+        String detected = null;
+        String normalized = t;
+        if (normalize) {
+            if (lang == null) {
+                detected = LanguageDetector.guess(t, scan.classes, scan.keywords);
+                lang = detected;
+            }
+            normalized = SlangProcessor.normalizeInput(lang, t);
+        }
+        List<String> tokens = Collections.unmodifiableList(
+                SlangDictionary.Index.tokenize(normalized));
+        return new AnalyzedText(t, lang, detected, normalized, tokens, scan);
+    }
+
+    // --------------------------------------------------------------------
+    // Accessors
+    // --------------------------------------------------------------------
+
+    /** Original text, trimmed. */
+    @NonNull
+    public String text() {
+        return text;
+    }
+
+    /** Language the slang was normalised for (may be null, see ofNormalized). */
+    @Nullable
+    public String langCode() {
+        return langCode;
+    }
+
+    /** "en", "es", "fr", "ta", "de" or "und", from the original text. */
+    @NonNull
+    public String detectedLanguage() {
+        String detected = detectedLanguage;
+        if (detected == null) {
+            detected = LanguageDetector.guess(text, classes, languageKeywords);
+            detectedLanguage = detected;
+        }
+        return detected;
+    }
+
+    /** Slang-normalised text. */
+    @NonNull
+    public String normalized() {
+        return normalized;
+    }
+
+    /** normalized().toLowerCase(Locale.ROOT) */
+    @NonNull
+    public String lower() {
+        return lower;
+    }
+
+    /** Lowercased word tokens of normalized() (unmodifiable). */
+    @NonNull
+    public List<String> tokens() {
+        return tokens;
+    }
+
+    public boolean has(int codePointClass) {
+        return (classes & codePointClass) != 0;
+    }
+
+    public boolean hasEmoji() {
+        return emojiCount > 0;
+    }
+
+    public int emojiCount() {
+        return emojiCount;
+    }
+
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "AnalyzedText{lang=" + langCode + ", detected=" + detectedLanguage()
+                + ", tokens=" + tokens.size() + ", classes=0x" + Integer.toHexString(classes)
+                + ", emojis=" + emojiCount + "}";
+    }
+
+    // --------------------------------------------------------------------
+    // Code-point scan (also used by LanguageDetector on plain strings)
+    // --------------------------------------------------------------------
+
+    static final class Scan {
+        int classes;
+        int emojis;
+        int keywords; // LanguageDetector.KEYWORDS groups
+    }
+
+    static Scan scan(CharSequence t) {
+        Scan scan = new Scan();
+        int state = KeywordMatcher.ROOT;
+        for (int i = 0; i < t.length(); ) {
+            int cp = Character.codePointAt(t, i);
+            i += Character.charCount(cp);
+            scan.classes |= classOf(cp);
+            if (TextScan.isEmoji(cp)) scan.emojis++;
+
+            // Language keywords on the lowercased text ('İ' lowercases to "i" + U+0307)
+            if (cp == '\u0130') {
+                state = LanguageDetector.KEYWORDS.next(state, 'i');
+                scan.keywords |= LanguageDetector.KEYWORDS.containsMask(state);
+                state = LanguageDetector.KEYWORDS.next(state, '\u0307');
+            } else {
+                int lowerCp = Character.toLowerCase(cp);
+                state = Character.isBmpCodePoint(lowerCp)
+                        ? LanguageDetector.KEYWORDS.next(state, (char) lowerCp)
+                        : KeywordMatcher.ROOT;
+            }
+            scan.keywords |= LanguageDetector.KEYWORDS.containsMask(state);
+        }
+        return scan;
+    }
+
+    private static int classOf(int cp) {
+        if (TextScan.isTamil(cp)) return TAMIL;
+        if (TextScan.isEmoji(cp)) return EMOJI;
+        if (TextScan.isLineTerminator(cp)) return LINE_BREAK;
+        if (cp == '¿' || cp == '¡') return SPANISH_MARK | PUNCTUATION;
+
+        if (Character.isLetter(cp)) {
+            if (Character.UnicodeScript.of(cp) != Character.UnicodeScript.LATIN) return OTHER_LETTER;
+            int lower = Character.toLowerCase(cp);
+            int classes = LATIN;
+            if (TextScan.SPANISH_ACCENTS.contains(lower)) classes |= SPANISH_ACCENT;
+            if (TextScan.FRENCH_ACCENTS.contains(lower)) classes |= FRENCH_ACCENT;
+            return classes;
+        }
+        if (Character.isDigit(cp)) return DIGIT;
+
+        switch (Character.getType(cp)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return PUNCTUATION;
+            default:
+                return 0;
+        }
+    }
+}
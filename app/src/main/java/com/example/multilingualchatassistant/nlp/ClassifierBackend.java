@@ -0,0 +1,55 @@
+package com.example.multilingualchatassistant.nlp;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * ClassifierBackend
+ *
+ * One way for LocalNlpModel to turn a message into an intent / tone label:
+ * the keyword heuristics (LocalNlpModel.heuristics()) or a model such as
+ * LinearModelBackend. Implementations must be thread-safe and plain JVM
+ * code (no native runtime), so they also run in unit tests.
+ *
+ * LocalNlpModel times every call, and answers below its confidence
+ * threshold are replaced by the heuristics' answer.
+ */
+public interface ClassifierBackend {
+
+    /** Short stable name, used as the key of LocalNlpModel.getStats(). */
+    @NonNull
+    String name();
+
+    /**
+     * Intent label (see LocalNlpModel.predictIntent) for text, which may
+     * be in any case and is not trimmed.
+     */
+    @NonNull
+    Prediction predictIntent(@NonNull String text);
+
+    /** Tone label (see LocalNlpModel.predictTone) for lowercased text. */
+    @NonNull
+    Prediction predictTone(@NonNull String lower);
+
+    /**
+     * A label with the backend's confidence in it, 0..1 (the heuristics
+     * always say 1).
+     */
+    final class Prediction {
+        @NonNull
+        public final String label;
+        public final float confidence;
+
+        public Prediction(@NonNull String label, float confidence) {
+            this.label = label;
+            this.confidence = confidence;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s=%.3f", label, confidence);
+        }
+    }
+}
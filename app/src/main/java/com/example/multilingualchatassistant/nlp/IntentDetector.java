@@ -42,6 +42,15 @@ public class IntentDetector {
         return intent != null ? intent : "unknown";
     }
 
+    // Used from GIF button (message analysed once for all detectors)
+    public static String detectIntent(AnalyzedText text) {
+        if (text == null || text.isEmpty()) {
+            return "unknown";
+        }
+        String intent = LocalNlpModel.predictIntent(text);
+        return intent != null ? intent : "unknown";
+    }
+
     // Used from ReplyEngine (incoming + reply combined)
     public static String detectIntent(String incoming, String reply) {
         StringBuilder sb = new StringBuilder();
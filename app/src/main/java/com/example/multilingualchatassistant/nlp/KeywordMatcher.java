@@ -0,0 +1,291 @@
+package com.example.multilingualchatassistant.nlp;
+
+import com.example.multilingualchatassistant.util.TextScan;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * KeywordMatcher
+ *
+ * Keyword rules of up to 32 groups compiled into ONE Aho-Corasick automaton.
+ * A scan reports a bitmask of the groups with a hit (bit i = i-th group
+ * added), without allocating. LocalNlpModel uses the lowest bit as the
+ * winning intent; ToneDetector feeds chars from its own single pass.
+ *
+ * Same semantics as t = text.toLowerCase(Locale.ROOT).trim() followed by
+ *  - contains(...):   t.contains(pattern)   (no word boundaries)
+ *  - startsWith(...): t.startsWith(pattern)
+ *  - startsWithSingleLine(...): t.startsWith(pattern) and t has no line
+ *    break, i.e. t.matches("^(p1|p2|...)[!. ]?.*") ('.' stops at line terminators)
+ */
+final class KeywordMatcher {
+
+    static final int ROOT = 0;
+
+    private static final int CONTAINS = 0;
+    private static final int STARTS_WITH = 1;
+    private static final int STARTS_WITH_SINGLE_LINE = 2;
+
+    // Goto function: per state, sorted chars + target states
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    private final int[] depth;
+
+    // Per state, groups with a hit ending there
+    private final int[] containsMask;      // own + inherited through fail links
+    private final int[] startsWithMask;    // own patterns only (hit must start at 0)
+    private final int[] singleLineMask;    // own patterns only
+
+    private final String[] groups;
+
+    private KeywordMatcher(char[][] keys, int[][] next, int[] fail, int[] depth,
+                           int[] containsMask, int[] startsWithMask,
+                           int[] singleLineMask, String[] groups) {
+        this.keys = keys;
+        this.next = next;
+        this.fail = fail;
+        this.depth = depth;
+        this.containsMask = containsMask;
+        this.startsWithMask = startsWithMask;
+        this.singleLineMask = singleLineMask;
+        this.groups = groups;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /** Name of group i (bit i of a match result). */
+    String group(int i) {
+        return groups[i];
+    }
+
+    /**
+     * Groups with a hit in text. Lowercasing and trimming happen on the fly.
+     *
+     * @param stopMask stop scanning as soon as one of these groups hits
+     *                 (the result then holds at least that group)
+     */
+    int match(CharSequence text, int stopMask) {
+        int start = 0;
+        int end = text.length();
+        // String.trim(): strip chars <= ' ' at both ends
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        int hits = 0;
+        int singleLine = 0;
+        boolean lineBreak = false;
+
+        int state = ROOT;
+        int pos = 0; // position in the lowercased text
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (TextScan.isLineTerminator(c)) lineBreak = true;
+
+            if (c == '\u0130') {
+                // toLowerCase(ROOT) turns 'İ' into "i̇": feed both chars
+                state = next(state, 'i');
+                if (depth[state] == ++pos) {
+                    hits |= startsWithMask[state];
+                    singleLine |= singleLineMask[state];
+                }
+                hits |= containsMask[state];
+                c = '\u0307';
+            } else {
+                c = lower(c);
+            }
+
+            state = next(state, c);
+            if (depth[state] == ++pos) {
+                hits |= startsWithMask[state];
+                singleLine |= singleLineMask[state];
+            }
+            hits |= containsMask[state];
+            if ((hits & stopMask) != 0) return hits;
+        }
+
+        return lineBreak ? hits : hits | singleLine;
+    }
+
+    /**
+     * One automaton step for callers running their own scan. c must already
+     * be lowercased; start from ROOT.
+     */
+    int next(int state, char c) {
+        int target = goTo(keys, next, state, c);
+        while (target < 0 && state != ROOT) {
+            state = fail[state];
+            target = goTo(keys, next, state, c);
+        }
+        return target < 0 ? ROOT : target;
+    }
+
+    /** contains(...) groups with a hit ending at this state. */
+    int containsMask(int state) {
+        return containsMask[state];
+    }
+
+    // --------------------------------------------------------------------
+    // Builder
+    // --------------------------------------------------------------------
+
+    static final class Builder {
+
+        private final List<String> groups = new ArrayList<>();
+        private final List<String> patterns = new ArrayList<>();
+        private final List<int[]> meta = new ArrayList<>(); // {kind, group}
+
+        private Builder() {
+        }
+
+        /** t.contains(pattern) for any pattern. */
+        Builder contains(String group, String... patterns) {
+            return add(CONTAINS, group, patterns);
+        }
+
+        /** t.startsWith(pattern) for any pattern. */
+        Builder startsWith(String group, String... patterns) {
+            return add(STARTS_WITH, group, patterns);
+        }
+
+        /** t.startsWith(pattern) and t has no line break. */
+        Builder startsWithSingleLine(String group, String... patterns) {
+            return add(STARTS_WITH_SINGLE_LINE, group, patterns);
+        }
+
+        private Builder add(int kind, String group, String[] list) {
+            int bit = groups.indexOf(group);
+            if (bit < 0) {
+                if (groups.size() == Integer.SIZE) {
+                    throw new IllegalArgumentException("more than 32 groups");
+                }
+                bit = groups.size();
+                groups.add(group);
+            }
+            for (String p : list) {
+                if (p.isEmpty()) {
+                    throw new IllegalArgumentException("empty pattern for " + group);
+                }
+                patterns.add(p.toLowerCase(Locale.ROOT));
+                meta.add(new int[]{kind, bit});
+            }
+            return this;
+        }
+
+        KeywordMatcher build() {
+            // ---- 1) Trie (mutable build form) ----
+            List<StringBuilder> nodeKeys = new ArrayList<>();
+            List<List<Integer>> nodeNext = new ArrayList<>();
+            List<Integer> nodeDepth = new ArrayList<>();
+            List<int[]> nodeOwn = new ArrayList<>(); // group mask per kind, own patterns
+            nodeKeys.add(new StringBuilder());
+            nodeNext.add(new ArrayList<>());
+            nodeDepth.add(0);
+            nodeOwn.add(new int[3]);
+
+            for (int id = 0; id < patterns.size(); id++) {
+                String p = patterns.get(id);
+                int state = ROOT;
+                for (int i = 0; i < p.length(); i++) {
+                    char c = p.charAt(i);
+                    int idx = nodeKeys.get(state).indexOf(String.valueOf(c));
+                    if (idx >= 0) {
+                        state = nodeNext.get(state).get(idx);
+                    } else {
+                        int created = nodeKeys.size();
+                        nodeKeys.add(new StringBuilder());
+                        nodeNext.add(new ArrayList<>());
+                        nodeDepth.add(i + 1);
+                        nodeOwn.add(new int[3]);
+                        nodeKeys.get(state).append(c);
+                        nodeNext.get(state).add(created);
+                        state = created;
+                    }
+                }
+                nodeOwn.get(state)[meta.get(id)[0]] |= 1 << meta.get(id)[1];
+            }
+
+            // ---- 2) Freeze goto table (sorted for binary search) ----
+            int states = nodeKeys.size();
+            char[][] keys = new char[states][];
+            int[][] next = new int[states][];
+            int[] depth = new int[states];
+            int[] containsMask = new int[states];
+            int[] startsWithMask = new int[states];
+            int[] singleLineMask = new int[states];
+            for (int s = 0; s < states; s++) {
+                String k = nodeKeys.get(s).toString();
+                List<Integer> targets = nodeNext.get(s);
+                Integer[] order = new Integer[k.length()];
+                for (int i = 0; i < order.length; i++) order[i] = i;
+                Arrays.sort(order, (a, b) -> Character.compare(k.charAt(a), k.charAt(b)));
+
+                keys[s] = new char[order.length];
+                next[s] = new int[order.length];
+                for (int i = 0; i < order.length; i++) {
+                    keys[s][i] = k.charAt(order[i]);
+                    next[s][i] = targets.get(order[i]);
+                }
+                depth[s] = nodeDepth.get(s);
+                containsMask[s] = nodeOwn.get(s)[CONTAINS];
+                startsWithMask[s] = nodeOwn.get(s)[STARTS_WITH];
+                singleLineMask[s] = nodeOwn.get(s)[STARTS_WITH_SINGLE_LINE];
+            }
+
+            // ---- 3) Failure links (BFS); "contains" hits are inherited ----
+            int[] fail = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : next[ROOT]) {
+                fail[child] = ROOT;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                for (int i = 0; i < keys[s].length; i++) {
+                    char c = keys[s][i];
+                    int child = next[s][i];
+
+                    int f = fail[s];
+                    int target = goTo(keys, next, f, c);
+                    while (target < 0 && f != ROOT) {
+                        f = fail[f];
+                        target = goTo(keys, next, f, c);
+                    }
+                    fail[child] = target < 0 ? ROOT : target;
+                    containsMask[child] |= containsMask[fail[child]];
+
+                    queue.add(child);
+                }
+            }
+
+            return new KeywordMatcher(keys, next, fail, depth, containsMask,
+                    startsWithMask, singleLineMask, groups.toArray(new String[0]));
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+
+    private static int goTo(char[][] keys, int[][] next, int state, char c) {
+        int idx = Arrays.binarySearch(keys[state], c);
+        return idx >= 0 ? next[state][idx] : -1;
+    }
+
+    // Per-char equivalent of toLowerCase(Locale.ROOT) for everything the
+    // rules can match. Surrogates stay as they are: no rule contains one,
+    // so they reset the automaton either way. Capital sigma's final form
+    // only matters for Greek, which no rule contains.
+    private static char lower(char c) {
+        if (c < 0x80) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+}
@@ -1,81 +1,178 @@
 package com.example.multilingualchatassistant.nlp;
 
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
-
-import java.util.Locale;
-
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * LanguageDetector
+ *
+ * Ranks en / es / fr / ta / de with TrigramLanguageIdentifier once its
+ * profiles are loaded (loadProfiles). When they are not, or the text is too
+ * short / ambiguous for a confident answer, the first-match rules below
+ * decide (Tamil script, Spanish / French accents and keywords, else "und").
+ *
+ * detect() is the pure, thread-safe core: no Handler, usable from worker
+ * threads, batch jobs and plain JVM tests. detectAsync() runs it on an
+ * executor of the caller's choice; detectLanguage() keeps the old
+ * main-thread callback.
+ */
 public class LanguageDetector {
 
+    private static final String TAG = "LanguageDetector";
+
     public interface Callback {
         void onResult(@NonNull String languageCode);
         void onError(@NonNull Exception e);
     }
 
-    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+    private static volatile TrigramLanguageIdentifier identifier;
 
-    public static void detectLanguage(@NonNull String text,
-                                      @NonNull Callback callback) {
+    /**
+     * Map the trigram profiles from assets. Cheap (no parsing), call once,
+     * e.g. from onCreate; on failure detection keeps using the rules.
+     */
+    public static void loadProfiles(@NonNull Context context) {
+        if (identifier != null) return;
         try {
-            String code = simpleGuess(text);
-            MAIN.post(() -> callback.onResult(code));
-        } catch (Exception e) {
-            MAIN.post(() -> callback.onError(e));
+            identifier = TrigramLanguageIdentifier.load(context.getApplicationContext());
+        } catch (IOException e) {
+            Log.w(TAG, "language profiles unavailable, using rules only", e);
         }
     }
 
-    private static String simpleGuess(String text) {
-        if (text == null || text.trim().isEmpty()) return "und";
+    @VisibleForTesting
+    static void setIdentifier(@Nullable TrigramLanguageIdentifier id) {
+        identifier = id;
+    }
 
-        String t = text.trim();
-        String lower = t.toLowerCase(Locale.ROOT);
+    /**
+     * Every profile language ranked with its confidence, or null when the
+     * profiles are not loaded.
+     */
+    @Nullable
+    public static TrigramLanguageIdentifier.Result rank(@NonNull CharSequence text) {
+        TrigramLanguageIdentifier id = identifier;
+        return id != null ? id.identify(text) : null;
+    }
 
-        // ------------------------------
-        // Tamil detection
-        // ------------------------------
-        for (int i = 0; i < t.length(); i++) {
-            char c = t.charAt(i);
-            if (c >= 0x0B80 && c <= 0x0BFF) {
-                return "ta";
+    /**
+     * Language code for text (en, es, fr, ta, de or und). Synchronous and
+     * thread-safe; leading / trailing whitespace is ignored.
+     */
+    @NonNull
+    public static String detect(@Nullable CharSequence text) {
+        if (text == null) return "und";
+        String t = text.toString().trim();
+        AnalyzedText.Scan scan = AnalyzedText.scan(t);
+        return guess(t, scan.classes, scan.keywords);
+    }
+
+    /**
+     * detect() on executor; callback runs on that executor too. Pass
+     * Runnable::run to stay on the calling thread.
+     */
+    public static void detectAsync(@Nullable CharSequence text,
+                                   @NonNull Executor executor,
+                                   @NonNull Callback callback) {
+        executor.execute(() -> {
+            String code;
+            try {
+                code = detect(text);
+            } catch (RuntimeException e) {
+                callback.onError(e);
+                return;
             }
-        }
+            callback.onResult(code);
+        });
+    }
 
-        // ------------------------------
-        // Spanish detection
-        // ------------------------------
+    /**
+     * detect() on the calling thread, result posted to the main thread.
+     * Prefer detect() or detectAsync(), which skip the message-queue hop.
+     */
+    public static void detectLanguage(@NonNull String text,
+                                      @NonNull Callback callback) {
+        try {
+            String code = detect(text);
+            MainThread.EXECUTOR.execute(() -> callback.onResult(code));
+        } catch (RuntimeException e) {
+            MainThread.EXECUTOR.execute(() -> callback.onError(e));
+        }
+    }
 
-        // Spanish punctuation
-        if (t.contains("¿") || t.contains("¡")) return "es";
+    /**
+     * Same as above; the guess was already made when text was analysed,
+     * so callers can also just read text.detectedLanguage().
+     */
+    public static void detectLanguage(@NonNull AnalyzedText text,
+                                      @NonNull Callback callback) {
+        String code = text.detectedLanguage();
+        MainThread.EXECUTOR.execute(() -> callback.onResult(code));
+    }
 
-        // Spanish accents á é í ó ú ñ
-        if (lower.matches(".*[áéíóúñ].*")) return "es";
+    // Created on first use, so detect() never touches the Looper
+    private static final class MainThread {
+        static final Executor EXECUTOR = new Handler(Looper.getMainLooper())::post;
+    }
 
-        // Common Spanish keywords
-        if (lower.contains("hola") ||
-                lower.contains("gracias") ||
-                lower.contains("bienvenido")) {
-            return "es";
+    /**
+     * Confident trigram ranking first, then the rules. text is trimmed;
+     * classes / keywords come from AnalyzedText.scan(text).
+     */
+    static String guess(CharSequence text, int classes, int keywords) {
+        TrigramLanguageIdentifier id = identifier;
+        if (id != null) {
+            TrigramLanguageIdentifier.Result result = id.identify(text);
+            if (result.isConfident()) return result.best();
         }
+        return guess(classes, keywords);
+    }
+
+    // ------------------------------
+    // Keywords (KEYWORDS groups, bit per language)
+    // ------------------------------
+    static final int KEYWORD_ES = 1;
+    static final int KEYWORD_FR = 1 << 1;
+
+    static final KeywordMatcher KEYWORDS = KeywordMatcher.builder()
+            .contains("es", "hola", "gracias", "bienvenido")
+            .contains("fr", "bonjour", "merci")
+            .build();
+
+    /**
+     * The first-match rules, on what one AnalyzedText scan found in the trimmed text
+     * (AnalyzedText class bits + KEYWORDS hits). First match wins.
+     */
+    static String guess(int classes, int keywords) {
+        // Tamil detection
+        if ((classes & AnalyzedText.TAMIL) != 0) return "ta";
 
-        // ------------------------------
-        // French detection
-        // ------------------------------
+        // Spanish punctuation ¿ ¡
+        if ((classes & AnalyzedText.SPANISH_MARK) != 0) return "es";
 
-        // French accents à â ä ç é è ê ë î ï ô œ ù û ü ÿ
-        if (lower.matches(".*[àâäçéèêëîïôœùûüÿ].*")) return "fr";
+        // Accents were checked with lower.matches(".*[...].*"), which never
+        // matches across a line terminator: keep that
+        boolean singleLine = (classes & AnalyzedText.LINE_BREAK) == 0;
 
-        // Common French keywords
-        if (lower.contains("bonjour") ||
-                lower.contains("merci")) {
-            return "fr";
-        }
+        // Spanish accents á é í ó ú ñ, then common Spanish keywords
+        if (singleLine && (classes & AnalyzedText.SPANISH_ACCENT) != 0) return "es";
+        if ((keywords & KEYWORD_ES) != 0) return "es";
+
+        // French accents à â ä ç é è ê ë î ï ô œ ù û ü ÿ, then common French keywords
+        if (singleLine && (classes & AnalyzedText.FRENCH_ACCENT) != 0) return "fr";
+        if ((keywords & KEYWORD_FR) != 0) return "fr";
 
-        // ------------------------------
         // If no clear match, return "und"
         // NOT "en"
-        // ------------------------------
         return "und";
     }
 }
@@ -0,0 +1,396 @@
+package com.example.multilingualchatassistant.nlp;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * LinearModelBackend
+ *
+ * Tiny on-device intent / tone classifier: multinomial logistic regression
+ * over hashed features, in pure Java. The weights are one binary table,
+ * assets/nlp/classifier.bin, trained by ClassifierTrainer (unit-test
+ * sources) from the labelled messages in src/test/resources/classifier.
+ *
+ * The table is memory-mapped like the language profiles. Weights are int8
+ * with one float scale per label, read with absolute ByteBuffer gets: a
+ * feature costs one row of label-count bytes, summed into int accumulators
+ * from a per-thread scratch, so scoring allocates nothing.
+ *
+ * Features (forEachFeature), each hashed into 2^hashBits buckets:
+ *  - character 3- and 4-grams of the lowercased text, word boundaries
+ *    collapsed to one space
+ *  - lowercased word tokens and word bigrams; every other non-space code
+ *    point (emoji, '?', '¿', '!') is a token of its own
+ *  - SlangDictionary hits (any language): one "has slang" feature plus
+ *    the hit's meaning, so "thx" and "ty" share "thank you"
+ *
+ * Table layout (big-endian):
+ *   int magic "LNCL", int version, int hashBits
+ *   then one section for intent and one for tone:
+ *     int labels L
+ *     L × (byte length, ASCII label), zero-padded to a multiple of 4
+ *     L × float            bias
+ *     L × float            scale: weight = int8 × scale
+ *     2^hashBits × L int8  weight per bucket and label, zero-padded to a
+ *                          multiple of 4
+ */
+public final class LinearModelBackend implements ClassifierBackend {
+
+    static final String ASSET = "nlp/classifier.bin";
+    static final int MAGIC = 0x4C4E434C; // "LNCL"
+    static final int VERSION = 2;
+
+    /** Characters scanned per message at most. */
+    static final int MAX_CHARS = 512;
+
+    static final int INTENT = 0;
+    static final int TONE = 1;
+
+    private static final int MAX_LABELS = 32;
+
+    private final int mask;
+    private final Section[] sections;
+    private final ThreadLocal<Scorer> scorers = new ThreadLocal<Scorer>() {
+        @Override
+        protected Scorer initialValue() {
+            return new Scorer();
+        }
+    };
+
+    private LinearModelBackend(ByteBuffer table) throws IOException {
+        if (table.remaining() < 12 || table.getInt(0) != MAGIC) {
+            throw new IOException("not a classifier table");
+        }
+        if (table.getInt(4) != VERSION) {
+            throw new IOException("unsupported classifier table version " + table.getInt(4));
+        }
+        int hashBits = table.getInt(8);
+        if (hashBits < 1 || hashBits > 20) {
+            throw new IOException("bad hash size " + hashBits);
+        }
+        mask = (1 << hashBits) - 1;
+
+        int position = 12;
+        sections = new Section[2];
+        for (int task = INTENT; task <= TONE; task++) {
+            sections[task] = Section.read(table, position, 1 << hashBits);
+            position = sections[task].end;
+        }
+        if (position != table.limit()) {
+            throw new IOException("trailing bytes in classifier table");
+        }
+    }
+
+    /** Map the model from the app's assets (stored uncompressed). */
+    @NonNull
+    public static LinearModelBackend load(@NonNull Context context) throws IOException {
+        try (AssetFileDescriptor fd = context.getAssets().openFd(ASSET);
+             FileInputStream in = fd.createInputStream()) {
+            return new LinearModelBackend(in.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getDeclaredLength()));
+        }
+    }
+
+    /** Map a model file (tests, tools). */
+    @NonNull
+    static LinearModelBackend map(@NonNull File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            return new LinearModelBackend(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Use an in-memory model (tests, tools). */
+    @NonNull
+    static LinearModelBackend wrap(@NonNull ByteBuffer table) throws IOException {
+        return new LinearModelBackend(table.slice());
+    }
+
+    @NonNull
+    @Override
+    public String name() {
+        return "linear";
+    }
+
+    @NonNull
+    @Override
+    public Prediction predictIntent(@NonNull String text) {
+        return predict(INTENT, text);
+    }
+
+    @NonNull
+    @Override
+    public Prediction predictTone(@NonNull String lower) {
+        return predict(TONE, lower);
+    }
+
+    @NonNull
+    public List<String> intentLabels() {
+        return sections[INTENT].labels();
+    }
+
+    @NonNull
+    public List<String> toneLabels() {
+        return sections[TONE].labels();
+    }
+
+    private Prediction predict(int task, String text) {
+        Scorer scorer = scorers.get();
+        int best = score(scorer, task, text);
+        return new Prediction(sections[task].labels[best], scorer.confidence);
+    }
+
+    /**
+     * Allocation-free core: index of the best label of task for text; its
+     * softmax probability is left in scorer.confidence.
+     */
+    int score(Scorer scorer, int task, CharSequence text) {
+        Section section = sections[task];
+        int count = section.labels.length;
+        int[] acc = scorer.acc;
+        for (int l = 0; l < count; l++) acc[l] = 0;
+
+        scorer.section = section;
+        scorer.mask = mask;
+        forEachFeature(text, MAX_CHARS, scorer);
+
+        float[] logits = scorer.logits;
+        int best = 0;
+        for (int l = 0; l < count; l++) {
+            logits[l] = section.bias[l] + section.scale[l] * acc[l];
+            if (logits[l] > logits[best]) best = l;
+        }
+        double sum = 0;
+        for (int l = 0; l < count; l++) sum += Math.exp(logits[l] - logits[best]);
+        scorer.confidence = (float) (1.0 / sum);
+        return best;
+    }
+
+    static final class Scorer extends FeatureSink {
+        final int[] acc = new int[MAX_LABELS];
+        final float[] logits = new float[MAX_LABELS];
+        float confidence;
+
+        private Section section;
+        private int mask;
+
+        @Override
+        void feature(int hash) {
+            ByteBuffer table = section.table;
+            int count = section.labels.length;
+            int row = section.weights + (hash & mask) * count;
+            for (int l = 0; l < count; l++) acc[l] += table.get(row + l);
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // One softmax layer
+    // --------------------------------------------------------------------
+
+    private static final class Section {
+        final String[] labels;
+        final float[] bias;
+        final float[] scale;
+        final ByteBuffer table;
+        final int weights; // offset of the int8 rows in table
+        final int end;
+
+        private Section(String[] labels, float[] bias, float[] scale,
+                        ByteBuffer table, int weights, int end) {
+            this.labels = labels;
+            this.bias = bias;
+            this.scale = scale;
+            this.table = table;
+            this.weights = weights;
+            this.end = end;
+        }
+
+        static Section read(ByteBuffer table, int position, int buckets) throws IOException {
+            int limit = table.limit();
+            if (limit - position < 4) throw new IOException("truncated classifier table");
+            int count = table.getInt(position);
+            if (count < 1 || count > MAX_LABELS) throw new IOException("bad label count " + count);
+
+            String[] labels = new String[count];
+            int p = position + 4;
+            for (int l = 0; l < count; l++) {
+                if (p >= limit) throw new IOException("truncated classifier table");
+                byte[] name = new byte[table.get(p++) & 0xFF];
+                if (limit - p < name.length) throw new IOException("truncated classifier table");
+                for (int i = 0; i < name.length; i++) name[i] = table.get(p++);
+                labels[l] = new String(name, StandardCharsets.US_ASCII);
+            }
+            p = (p + 3) & ~3;
+
+            long rows = (long) count * buckets;
+            long end = p + 8L * count + ((rows + 3) & ~3);
+            if (end > limit) throw new IOException("truncated classifier table");
+
+            float[] bias = new float[count];
+            float[] scale = new float[count];
+            for (int l = 0; l < count; l++) bias[l] = table.getFloat(p + 4 * l);
+            for (int l = 0; l < count; l++) scale[l] = table.getFloat(p + 4 * (count + l));
+            return new Section(labels, bias, scale, table, p + 8 * count, (int) end);
+        }
+
+        List<String> labels() {
+            List<String> out = new ArrayList<>(labels.length);
+            Collections.addAll(out, labels);
+            return out;
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Features (shared with ClassifierTrainer)
+    // --------------------------------------------------------------------
+
+    /**
+     * Receives feature hashes. Also the SlangMatcher sink: accept(id) turns
+     * a slang hit into its features, so no lambda is allocated per message.
+     */
+    abstract static class FeatureSink implements IntConsumer {
+        abstract void feature(int hash);
+
+        @Override
+        public final void accept(int slangId) {
+            feature(SLANG_SEED);
+            feature(Slang.MEANINGS[slangId]);
+        }
+    }
+
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BIGRAM_SEED = 0x9E3779B9;
+    private static final int TRIGRAM_SEED = 0x7FEB352D;
+    private static final int FOURGRAM_SEED = 0x846CA68B;
+    private static final int SLANG_SEED = 0x2C1B3C6D;
+    private static final int BOUNDARY = ' ';
+
+    // Slang of every SlangDictionary language in one automaton, built on first use
+    private static final class Slang {
+        static final SlangMatcher MATCHER;
+        static final int[] MEANINGS; // feature hash per entry
+
+        static {
+            List<SlangDictionary.Entry> entries = new ArrayList<>();
+            for (String lang : new String[]{"en", "es", "fr", "ta", "de"}) {
+                entries.addAll(SlangDictionary.getEntries(lang));
+            }
+            MATCHER = SlangMatcher.build(entries);
+            MEANINGS = new int[entries.size()];
+            for (int i = 0; i < MEANINGS.length; i++) {
+                int h = SLANG_SEED;
+                String meaning = entries.get(i).meaning;
+                for (int c = 0; c < meaning.length(); c++) {
+                    h = (h ^ Character.toLowerCase(meaning.charAt(c))) * FNV_PRIME;
+                }
+                MEANINGS[i] = h;
+            }
+        }
+    }
+
+    /**
+     * Feed the feature hashes of the first maxChars chars of text to sink
+     * (see class doc). Allocation-free.
+     */
+    static void forEachFeature(CharSequence text, int maxChars, FeatureSink sink) {
+        int end = Math.min(text.length(), maxChars);
+        forEachWordFeature(text, end, sink);
+        forEachCharGram(text, end, sink);
+        Slang.MATCHER.forEachHit(text, end, sink);
+    }
+
+    // Word tokens and bigrams, with start / end markers
+    private static void forEachWordFeature(CharSequence text, int end, FeatureSink sink) {
+        int previous = FNV_OFFSET; // start-of-message marker
+        int hash = 0;
+        boolean inWord = false;
+        for (int i = 0; i < end; ) {
+            int cp = Character.codePointAt(text, i);
+            int next = i + Character.charCount(cp);
+            if (isWordChar(cp) || (inWord && isApostrophe(cp) && next < end
+                    && Character.isLetter(Character.codePointAt(text, next)))) {
+                hash = (inWord ? hash : FNV_OFFSET) ^ Character.toLowerCase(cp);
+                hash *= FNV_PRIME;
+                inWord = true;
+            } else {
+                if (inWord) {
+                    previous = emitWord(previous, hash, sink);
+                    inWord = false;
+                }
+                if (!Character.isWhitespace(cp) && !Character.isSpaceChar(cp)) {
+                    previous = emitWord(previous, (FNV_OFFSET ^ cp) * FNV_PRIME, sink);
+                }
+            }
+            i = next;
+        }
+        if (inWord) previous = emitWord(previous, hash, sink);
+        sink.feature(mix(previous, FNV_PRIME, BIGRAM_SEED)); // end-of-message marker
+    }
+
+    private static int emitWord(int previous, int token, FeatureSink sink) {
+        sink.feature(token);
+        sink.feature(mix(previous, token, BIGRAM_SEED));
+        return token;
+    }
+
+    // Character 3- and 4-grams over lowercased text padded with boundaries
+    private static void forEachCharGram(CharSequence text, int end, FeatureSink sink) {
+        int a = 0;
+        int b = 0;
+        int c = BOUNDARY;
+        int seen = 1;
+        for (int i = 0; i <= end; ) {
+            int symbol = BOUNDARY; // i == end: closing boundary
+            if (i < end) {
+                int cp = Character.codePointAt(text, i);
+                i += Character.charCount(cp);
+                if (isWordChar(cp) || isSymbol(cp)) symbol = Character.toLowerCase(cp);
+            } else {
+                i++;
+            }
+            if (symbol == BOUNDARY && c == BOUNDARY) continue;
+            if (seen >= 2) sink.feature(mix(mix(b, c, TRIGRAM_SEED), symbol, TRIGRAM_SEED));
+            if (seen >= 3) sink.feature(mix(mix(mix(a, b, FOURGRAM_SEED), c, FOURGRAM_SEED), symbol, FOURGRAM_SEED));
+            a = b;
+            b = c;
+            c = symbol;
+            seen++;
+        }
+    }
+
+    private static int mix(int first, int second, int seed) {
+        int h = (first * seed) ^ second;
+        return h ^ (h >>> 15);
+    }
+
+    private static boolean isWordChar(int cp) {
+        if (Character.isLetterOrDigit(cp) || cp == '_') return true;
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    // Kept as their own symbol in char n-grams: ? ¿ ! and emoji / other symbols
+    private static boolean isSymbol(int cp) {
+        return cp == '?' || cp == '¿' || cp == '!' || Character.getType(cp) == Character.OTHER_SYMBOL;
+    }
+
+    private static boolean isApostrophe(int cp) {
+        return cp == '\'' || cp == '’';
+    }
+}
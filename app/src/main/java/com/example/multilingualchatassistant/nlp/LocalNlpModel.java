@@ -1,34 +1,90 @@
 package com.example.multilingualchatassistant.nlp;
 
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * LocalNlpModel
  *
  * Single integration point for local NLP (intent + tone).
  *
- * - Today: uses strong heuristics so the app works fully offline.
- * - Future: can be wired to a tiny ONNX / Transformer model.
- *
- * In your FYP report you can describe:
- *  - this class as the ML integration point
- *  - how an ONNX model would be loaded from assets
- *  - how predictIntent / predictTone would call the model
- *    and only fall back to heuristics if the model is not confident.
+ * Predictions come from a swappable ClassifierBackend:
+ *  - heuristics(): the keyword rules below, so the app works fully offline
+ *    (the default)
+ *  - LinearModelBackend: a tiny hashed-feature model from assets. Opt-in:
+ *    loadModel() installs it only when USE_ML_MODEL is true, since it has
+ *    only been checked against the small eval sets in src/test/resources
+ * Any backend answer below MIN_CONFIDENCE falls back to the heuristics.
+ * Every call is timed; getStats() returns latency and confidence
+ * histograms per backend and task.
  */
 public class LocalNlpModel {
 
-    // Toggle: set to true when you actually integrate ONNX runtime
-    private static final boolean USE_ML_MODEL = false;
+    private static final String TAG = "LocalNlpModel";
+
+    /** Set to true to let loadModel() install LinearModelBackend. */
+    public static final boolean USE_ML_MODEL = false;
+
+    /** Backend answers below this are replaced by the heuristics' answer. */
+    public static final float MIN_CONFIDENCE = 0.5f;
+
+    private static final ClassifierBackend HEURISTICS = new HeuristicBackend();
+
+    private static volatile ClassifierBackend backend = HEURISTICS;
+
+    // ------------------------------------------------------------------------
+    // Backends
+    // ------------------------------------------------------------------------
+
+    /** The keyword heuristics as a backend (always confident). */
+    @NonNull
+    public static ClassifierBackend heuristics() {
+        return HEURISTICS;
+    }
+
+    @NonNull
+    public static ClassifierBackend getBackend() {
+        return backend;
+    }
+
+    /** Swap the backend at runtime; null restores the heuristics. */
+    public static void setBackend(@Nullable ClassifierBackend b) {
+        backend = b != null ? b : HEURISTICS;
+    }
+
+    /**
+     * If USE_ML_MODEL is set, map LinearModelBackend from assets and make it
+     * the backend. Call once, e.g. from onCreate; when the flag is off or
+     * the asset fails to load, the heuristics stay in place.
+     */
+    public static void loadModel(@NonNull Context context) {
+        if (!USE_ML_MODEL) return;
+        try {
+            setBackend(LinearModelBackend.load(context.getApplicationContext()));
+        } catch (IOException e) {
+            Log.w(TAG, "classifier model unavailable, using heuristics", e);
+        }
+    }
 
     // ------------------------------------------------------------------------
     // Public APIs
     // ------------------------------------------------------------------------
 
     /**
-     * Predict intent from text using local ML model or heuristics.
+     * Predict intent from text.
      *
-     * Possible return values (current heuristic version):
+     * Possible return values:
      *  - greeting
      *  - farewell
      *  - thanks
@@ -40,223 +96,332 @@ public class LocalNlpModel {
      *  - question
      *  - unknown
      *
-     * Return null only if the ML model is enabled but not confident.
-     * With heuristics only, this never returns null.
+     * Never returns null: a backend that is not confident falls back to the
+     * heuristics.
      */
     public static String predictIntent(String text) {
         if (text == null || text.trim().isEmpty()) {
             return "unknown";
         }
+        return predict(INTENT, text);
+    }
 
-        if (USE_ML_MODEL) {
-            // TODO: ONNX runtime logic (in real ML version)
-            // 1) Convert text to model input tensor
-            // 2) Run inference
-            // 3) Map logits/probabilities to one of the intent labels
-            // 4) If confidence is too low, return null to allow fallback
+    /** Same as predictIntent(text.normalized()). */
+    public static String predictIntent(AnalyzedText text) {
+        if (text == null || text.normalized().trim().isEmpty()) {
+            return "unknown";
         }
-
-        // Heuristic "mini model" so everything works without ONNX
-        return heuristicIntent(text);
+        return predict(INTENT, text.lower());
     }
 
     /**
-     * Predict tone from text using local ML model or heuristics.
+     * Predict tone from text.
      *
-     * Tones: friendly, formal, casual, humorous, empathetic, neutral
+     * Tones: friendly, formal, casual, humorous, empathetic, neutral, and
+     * with LinearModelBackend also angry and sad (ToneDetector's labels)
      *
-     * Return null only if the ML model is enabled but not confident.
-     * With heuristics only, this never returns null.
+     * Never returns null (see predictIntent).
      */
     public static String predictTone(String text) {
         if (text == null || text.trim().isEmpty()) {
             return "neutral";
         }
+        return predict(TONE, text.toLowerCase(Locale.ROOT));
+    }
 
-        if (USE_ML_MODEL) {
-            // TODO: ONNX runtime logic for tone classification
+    /** Same as predictTone(text.normalized()), without lowercasing again. */
+    public static String predictTone(AnalyzedText text) {
+        if (text == null || text.normalized().trim().isEmpty()) {
+            return "neutral";
         }
-
-        return heuristicTone(text);
+        return predict(TONE, text.lower());
     }
 
-    // ------------------------------------------------------------------------
-    // Heuristic "mini model" for INTENT (merged logic)
-    // ------------------------------------------------------------------------
-
-    private static String heuristicIntent(String text) {
-        String t = text.toLowerCase(Locale.ROOT).trim();
-
-        // ---- Greeting (EN, chat-style) ----
-        if (t.matches("^(hi|hey|hello|yo|sup)[!. ]?.*")
-                || t.contains("good morning")
-                || t.contains("good afternoon")
-                || t.contains("good evening")
-                || t.contains("how are you")
-                || t.contains("what's up")
-                || t.contains("whats up")
-                || t.contains("wyd")
-                || t.contains("wya")) {
-            return "greeting";
+    // Tone text is already lowercased
+    private static String predict(int task, String text) {
+        ClassifierBackend b = backend;
+        long start = System.nanoTime();
+        ClassifierBackend.Prediction p = task == INTENT ? b.predictIntent(text) : b.predictTone(text);
+        long elapsed = System.nanoTime() - start;
+
+        boolean fallback = p.confidence < MIN_CONFIDENCE;
+        recorder(b.name(), task).record(elapsed, p.confidence, fallback);
+        if (!fallback) {
+            return p.label;
         }
+        return task == INTENT ? heuristicIntent(text) : heuristicTone(text);
+    }
 
-        // ---- Greeting (ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // Spanish
-                "hola", "buenos dias", "buenas noches",
-                // French
-                "salut", "bonsoir", "bonjour",
-                // Tamil
-                "வணக்கம்", "ஹலோ", "vanakkam"
-        })) {
-            return "greeting";
+    private static final class HeuristicBackend implements ClassifierBackend {
+        @NonNull
+        @Override
+        public String name() {
+            return "heuristic";
         }
 
-        // ---- Farewell / bye (EN chat + ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // English
-                "bye", "goodbye", "good night", "see you",
-                "cya", "ttyl", "gtg", "g2g", "talk to you later",
-                // Spanish
-                "adios", "hasta luego", "hasta pronto",
-                // French
-                "à plus", "a plus", "au revoir",
-                // Tamil
-                "போறேன்", "போயிட்டேன்",
-                // Variants
-                "see u"
-        })) {
-            return "farewell";
+        @NonNull
+        @Override
+        public Prediction predictIntent(@NonNull String text) {
+            return new Prediction(heuristicIntent(text), 1f);
         }
 
-        // ---- Thanks (EN / ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // English
-                "thank you", "thanks", "thx", "tysm",
-                "thanks a lot", "appreciate it", "big thanks",
-                "much appreciated",
-                // Spanish
-                "gracias", "muchas gracias",
-                // French
-                "merci", "merci beaucoup",
-                // Tamil
-                "நன்றி", "ரொம்ப நன்றி"
-        })) {
-            return "thanks";
+        @NonNull
+        @Override
+        public Prediction predictTone(@NonNull String lower) {
+            return new Prediction(heuristicTone(lower), 1f);
         }
+    }
 
-        // ---- Apology (EN / ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // English
-                "sorry", "my bad", "apologise", "apologize",
-                "i didn’t mean", "i didnt mean",
-                // Spanish
-                "lo siento", "perdón", "disculpa", "disculpe",
-                // French
-                "désolé", "je suis désolé", "pardon",
-                // Tamil
-                "மன்னிச்சு", "மன்னிக்கவும்", "மன்னி"
-        })) {
-            return "apology";
-        }
+    // ------------------------------------------------------------------------
+    // Stats
+    // ------------------------------------------------------------------------
+
+    static final int INTENT = 0;
+    static final int TONE = 1;
+
+    /** Latency bucket i counts calls of [2^i, 2^(i+1)) ns. */
+    public static final int LATENCY_BUCKETS = 32;
+    /** Confidence bucket i counts answers in [i / 10, (i + 1) / 10). */
+    public static final int CONFIDENCE_BUCKETS = 10;
 
-        // ---- Congrats / celebration (EN / ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // English
-                "congrats", "congratulations",
-                "so proud of you", "proud of you",
-                "well done", "good job", "nice job",
-                "gg", "you smashed it", "you nailed it",
-                // Spanish
-                "felicidades", "enhorabuena",
-                // French
-                "félicitations",
-                // Tamil
-                "வாழ்த்துக்கள்", "ரொம்ப சந்தோஷம்"
-        })) {
-            return "congrats";
+    /**
+     * Snapshot of one backend's counters for one task.
+     */
+    public static class Stats {
+        public String backend;
+        public String task;             // "intent" or "tone"
+        public long calls;
+        public long fallbacks;          // answers below MIN_CONFIDENCE
+        public long[] latencyBuckets;   // see LATENCY_BUCKETS
+        public long[] confidenceBuckets; // see CONFIDENCE_BUCKETS
+
+        /** Upper bound of the bucket holding quantile q (0..1) of latencies, in ns. */
+        public long latencyPercentileNs(double q) {
+            long rank = (long) Math.ceil(q * calls);
+            long seen = 0;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= rank && seen > 0) return 1L << (i + 1);
+            }
+            return 0;
         }
 
-        // ---- Love / affection (EN / ES / FR / TA) ----
-        if (containsAny(t, new String[]{
-                // English
-                "i love you", "love u", "love ya",
-                "i love u", "i luv u",
-                "miss you", "i miss u",
-                "you mean a lot", "you mean the world",
-                "my favorite person", "my favourite person",
-                // Spanish
-                "te amo", "te quiero",
-                // French
-                "je t'aime",
-                // Tamil
-                "நான் உன்னை காதலிக்கிறேன்", "லவ் யூ"
-        })) {
-            return "love";
+        public double fallbackRate() {
+            return calls == 0 ? 0.0 : (double) fallbacks / calls;
         }
 
-        // ---- Hate / anger (extra social intent) ----
-        if (containsAny(t, new String[]{
-                "hate you", "i hate you", "i hate u",
-                "so mad at you", "angry at you", "pissed at you"
-        })) {
-            return "hate";
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(backend).append('/').append(task)
+                    .append(" calls=").append(calls)
+                    .append(" fallbacks=").append(fallbacks)
+                    .append(" latency(p50/p99)=").append(latencyPercentileNs(0.5) / 1000.0)
+                    .append('/').append(latencyPercentileNs(0.99) / 1000.0).append("us")
+                    .append(" confidence=[");
+            for (int i = 0; i < confidenceBuckets.length; i++) {
+                if (i > 0) sb.append(' ');
+                sb.append(confidenceBuckets[i]);
+            }
+            return sb.append(']').toString();
         }
+    }
+
+    // Keyed by backend name, then task
+    private static final Map<String, Recorder[]> RECORDERS = new ConcurrentHashMap<>();
 
-        // ---- Question (multilingual) ----
-        boolean looksLikeQuestion =
-                t.endsWith("?") ||
-                        t.contains("?") ||
-                        t.startsWith("can you") ||
-                        t.startsWith("could you") ||
-                        t.startsWith("do you know") ||
-                        t.startsWith("what is") ||
-                        t.startsWith("when is") ||
-                        t.startsWith("where is") ||
-                        t.startsWith("why is") ||
-                        t.startsWith("how do i") ||
-                        t.startsWith("how can i") ||
-                        // Spanish question marks / French words
-                        t.contains("¿") ||
-                        t.contains("quoi") ||
-                        t.contains("pourquoi") ||
-                        // Tamil "how" / "why"
-                        t.contains(" எப்படி") ||  // ta "how"
-                        t.contains(" ஏன்");       // ta "why"
-
-        if (looksLikeQuestion) {
-            return "question";
+    private static Recorder recorder(String backendName, int task) {
+        Recorder[] r = RECORDERS.get(backendName);
+        if (r == null) {
+            r = RECORDERS.computeIfAbsent(backendName,
+                    k -> new Recorder[]{new Recorder(), new Recorder()});
         }
+        return r[task];
+    }
 
-        // ---- Smalltalk ----
-        if (containsAny(t, new String[]{
-                "how’s it going", "hows it going",
-                "what are you doing", "long time no see",
-                "wyd", "wya"
-        })) {
-            return "smalltalk";
+    /** One Stats per backend and task that has been called since the last reset. */
+    @NonNull
+    public static List<Stats> getStats() {
+        List<Stats> out = new ArrayList<>();
+        for (Map.Entry<String, Recorder[]> e : RECORDERS.entrySet()) {
+            for (int task = INTENT; task <= TONE; task++) {
+                Stats s = e.getValue()[task].snapshot();
+                if (s.calls == 0) continue;
+                s.backend = e.getKey();
+                s.task = task == INTENT ? "intent" : "tone";
+                out.add(s);
+            }
         }
+        return out;
+    }
 
-        return "unknown";
+    public static void resetStats() {
+        RECORDERS.clear();
     }
 
-    private static boolean containsAny(String text, String[] patterns) {
-        if (text == null || text.isEmpty()) return false;
-        for (String p : patterns) {
-            if (text.contains(p)) {
-                return true;
+    // Lock-free: a few atomic increments per prediction
+    private static final class Recorder {
+        // [0] calls, [1] fallbacks, then latency buckets, then confidence buckets
+        private final AtomicLongArray counts =
+                new AtomicLongArray(2 + LATENCY_BUCKETS + CONFIDENCE_BUCKETS);
+
+        void record(long elapsedNs, float confidence, boolean fallback) {
+            counts.incrementAndGet(0);
+            if (fallback) counts.incrementAndGet(1);
+
+            int latency = 63 - Long.numberOfLeadingZeros(Math.max(1, elapsedNs));
+            counts.incrementAndGet(2 + Math.min(latency, LATENCY_BUCKETS - 1));
+
+            int bucket = (int) (confidence * CONFIDENCE_BUCKETS);
+            bucket = Math.max(0, Math.min(bucket, CONFIDENCE_BUCKETS - 1));
+            counts.incrementAndGet(2 + LATENCY_BUCKETS + bucket);
+        }
+
+        Stats snapshot() {
+            Stats s = new Stats();
+            s.calls = counts.get(0);
+            s.fallbacks = counts.get(1);
+            s.latencyBuckets = new long[LATENCY_BUCKETS];
+            for (int i = 0; i < LATENCY_BUCKETS; i++) s.latencyBuckets[i] = counts.get(2 + i);
+            s.confidenceBuckets = new long[CONFIDENCE_BUCKETS];
+            for (int i = 0; i < CONFIDENCE_BUCKETS; i++) {
+                s.confidenceBuckets[i] = counts.get(2 + LATENCY_BUCKETS + i);
             }
+            return s;
         }
-        return false;
     }
 
     // ------------------------------------------------------------------------
-    // Heuristic "mini model" for TONE (same as before)
+    // Heuristic "mini model" for INTENT (merged logic)
     // ------------------------------------------------------------------------
 
-    private static String heuristicTone(String text) {
-        String t = text.toLowerCase(Locale.ROOT);
+    // All intent keywords in one automaton, built once. Intents are listed
+    // in priority order: the first intent with a hit (lowest bit) wins.
+    private static final KeywordMatcher INTENT_RULES = KeywordMatcher.builder()
+            // ---- Greeting (EN, chat-style) ----
+            // was t.matches("^(hi|hey|hello|yo|sup)[!. ]?.*")
+            .startsWithSingleLine("greeting",
+                    "hi", "hey", "hello", "yo", "sup")
+            .contains("greeting",
+                    "good morning", "good afternoon", "good evening",
+                    "how are you", "what's up", "whats up", "wyd", "wya")
+
+            // ---- Greeting (ES / FR / TA) ----
+            .contains("greeting",
+                    // Spanish
+                    "hola", "buenos dias", "buenas noches",
+                    // French
+                    "salut", "bonsoir", "bonjour",
+                    // Tamil
+                    "வணக்கம்", "ஹலோ", "vanakkam")
+
+            // ---- Farewell / bye (EN chat + ES / FR / TA) ----
+            .contains("farewell",
+                    // English
+                    "bye", "goodbye", "good night", "see you",
+                    "cya", "ttyl", "gtg", "g2g", "talk to you later",
+                    // Spanish
+                    "adios", "hasta luego", "hasta pronto",
+                    // French
+                    "à plus", "a plus", "au revoir",
+                    // Tamil
+                    "போறேன்", "போயிட்டேன்",
+                    // Variants
+                    "see u")
+
+            // ---- Thanks (EN / ES / FR / TA) ----
+            .contains("thanks",
+                    // English
+                    "thank you", "thanks", "thx", "tysm",
+                    "thanks a lot", "appreciate it", "big thanks",
+                    "much appreciated",
+                    // Spanish
+                    "gracias", "muchas gracias",
+                    // French
+                    "merci", "merci beaucoup",
+                    // Tamil
+                    "நன்றி", "ரொம்ப நன்றி")
+
+            // ---- Apology (EN / ES / FR / TA) ----
+            .contains("apology",
+                    // English
+                    "sorry", "my bad", "apologise", "apologize",
+                    "i didn’t mean", "i didnt mean",
+                    // Spanish
+                    "lo siento", "perdón", "disculpa", "disculpe",
+                    // French
+                    "désolé", "je suis désolé", "pardon",
+                    // Tamil
+                    "மன்னிச்சு", "மன்னிக்கவும்", "மன்னி")
+
+            // ---- Congrats / celebration (EN / ES / FR / TA) ----
+            .contains("congrats",
+                    // English
+                    "congrats", "congratulations",
+                    "so proud of you", "proud of you",
+                    "well done", "good job", "nice job",
+                    "gg", "you smashed it", "you nailed it",
+                    // Spanish
+                    "felicidades", "enhorabuena",
+                    // French
+                    "félicitations",
+                    // Tamil
+                    "வாழ்த்துக்கள்", "ரொம்ப சந்தோஷம்")
+
+            // ---- Love / affection (EN / ES / FR / TA) ----
+            .contains("love",
+                    // English
+                    "i love you", "love u", "love ya",
+                    "i love u", "i luv u",
+                    "miss you", "i miss u",
+                    "you mean a lot", "you mean the world",
+                    "my favorite person", "my favourite person",
+                    // Spanish
+                    "te amo", "te quiero",
+                    // French
+                    "je t'aime",
+                    // Tamil
+                    "நான் உன்னை காதலிக்கிறேன்", "லவ் யூ")
+
+            // ---- Hate / anger (extra social intent) ----
+            .contains("hate",
+                    "hate you", "i hate you", "i hate u",
+                    "so mad at you", "angry at you", "pissed at you")
+
+            // ---- Question (multilingual) ----
+            .contains("question",
+                    "?",
+                    // Spanish question marks / French words
+                    "¿", "quoi", "pourquoi",
+                    // Tamil "how" / "why" (after a space)
+                    " எப்படி", " ஏன்")
+            .startsWith("question",
+                    "can you", "could you", "do you know",
+                    "what is", "when is", "where is", "why is",
+                    "how do i", "how can i")
+
+            // ---- Smalltalk ----
+            // (wyd / wya already count as greeting above)
+            .contains("smalltalk",
+                    "how’s it going", "hows it going",
+                    "what are you doing", "long time no see",
+                    "wyd", "wya")
+            .build();
+
+    // One scan over the message, no lowercased copy
+    private static String heuristicIntent(String text) {
+        // Stop at the first greeting hit: nothing outranks it
+        int hits = INTENT_RULES.match(text, 1);
+        return hits == 0 ? "unknown" : INTENT_RULES.group(Integer.numberOfTrailingZeros(hits));
+    }
+
+    // ------------------------------------------------------------------------
+    // Heuristic "mini model" for TONE (same as before)
+    // ------------------------------------------------------------------------
 
+    // t is already lowercased
+    private static String heuristicTone(String t) {
         boolean hasLol = t.contains("lol") || t.contains("lmao") || t.contains("rofl")
                 || t.contains("😂") || t.contains("🤣") || t.contains("😜") || t.contains("😅");
         boolean hasHeart = t.contains("love") || t.contains("❤️") || t.contains("💕") || t.contains("🥰");
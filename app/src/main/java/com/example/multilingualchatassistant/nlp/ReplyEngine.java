@@ -1,9 +1,30 @@
 package com.example.multilingualchatassistant.nlp;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 import com.example.multilingualchatassistant.util.LanguageUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * ReplyEngine
  *
@@ -16,6 +37,14 @@ import com.example.multilingualchatassistant.util.LanguageUtils;
  *
  * Works fully on-device using:
  *  LocalNlpModel + IntentDetector + ToneDetector + StyleEngine + SlangProcessor + TranslatorHelper.
+ *
+ * Every request runs as a staged pipeline on a small background pool:
+ *  normalize → classify → style → translate → slang-inject
+ * and only the final result is posted back to the main thread.
+ *
+ * generateRepliesBatch runs the same stages over a whole pasted thread:
+ * each stage sweeps all messages, and translations are grouped per
+ * language pair so every pooled translator is used once per batch.
  */
 public class ReplyEngine {
 
@@ -36,6 +65,137 @@ public class ReplyEngine {
         public String replyToSend;         // final reply in send language (with slang / emojis)
     }
 
+    public interface BatchCallback {
+        /** Results are in the same order as the inputs. */
+        void onRepliesReady(@NonNull List<ReplyResult> results, @NonNull BatchTiming timing);
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * One (incoming, reply) pair of a batch.
+     */
+    public static class ReplyInput {
+        public final String incomingText;
+        public final String replyUserInput;
+        public final String userLangCode;
+        public final String sendLangCode;
+        public final String toneOverrideCode;
+
+        public ReplyInput(@NonNull String incomingText,
+                          @NonNull String replyUserInput,
+                          @NonNull String userLangCode,
+                          @NonNull String sendLangCode,
+                          @NonNull String toneOverrideCode) {
+            this.incomingText = incomingText;
+            this.replyUserInput = replyUserInput;
+            this.userLangCode = userLangCode;
+            this.sendLangCode = sendLangCode;
+            this.toneOverrideCode = toneOverrideCode;
+        }
+    }
+
+    /**
+     * Wall-clock time per stage for one batch, in milliseconds.
+     * translateMs includes waiting for ML Kit (and model downloads).
+     */
+    public static class BatchTiming {
+        public int messages;
+        public int translatorPairs;       // language pairs sent to ML Kit
+        public int templated;             // served from the pre-translated catalog
+
+        public long normalizeMs;
+        public long classifyMs;
+        public long styleMs;
+        public long translateMs;
+        public long slangMs;
+        public long totalMs;
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "messages=" + messages + " pairs=" + translatorPairs + " templated=" + templated
+                    + String.format(Locale.ROOT,
+                    " normalize=%dms classify=%dms style=%dms translate=%dms slang=%dms total=%dms",
+                    normalizeMs, classifyMs, styleMs, translateMs, slangMs, totalMs);
+        }
+    }
+
+    /**
+     * Handle for an in-flight request. Cancelling stops the pipeline at the
+     * next stage boundary and guarantees the callback is never called.
+     */
+    public static final class ReplyRequest {
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Threads
+    // --------------------------------------------------------------------
+
+    private static final int WORKERS = 2;
+    private static final int MAX_QUEUED = 16;
+
+    private static final ThreadPoolExecutor NLP_EXECUTOR = createExecutor();
+
+    // Test overrides; null means NLP_EXECUTOR / the main looper
+    private static volatile Executor workerOverride;
+    private static volatile Executor mainOverride;
+    private static volatile PairTranslator pairTranslator = TranslatorHelper::translateBatch;
+
+    // Created on first use, so tests that swap the threads never touch the Looper
+    private static final class MainThread {
+        static final Executor EXECUTOR = new Handler(Looper.getMainLooper())::post;
+    }
+
+    /** TranslatorHelper.translateBatch, replaceable in tests. */
+    interface PairTranslator {
+        void translateBatch(@NonNull String sourceLang,
+                            @NonNull String targetLang,
+                            @NonNull List<String> texts,
+                            @NonNull TranslatorHelper.BatchTranslateCallback callback);
+    }
+
+    /** Run the stages / deliveries on the given executors; nulls restore the defaults. */
+    @VisibleForTesting
+    static void setThreads(@Nullable Executor worker, @Nullable Executor main) {
+        workerOverride = worker;
+        mainOverride = main;
+    }
+
+    /** Batch translation backend; null restores TranslatorHelper. */
+    @VisibleForTesting
+    static void setPairTranslator(@Nullable PairTranslator translator) {
+        pairTranslator = translator != null ? translator : TranslatorHelper::translateBatch;
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            r.run();
+        }, "reply-nlp-" + count.incrementAndGet());
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                WORKERS, WORKERS,
+                30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED),
+                factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // --------------------------------------------------------------------
+    // Public API
+    // --------------------------------------------------------------------
+
     /**
      * High-level API used from MainActivity.
      *
@@ -44,9 +204,11 @@ public class ReplyEngine {
      * @param userLangCode      language code for display (spinner: "You read in")
      * @param sendLangCode      language code we will send in (for you: always incoming language)
      * @param toneOverrideCode  "auto" or one of: friendly, formal, casual, humorous, empathetic, neutral
-     * @param callback          async result
+     * @param callback          async result, always delivered on the main thread
+     * @return handle to cancel the request (e.g. when the user taps again)
      */
-    public static void generateReplyAsync(
+    @NonNull
+    public static ReplyRequest generateReplyAsync(
             @NonNull String incomingText,
             @NonNull String replyUserInput,
             @NonNull String userLangCode,
@@ -54,91 +216,346 @@ public class ReplyEngine {
             @NonNull String toneOverrideCode,
             @NonNull Callback callback
     ) {
+        Job job = new Job(new ReplyRequest(), incomingText, replyUserInput, userLangCode,
+                sendLangCode, toneOverrideCode, callback);
+        runOnWorker(job.request, job.callback::onError, () -> {
+            normalize(job);
+            if (job.request.isCancelled()) return;
+            classify(job);
+            if (job.request.isCancelled()) return;
+            style(job);
+            if (job.request.isCancelled()) return;
+            translate(job);
+        });
+        return job.request;
+    }
 
-        try {
-            // 1) Normalize slang in user reply for better detection
-            String normalizedForDetection =
-                    SlangProcessor.normalizeInput(userLangCode, replyUserInput);
-
-            // 2) Detect intent & auto tone (local model + rules)
-            String autoIntent = IntentDetector.detectIntent(incomingText, normalizedForDetection);
-            String autoTone = ToneDetector.detectTone(normalizedForDetection);
-
-            // 3) Apply manual tone override if user selected one
-            String finalTone;
-            if (toneOverrideCode != null && !"auto".equalsIgnoreCase(toneOverrideCode)) {
-                finalTone = toneOverrideCode.toLowerCase();
-            } else {
-                finalTone = autoTone;
+    /**
+     * Batch version of generateReplyAsync for a pasted chat thread.
+     *
+     * @param inputs    messages to answer, in thread order
+     * @param callback  all results at once, on the main thread
+     * @return handle to cancel the whole batch
+     */
+    @NonNull
+    public static ReplyRequest generateRepliesBatch(
+            @NonNull List<ReplyInput> inputs,
+            @NonNull BatchCallback callback
+    ) {
+        Batch batch = new Batch(inputs, callback);
+        if (batch.jobs.isEmpty()) {
+            postToMain(batch.request, () ->
+                    callback.onRepliesReady(Collections.emptyList(), batch.timing));
+            return batch.request;
+        }
+        runOnWorker(batch.request, batch.callback::onError, () -> {
+            long t = System.nanoTime();
+            for (Job job : batch.jobs) normalize(job);
+            t = batch.lap(t, Stage.NORMALIZE);
+            if (batch.request.isCancelled()) return;
+
+            for (Job job : batch.jobs) classify(job);
+            t = batch.lap(t, Stage.CLASSIFY);
+            if (batch.request.isCancelled()) return;
+
+            for (Job job : batch.jobs) style(job);
+            batch.lap(t, Stage.STYLE);
+            if (batch.request.isCancelled()) return;
+
+            translateBatch(batch);
+        });
+        return batch.request;
+    }
+
+    // --------------------------------------------------------------------
+    // Pipeline state
+    // --------------------------------------------------------------------
+
+    private static final class Job {
+        final ReplyRequest request;
+
+        final String incomingText;
+        final String replyUserInput;
+        final String userLangCode;
+        final String sendLangCode;
+        final String toneOverrideCode;
+        final Callback callback;
+
+        AnalyzedText analyzedReply;
+        String intent;
+        String finalTone;
+        String styledUserLang;
+
+        // Text to inject slang into, and the language it is in
+        String outLang;
+        String outText;
+
+        Job(ReplyRequest request, String incomingText, String replyUserInput, String userLangCode,
+            String sendLangCode, String toneOverrideCode, Callback callback) {
+            this.request = request;
+            this.incomingText = incomingText;
+            this.replyUserInput = replyUserInput;
+            this.userLangCode = userLangCode;
+            this.sendLangCode = sendLangCode;
+            this.toneOverrideCode = toneOverrideCode;
+            this.callback = callback;
+        }
+
+        ReplyResult newResult(String sendLang, String replyToSend) {
+            ReplyResult result = new ReplyResult();
+            result.intent = intent;
+            result.tone = finalTone;
+            result.userLangCode = userLangCode;
+            result.sendLangCode = sendLang;
+            result.replyUserMeaning = styledUserLang; // always this in user language
+            result.replyToSend = replyToSend;
+            return result;
+        }
+    }
+
+    private enum Stage { NORMALIZE, CLASSIFY, STYLE, TRANSLATE, SLANG }
+
+    private static final class Batch {
+        final ReplyRequest request = new ReplyRequest();
+        final List<Job> jobs;
+        final BatchCallback callback;
+        final BatchTiming timing = new BatchTiming();
+        final long startedAt = System.nanoTime();
+
+        Batch(List<ReplyInput> inputs, BatchCallback callback) {
+            this.callback = callback;
+            this.jobs = new ArrayList<>(inputs.size());
+            for (ReplyInput in : inputs) {
+                jobs.add(new Job(request, in.incomingText, in.replyUserInput, in.userLangCode,
+                        in.sendLangCode, in.toneOverrideCode, null));
             }
-            String intent = autoIntent;
-
-            // 4) Style reply in user language (idioms + emoji, no target slang yet)
-            String styledUserLang =
-                    StyleEngine.styleReply(replyUserInput, userLangCode, finalTone, intent);
-
-            // Prepare result object and fill common fields
-            ReplyResult base = new ReplyResult();
-            base.intent = intent;
-            base.tone = finalTone;
-            base.userLangCode = userLangCode;
-            base.sendLangCode = sendLangCode;
-            base.replyUserMeaning = styledUserLang; // always this in user language
-
-            // 5) If send language == user language → just apply slang & return
-            if (LanguageUtils.codesEqual(userLangCode, sendLangCode)) {
-                String finalWithSlang =
-                        SlangProcessor.applySlang(sendLangCode, styledUserLang, finalTone, intent);
-
-                base.replyToSend = finalWithSlang;
-                callback.onReplyReady(base);
-                return;
+            timing.messages = jobs.size();
+        }
+
+        // Record the time since 'since' for a stage, return now
+        long lap(long since, Stage stage) {
+            long now = System.nanoTime();
+            long ms = (now - since) / 1_000_000L;
+            switch (stage) {
+                case NORMALIZE: timing.normalizeMs = ms; break;
+                case CLASSIFY:  timing.classifyMs = ms; break;
+                case STYLE:     timing.styleMs = ms; break;
+                case TRANSLATE: timing.translateMs = ms; break;
+                case SLANG:     timing.slangMs = ms; break;
+            }
+            return now;
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Stages (worker thread)
+    // --------------------------------------------------------------------
+
+    // 1) Normalize slang in user reply for better detection (analysed once)
+    private static void normalize(Job job) {
+        job.analyzedReply = AnalyzedText.of(job.replyUserInput, job.userLangCode);
+    }
+
+    // 2) Detect intent & auto tone (local model + rules), then apply manual override
+    private static void classify(Job job) {
+        String autoIntent = IntentDetector.detectIntent(job.incomingText, job.analyzedReply.normalized());
+        String autoTone = ToneDetector.detectTone(job.analyzedReply);
+
+        if (job.toneOverrideCode != null && !"auto".equalsIgnoreCase(job.toneOverrideCode)) {
+            job.finalTone = job.toneOverrideCode.toLowerCase();
+        } else {
+            job.finalTone = autoTone;
+        }
+        job.intent = autoIntent;
+    }
+
+    // 3) Style reply in user language (idioms + emoji, no target slang yet)
+    private static void style(Job job) {
+        job.styledUserLang =
+                StyleEngine.styleReply(job.replyUserInput, job.userLangCode, job.finalTone, job.intent);
+    }
+
+    // 4) Get the reply into the send language
+    private static void translate(Job job) {
+        if (resolveLocally(job)) {
+            injectSlang(job);
+            return;
+        }
+
+        // Otherwise: ML Kit (callback on main, or right here on a cache hit) → worker for slang
+        TranslatorHelper.translate(job.userLangCode, job.sendLangCode, job.styledUserLang,
+                new TranslatorHelper.TranslateCallback() {
+                    @Override
+                    public void onTranslated(@NonNull String translatedText) {
+                        job.outLang = job.sendLangCode;
+                        job.outText = translatedText;
+                        runOnWorker(job.request, job.callback::onError, () -> injectSlang(job));
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception e) {
+                        fallBackToUserLanguage(job);
+                        runOnWorker(job.request, job.callback::onError, () -> injectSlang(job));
+                    }
+                });
+    }
+
+    /**
+     * Fill outLang / outText without ML Kit when possible.
+     * @return false if the reply still needs a model translation
+     */
+    private static boolean resolveLocally(Job job) {
+        // Send language == user language → nothing to translate
+        if (LanguageUtils.codesEqual(job.userLangCode, job.sendLangCode)) {
+            job.outLang = job.sendLangCode;
+            job.outText = job.styledUserLang;
+            return true;
+        }
+
+        // Templated reply → pre-translated catalog, no ML Kit round trip
+        String templateKey = StyleEngine.templateKey(
+                job.replyUserInput, job.userLangCode, job.finalTone, job.intent);
+        String pretranslated = TemplateCatalog.lookup(templateKey, job.sendLangCode);
+        if (pretranslated != null) {
+            job.outLang = job.sendLangCode;
+            job.outText = pretranslated;
+            return true;
+        }
+        return false;
+    }
+
+    // Translation failed: keep user-language styled text with user slang.
+    // We still return success so the UI continues to work.
+    private static void fallBackToUserLanguage(Job job) {
+        job.outLang = job.userLangCode;
+        job.outText = job.styledUserLang;
+    }
+
+    // 5) Slang / emoji injection in the language we actually send in
+    private static void injectSlang(Job job) {
+        if (job.request.isCancelled()) return;
+        ReplyResult result = slangResult(job);
+        postToMain(job.request, () -> job.callback.onReplyReady(result));
+    }
+
+    private static ReplyResult slangResult(Job job) {
+        String withSlang = SlangProcessor.applySlang(job.outLang, job.outText, job.finalTone, job.intent);
+        return job.newResult(job.outLang, withSlang);
+    }
+
+    // --------------------------------------------------------------------
+    // Batch stages
+    // --------------------------------------------------------------------
+
+    // 4) Resolve what we can locally, then one TranslatorHelper call per language pair
+    private static void translateBatch(Batch batch) {
+        long started = System.nanoTime();
+
+        Map<String, List<Job>> byPair = new LinkedHashMap<>();
+        for (Job job : batch.jobs) {
+            if (resolveLocally(job)) {
+                if (!LanguageUtils.codesEqual(job.userLangCode, job.sendLangCode)) {
+                    batch.timing.templated++;
+                }
+                continue;
             }
+            String pair = job.userLangCode.toLowerCase(Locale.ROOT)
+                    + "->" + job.sendLangCode.toLowerCase(Locale.ROOT);
+            byPair.computeIfAbsent(pair, k -> new ArrayList<>()).add(job);
+        }
+        batch.timing.translatorPairs = byPair.size();
+
+        if (byPair.isEmpty()) {
+            batch.lap(started, Stage.TRANSLATE);
+            injectSlangBatch(batch);
+            return;
+        }
 
-            // 6) Otherwise: translate from user language -> send language, then inject target slang.
-            TranslatorHelper.translate(userLangCode, sendLangCode, styledUserLang,
-                    new TranslatorHelper.TranslateCallback() {
+        // Pairs answered from cache (or not translatable) call back right here on
+        // the worker, ML Kit pairs on main, so the countdown must be atomic
+        AtomicInteger pending = new AtomicInteger(byPair.size());
+        Runnable pairDone = () -> {
+            if (pending.decrementAndGet() > 0) return;
+            batch.lap(started, Stage.TRANSLATE);
+            runOnWorker(batch.request, batch.callback::onError, () -> injectSlangBatch(batch));
+        };
+
+        for (List<Job> group : byPair.values()) {
+            Job first = group.get(0);
+            List<String> texts = new ArrayList<>(group.size());
+            for (Job job : group) texts.add(job.styledUserLang);
+
+            pairTranslator.translateBatch(first.userLangCode, first.sendLangCode, texts,
+                    new TranslatorHelper.BatchTranslateCallback() {
                         @Override
-                        public void onTranslated(String translatedText) {
-                            try {
-                                String withSlang =
-                                        SlangProcessor.applySlang(sendLangCode, translatedText, finalTone, intent);
-
-                                ReplyResult result = new ReplyResult();
-                                result.intent = base.intent;
-                                result.tone = base.tone;
-                                result.userLangCode = base.userLangCode;
-                                result.sendLangCode = sendLangCode;
-                                result.replyUserMeaning = base.replyUserMeaning;
-                                result.replyToSend = withSlang;
-
-                                callback.onReplyReady(result);
-                            } catch (Exception e) {
-                                callback.onError(e);
+                        public void onTranslated(@NonNull List<String> translatedTexts) {
+                            for (int i = 0; i < group.size(); i++) {
+                                Job job = group.get(i);
+                                String translated = translatedTexts.get(i);
+                                if (translated != null) {
+                                    job.outLang = job.sendLangCode;
+                                    job.outText = translated;
+                                } else {
+                                    fallBackToUserLanguage(job);
+                                }
                             }
+                            pairDone.run();
                         }
 
                         @Override
-                        public void onError(Exception e) {
-                            // Fallback: keep user-language styled text with user slang
-                            String fallback =
-                                    SlangProcessor.applySlang(userLangCode, styledUserLang, finalTone, intent);
-
-                            ReplyResult result = new ReplyResult();
-                            result.intent = base.intent;
-                            result.tone = base.tone;
-                            result.userLangCode = base.userLangCode;
-                            result.sendLangCode = userLangCode;
-                            result.replyUserMeaning = base.replyUserMeaning;
-                            result.replyToSend = fallback;
-
-                            // We still return success so the UI continues to work
-                            callback.onReplyReady(result);
+                        public void onError(@NonNull Exception e) {
+                            for (Job job : group) fallBackToUserLanguage(job);
+                            pairDone.run();
                         }
                     });
+        }
+    }
+
+    // 5) Slang / emoji injection for every message, one delivery
+    private static void injectSlangBatch(Batch batch) {
+        if (batch.request.isCancelled()) return;
+        long started = System.nanoTime();
+
+        List<ReplyResult> results = new ArrayList<>(batch.jobs.size());
+        for (Job job : batch.jobs) results.add(slangResult(job));
+
+        long now = batch.lap(started, Stage.SLANG);
+        batch.timing.totalMs = (now - batch.startedAt) / 1_000_000L;
+        postToMain(batch.request, () -> batch.callback.onRepliesReady(results, batch.timing));
+    }
 
-        } catch (Exception e) {
-            callback.onError(e);
+    // --------------------------------------------------------------------
+    // Thread hops
+    // --------------------------------------------------------------------
+
+    private interface ErrorSink {
+        void onError(Exception e);
+    }
+
+    private static void runOnWorker(ReplyRequest request, ErrorSink errors, Runnable stage) {
+        if (request.isCancelled()) return;
+        try {
+            Executor worker = workerOverride;
+            (worker != null ? worker : NLP_EXECUTOR).execute(() -> {
+                if (request.isCancelled()) return;
+                try {
+                    stage.run();
+                } catch (Exception e) {
+                    postToMain(request, () -> errors.onError(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            postToMain(request, () -> errors.onError(e));
         }
     }
+
+    // Deliver on main, unless the request was cancelled in the meantime
+    private static void postToMain(ReplyRequest request, Runnable delivery) {
+        Executor main = mainOverride;
+        (main != null ? main : MainThread.EXECUTOR).execute(() -> {
+            if (!request.isCancelled()) {
+                delivery.run();
+            }
+        });
+    }
 }
@@ -2,7 +2,11 @@ package com.example.multilingualchatassistant.nlp;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class SlangDictionary {
 
@@ -32,6 +36,166 @@ public class SlangDictionary {
         }
     }
 
+    /**
+     * Frozen lookup index for one language, built lazily on first request.
+     * Unknown codes fall back to the EN index, same as getEntries.
+     */
+    public static Index getIndex(String langCode) {
+        List<Entry> entries = getEntries(langCode);
+        synchronized (INDEXES) {
+            Index index = INDEXES.get(entries);
+            if (index == null) {
+                index = Index.build(entries);
+                INDEXES.put(entries, index);
+            }
+            return index;
+        }
+    }
+
+    private static final Map<List<Entry>, Index> INDEXES = new IdentityHashMap<>();
+
+    /**
+     * Immutable slang index:
+     *  - hash table: lowercased token or phrase → meaning (earlier entry wins)
+     *  - phrase-prefix table: first token → longest phrase (in tokens) starting with it,
+     *    so multi-word slang like "no cap" is found without walking the list.
+     */
+    public static final class Index {
+
+        private final List<Entry> entries;
+        private final Map<String, String> meanings;
+        private final Map<String, Integer> longestPhrase;
+        private volatile SlangMatcher matcher;
+
+        private Index(List<Entry> entries,
+                      Map<String, String> meanings,
+                      Map<String, Integer> longestPhrase) {
+            this.entries = entries;
+            this.meanings = meanings;
+            this.longestPhrase = longestPhrase;
+        }
+
+        static Index build(List<Entry> entries) {
+            Map<String, String> meanings = new HashMap<>();
+            Map<String, Integer> longestPhrase = new HashMap<>();
+
+            for (Entry e : entries) {
+                if (e.slang == null || e.slang.isEmpty()) continue;
+                List<String> tokens = tokenize(e.slang);
+                if (tokens.isEmpty()) continue;
+
+                String key = String.join(" ", tokens);
+                if (!meanings.containsKey(key)) {
+                    meanings.put(key, e.meaning);
+                }
+
+                String first = tokens.get(0);
+                Integer known = longestPhrase.get(first);
+                if (known == null || known < tokens.size()) {
+                    longestPhrase.put(first, tokens.size());
+                }
+            }
+            return new Index(entries,
+                    Collections.unmodifiableMap(meanings),
+                    Collections.unmodifiableMap(longestPhrase));
+        }
+
+        /**
+         * Meaning of a single token or space-separated phrase, or null if it isn't slang.
+         */
+        public String meaningOf(String tokenOrPhrase) {
+            if (tokenOrPhrase == null) return null;
+            String key = tokenOrPhrase.toLowerCase(Locale.ROOT);
+            String meaning = meanings.get(key);
+            // Not an exact key → retry with collapsed spacing / punctuation
+            return meaning != null ? meaning : meanings.get(String.join(" ", tokenize(key)));
+        }
+
+        public boolean isSlang(String tokenOrPhrase) {
+            return meaningOf(tokenOrPhrase) != null;
+        }
+
+        /**
+         * Length (in tokens) of the longest slang phrase starting at tokens[start],
+         * or 0 if no slang starts there. Tokens must be lowercased.
+         */
+        public int phraseLengthAt(List<String> tokens, int start) {
+            Integer longest = longestPhrase.get(tokens.get(start));
+            if (longest == null) return 0;
+
+            int max = Math.min(longest, tokens.size() - start);
+            for (int n = max; n >= 1; n--) {
+                String key = n == 1
+                        ? tokens.get(start)
+                        : String.join(" ", tokens.subList(start, start + n));
+                if (meanings.containsKey(key)) {
+                    return n;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * True if any token or phrase of the (lowercased) text is slang.
+         */
+        public boolean containsSlang(String lower) {
+            List<String> tokens = tokenize(lower);
+            for (int i = 0; i < tokens.size(); i++) {
+                if (phraseLengthAt(tokens, i) > 0) return true;
+            }
+            return false;
+        }
+
+        public int size() {
+            return meanings.size();
+        }
+
+        // Single-pass replacement automaton, built on first normalizeInput
+        SlangMatcher matcher() {
+            SlangMatcher m = matcher;
+            if (m == null) {
+                synchronized (this) {
+                    m = matcher;
+                    if (m == null) {
+                        m = SlangMatcher.build(entries);
+                        matcher = m;
+                    }
+                }
+            }
+            return m;
+        }
+
+        /**
+         * Lowercased word tokens: letters, digits, '_' and in-word apostrophes ("c'est").
+         */
+        public static List<String> tokenize(String text) {
+            List<String> tokens = new ArrayList<>();
+            if (text == null) return tokens;
+
+            String lower = text.toLowerCase(Locale.ROOT);
+            int len = lower.length();
+            int start = -1;
+            for (int i = 0; i < len; ) {
+                int cp = lower.codePointAt(i);
+                int next = i + Character.charCount(cp);
+                boolean word = Character.isLetterOrDigit(cp) || cp == '_'
+                        || Character.getType(cp) == Character.NON_SPACING_MARK
+                        || Character.getType(cp) == Character.COMBINING_SPACING_MARK
+                        || ((cp == '\'' || cp == '’') && start >= 0
+                        && next < len && Character.isLetter(lower.codePointAt(next)));
+                if (word) {
+                    if (start < 0) start = i;
+                } else if (start >= 0) {
+                    tokens.add(lower.substring(start, i));
+                    start = -1;
+                }
+                i = next;
+            }
+            if (start >= 0) tokens.add(lower.substring(start));
+            return tokens;
+        }
+    }
+
     // ---------- ENGLISH ----------
     private static final List<Entry> EN_ENTRIES;
     // ---------- SPANISH ----------
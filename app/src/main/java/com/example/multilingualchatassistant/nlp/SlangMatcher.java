@@ -0,0 +1,323 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * SlangMatcher
+ *
+ * Aho-Corasick automaton over every slang entry of ONE language.
+ * Built once from SlangDictionary and then reused for every message, so
+ * SlangProcessor.normalizeInput does one linear scan instead of compiling
+ * one regex per entry and copying the string for each replaceAll.
+ *
+ * Output is the same as the old loop:
+ *   for (entry : entries) text = text.replaceAll("(?i)\\b" + quote(slang) + "\\b", meaning);
+ *  - case-insensitive match, word boundaries checked like regex "\b"
+ *  - overlapping hits are resolved by dictionary order (earlier entry wins)
+ *  - meanings are pre-normalised with the entries AFTER them, because the
+ *    old loop ran those later replaceAll calls over the inserted text too.
+ */
+final class SlangMatcher {
+
+    private static final int ROOT = 0;
+
+    // Goto function: per state, sorted folded chars + target states
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    // Pattern ids ending in each state (own + inherited through fail links)
+    private final int[][] outputs;
+
+    // Per pattern (pattern id == dictionary index == priority)
+    private final int[] patternLength;
+    private final String[] replacement;
+
+    private SlangMatcher(char[][] keys, int[][] next, int[] fail, int[][] outputs,
+                         int[] patternLength, String[] replacement) {
+        this.keys = keys;
+        this.next = next;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.patternLength = patternLength;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Build a matcher for the given dictionary entries (dictionary order = priority).
+     */
+    static SlangMatcher build(List<SlangDictionary.Entry> entries) {
+        int n = entries.size();
+
+        // ---- 1) Trie (mutable build form) ----
+        List<StringBuilder> nodeKeys = new ArrayList<>();
+        List<List<Integer>> nodeNext = new ArrayList<>();
+        List<List<Integer>> nodeOut = new ArrayList<>();
+        nodeKeys.add(new StringBuilder());
+        nodeNext.add(new ArrayList<>());
+        nodeOut.add(new ArrayList<>());
+
+        int[] patternLength = new int[n];
+        for (int id = 0; id < n; id++) {
+            String slang = entries.get(id).slang;
+            if (slang == null || slang.isEmpty()) {
+                patternLength[id] = 0; // never matches, same as the old "continue"
+                continue;
+            }
+            patternLength[id] = slang.length();
+
+            int state = ROOT;
+            for (int i = 0; i < slang.length(); i++) {
+                char c = fold(slang.charAt(i));
+                int idx = nodeKeys.get(state).indexOf(String.valueOf(c));
+                if (idx >= 0) {
+                    state = nodeNext.get(state).get(idx);
+                } else {
+                    int created = nodeKeys.size();
+                    nodeKeys.add(new StringBuilder());
+                    nodeNext.add(new ArrayList<>());
+                    nodeOut.add(new ArrayList<>());
+                    nodeKeys.get(state).append(c);
+                    nodeNext.get(state).add(created);
+                    state = created;
+                }
+            }
+            nodeOut.get(state).add(id);
+        }
+
+        // ---- 2) Freeze goto table (sorted for binary search) ----
+        int states = nodeKeys.size();
+        char[][] keys = new char[states][];
+        int[][] next = new int[states][];
+        for (int s = 0; s < states; s++) {
+            String k = nodeKeys.get(s).toString();
+            List<Integer> targets = nodeNext.get(s);
+            Integer[] order = new Integer[k.length()];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Character.compare(k.charAt(a), k.charAt(b)));
+
+            keys[s] = new char[order.length];
+            next[s] = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[s][i] = k.charAt(order[i]);
+                next[s][i] = targets.get(order[i]);
+            }
+        }
+
+        // ---- 3) Failure links (BFS) + merged outputs ----
+        int[] fail = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[ROOT] = toSortedArray(nodeOut.get(ROOT));
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : next[ROOT]) {
+            fail[child] = ROOT;
+            outputs[child] = toSortedArray(nodeOut.get(child));
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int i = 0; i < keys[s].length; i++) {
+                char c = keys[s][i];
+                int child = next[s][i];
+
+                int f = fail[s];
+                int target = goTo(keys, next, f, c);
+                while (target < 0 && f != ROOT) {
+                    f = fail[f];
+                    target = goTo(keys, next, f, c);
+                }
+                fail[child] = target < 0 ? ROOT : target;
+
+                List<Integer> merged = new ArrayList<>(nodeOut.get(child));
+                for (int id : outputs[fail[child]]) merged.add(id);
+                outputs[child] = toSortedArray(merged);
+
+                queue.add(child);
+            }
+        }
+
+        // ---- 4) Effective meanings, last entry first ----
+        String[] replacement = new String[n];
+        SlangMatcher matcher = new SlangMatcher(keys, next, fail, outputs, patternLength, replacement);
+        for (int id = n - 1; id >= 0; id--) {
+            replacement[id] = matcher.replace(entries.get(id).meaning, id + 1);
+        }
+        return matcher;
+    }
+
+    /**
+     * Replace every slang hit in one pass.
+     */
+    String replace(String text) {
+        return replace(text, 0);
+    }
+
+    /**
+     * Feed the id (dictionary index) of every whole-word hit that ends
+     * within the first end chars of text to sink, overlapping hits
+     * included. No conflict resolution and no allocation.
+     */
+    void forEachHit(CharSequence text, int end, IntConsumer sink) {
+        int state = ROOT;
+        for (int i = 0; i < end; i++) {
+            char c = fold(text.charAt(i));
+            int target = goTo(keys, next, state, c);
+            while (target < 0 && state != ROOT) {
+                state = fail[state];
+                target = goTo(keys, next, state, c);
+            }
+            state = target < 0 ? ROOT : target;
+
+            for (int id : outputs[state]) {
+                int start = i + 1 - patternLength[id];
+                if (isBoundary(text, start) && isBoundary(text, i + 1)) sink.accept(id);
+            }
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Scan + conflict resolution
+    // --------------------------------------------------------------------
+
+    /**
+     * @param minId only patterns with id >= minId take part (used to build
+     *              the cascaded meanings).
+     */
+    private String replace(String text, int minId) {
+        int len = text.length();
+
+        // Candidates packed as (patternId << 32 | start) so sorting gives dictionary order
+        long[] hits = null;
+        int hitCount = 0;
+
+        int state = ROOT;
+        for (int i = 0; i < len; i++) {
+            char c = fold(text.charAt(i));
+            int target = goTo(keys, next, state, c);
+            while (target < 0 && state != ROOT) {
+                state = fail[state];
+                target = goTo(keys, next, state, c);
+            }
+            state = target < 0 ? ROOT : target;
+
+            int[] out = outputs[state];
+            for (int id : out) {
+                if (id < minId) continue;
+                int start = i + 1 - patternLength[id];
+                if (!isBoundary(text, start) || !isBoundary(text, i + 1)) continue;
+
+                if (hits == null) {
+                    hits = new long[8];
+                } else if (hitCount == hits.length) {
+                    hits = Arrays.copyOf(hits, hitCount * 2);
+                }
+                hits[hitCount++] = ((long) id << 32) | start;
+            }
+        }
+
+        if (hitCount == 0) {
+            return text;
+        }
+
+        // Earlier dictionary entries win; same entry → leftmost wins (like replaceAll)
+        Arrays.sort(hits, 0, hitCount);
+        boolean[] taken = new boolean[len];
+        long[] accepted = new long[hitCount];
+        int acceptedCount = 0;
+
+        for (int h = 0; h < hitCount; h++) {
+            int id = (int) (hits[h] >>> 32);
+            int start = (int) hits[h];
+            int end = start + patternLength[id];
+
+            boolean free = true;
+            for (int p = start; p < end; p++) {
+                if (taken[p]) {
+                    free = false;
+                    break;
+                }
+            }
+            if (!free) continue;
+
+            for (int p = start; p < end; p++) taken[p] = true;
+            accepted[acceptedCount++] = ((long) start << 32) | id;
+        }
+
+        // Rebuild the string once, left to right
+        Arrays.sort(accepted, 0, acceptedCount);
+        StringBuilder sb = new StringBuilder(len + 16 * acceptedCount);
+        int last = 0;
+        for (int a = 0; a < acceptedCount; a++) {
+            int start = (int) (accepted[a] >>> 32);
+            int id = (int) accepted[a];
+            sb.append(text, last, start).append(replacement[id]);
+            last = start + patternLength[id];
+        }
+        sb.append(text, last, len);
+        return sb.toString();
+    }
+
+    // --------------------------------------------------------------------
+    // Helpers
+    // --------------------------------------------------------------------
+
+    private static int goTo(char[][] keys, int[][] next, int state, char c) {
+        int idx = Arrays.binarySearch(keys[state], c);
+        return idx >= 0 ? next[state][idx] : -1;
+    }
+
+    // Simple case folding, one char in → one char out (keeps offsets stable)
+    private static char fold(char c) {
+        if (c < 0x80) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    // Same rule as java.util.regex "\b": word-ness differs on both sides
+    private static boolean isBoundary(CharSequence text, int pos) {
+        boolean left = pos > 0 && isWordBefore(text, pos);
+        boolean right = pos < text.length() && isWordAt(text, pos);
+        return left ^ right;
+    }
+
+    private static boolean isWordBefore(CharSequence text, int pos) {
+        int cp = Character.codePointBefore(text, pos);
+        if (isWordChar(cp)) return true;
+        return Character.getType(cp) == Character.NON_SPACING_MARK
+                && hasBaseCharacter(text, pos - Character.charCount(cp));
+    }
+
+    private static boolean isWordAt(CharSequence text, int pos) {
+        int cp = Character.codePointAt(text, pos);
+        if (isWordChar(cp)) return true;
+        return Character.getType(cp) == Character.NON_SPACING_MARK
+                && hasBaseCharacter(text, pos);
+    }
+
+    // A combining mark counts as a word char when it sits on a word char
+    private static boolean hasBaseCharacter(CharSequence text, int pos) {
+        for (int i = pos; i > 0; ) {
+            int cp = Character.codePointBefore(text, i);
+            if (isWordChar(cp)) return true;
+            if (Character.getType(cp) != Character.NON_SPACING_MARK) return false;
+            i -= Character.charCount(cp);
+        }
+        return false;
+    }
+
+    private static boolean isWordChar(int cp) {
+        return cp == '_' || Character.isLetterOrDigit(cp);
+    }
+
+    private static int[] toSortedArray(List<Integer> ids) {
+        int[] arr = new int[ids.size()];
+        for (int i = 0; i < arr.length; i++) arr[i] = ids.get(i);
+        Arrays.sort(arr);
+        return arr;
+    }
+}
@@ -1,9 +1,7 @@
 package com.example.multilingualchatassistant.nlp;
 
-import java.util.List;
 import java.util.Locale;
 import java.util.Random;
-import java.util.regex.Pattern;
 
 public class SlangProcessor {
 
@@ -16,18 +14,8 @@ public class SlangProcessor {
     public static String normalizeInput(String langCode, String text) {
         if (text == null || text.isEmpty()) return text;
 
-        String result = text;
-        List<SlangDictionary.Entry> entries = SlangDictionary.getEntries(langCode);
-
-        for (SlangDictionary.Entry e : entries) {
-            String slang = e.slang;
-            if (slang == null || slang.isEmpty()) continue;
-
-            // word-boundary match, case-insensitive
-            String regex = "\\b" + Pattern.quote(slang) + "\\b";
-            result = result.replaceAll("(?i)" + regex, e.meaning);
-        }
-        return result;
+        // One precompiled automaton per language, single scan per message
+        return SlangDictionary.getIndex(langCode).matcher().replace(text);
     }
 
     /**
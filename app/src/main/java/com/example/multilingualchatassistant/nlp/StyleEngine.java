@@ -1,6 +1,9 @@
 package com.example.multilingualchatassistant.nlp;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.multilingualchatassistant.util.TextScan;
 
 import java.util.Locale;
 
@@ -28,18 +31,9 @@ public class StyleEngine {
 
         String lcLang = langCode.toLowerCase(Locale.ROOT);
         String lcTone = tone == null ? "neutral" : tone.toLowerCase(Locale.ROOT);
-        String lcIntent = intent == null ? "unknown" : intent.toLowerCase(Locale.ROOT);
-        String lower = text.toLowerCase(Locale.ROOT);
-
-        boolean richLanguage =
-                "en".equals(lcLang) || "es".equals(lcLang) || "fr".equals(lcLang);
+        String lcIntent = resolveIntent(text, lcLang, intent);
 
-        // If intent is unknown but message looks like a simple greeting, treat it as greeting
-        if ("unknown".equals(lcIntent)) {
-            if (looksLikeGreeting(lower, lcLang)) {
-                lcIntent = "greeting";
-            }
-        }
+        boolean richLanguage = isRichLanguage(lcLang);
 
         // 1) Full templates for EN / ES / FR
         if (richLanguage) {
@@ -65,18 +59,90 @@ public class StyleEngine {
         return addEmojiFallback(text, lcTone, lcIntent);
     }
 
+    /**
+     * Which fixed template styleReply will return, as "intent.tone"
+     * (e.g. "thanks.friendly"), or null if the reply is not templated.
+     * Used by ReplyEngine to pick the pre-translated TemplateCatalog entry.
+     */
+    @Nullable
+    public static String templateKey(@NonNull String rawText,
+                                     @NonNull String langCode,
+                                     @Nullable String tone,
+                                     @Nullable String intent) {
+        String text = rawText.trim();
+        if (text.isEmpty()) return null;
+
+        String lcLang = langCode.toLowerCase(Locale.ROOT);
+        if (!isRichLanguage(lcLang)) return null;
+
+        String resolved = resolveIntent(text, lcLang, intent);
+        String templateIntent;
+        switch (resolved) {
+            case "greeting":
+            case "thanks":
+            case "apology":
+            case "love":
+                templateIntent = resolved;
+                break;
+            case "congrats":
+            case "congratulations":
+                templateIntent = "congrats";
+                break;
+            default:
+                return null;
+        }
+
+        // Same tone buckets as the build* switches below
+        String templateTone;
+        switch (tone == null ? "neutral" : tone.toLowerCase(Locale.ROOT)) {
+            case "formal":
+            case "humorous":
+            case "empathetic":
+                templateTone = tone.toLowerCase(Locale.ROOT);
+                break;
+            case "casual":
+            case "friendly":
+                templateTone = "friendly";
+                break;
+            default:
+                templateTone = "neutral";
+        }
+        return templateIntent + "." + templateTone;
+    }
+
+    private static boolean isRichLanguage(String lcLang) {
+        return "en".equals(lcLang) || "es".equals(lcLang) || "fr".equals(lcLang);
+    }
+
+    // If intent is unknown but message looks like a simple greeting, treat it as greeting
+    private static String resolveIntent(String text, String lcLang, String intent) {
+        String lcIntent = intent == null ? "unknown" : intent.toLowerCase(Locale.ROOT);
+        if ("unknown".equals(lcIntent)
+                && looksLikeGreeting(text.toLowerCase(Locale.ROOT), lcLang)) {
+            return "greeting";
+        }
+        return lcIntent;
+    }
+
     // --------------------------------------------------------------------
     // Greeting detector (very small, just to upgrade "hello"/"hola"/"bonjour")
     // --------------------------------------------------------------------
+    // Whole message = one phrase + optional "!" / "." (was lower.matches("^(...)[!.]*$"))
+    private static final String[] GREETINGS_ES =
+            {"hola", "buenos dias", "buenos días", "buenas tardes", "buenas noches"};
+    private static final String[] GREETINGS_FR = {"salut", "bonjour", "bonsoir"};
+    private static final String[] GREETINGS_EN = {"hi", "hello", "hey", "hey there", "hi there"};
+    private static final TextScan.CharSet GREETING_TAIL = TextScan.CharSet.of("!.");
+
     private static boolean looksLikeGreeting(String lower, String lang) {
         switch (lang) {
             case "es":
-                return lower.matches("^(hola|buenos dias|buenos días|buenas tardes|buenas noches)[!.]*$");
+                return TextScan.matchesPhrase(lower, GREETINGS_ES, GREETING_TAIL);
             case "fr":
-                return lower.matches("^(salut|bonjour|bonsoir)[!.]*$");
+                return TextScan.matchesPhrase(lower, GREETINGS_FR, GREETING_TAIL);
             case "en":
             default:
-                return lower.matches("^(hi|hello|hey|hey there|hi there)[!.]*$");
+                return TextScan.matchesPhrase(lower, GREETINGS_EN, GREETING_TAIL);
         }
     }
 
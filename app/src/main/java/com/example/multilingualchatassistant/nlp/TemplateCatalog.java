@@ -0,0 +1,54 @@
+package com.example.multilingualchatassistant.nlp;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Pre-translated StyleEngine templates.
+ *
+ * The table is generated at build time from src/main/templates/style_templates.tsv
+ * (see the generateTemplateCatalog task in app/build.gradle), so a templated
+ * reply (greeting / thanks / apology / congrats / love × tone) can be sent in
+ * es / fr / ta / de without going through ML Kit.
+ */
+public final class TemplateCatalog {
+
+    private TemplateCatalog() {
+    }
+
+    /**
+     * @param templateKey key from StyleEngine.templateKey, e.g. "thanks.friendly"
+     * @param langCode    send language ("es", "fr-FR", ...)
+     * @return the template in that language, or null if the catalog doesn't have it
+     */
+    @Nullable
+    public static String lookup(@Nullable String templateKey, @Nullable String langCode) {
+        if (templateKey == null || langCode == null) return null;
+
+        int column = languageColumn(langCode);
+        if (column < 0) return null;
+
+        int row = Arrays.binarySearch(TemplateCatalogData.KEYS, templateKey);
+        if (row < 0) return null;
+
+        return TemplateCatalogData.TEXT[row * TemplateCatalogData.LANGS.length + column];
+    }
+
+    public static boolean supportsLanguage(@Nullable String langCode) {
+        return langCode != null && languageColumn(langCode) >= 0;
+    }
+
+    private static int languageColumn(String langCode) {
+        String lang = langCode.trim().toLowerCase(Locale.ROOT);
+        int dash = lang.indexOf('-');
+        if (dash > 0) lang = lang.substring(0, dash);
+
+        String[] langs = TemplateCatalogData.LANGS;
+        for (int i = 0; i < langs.length; i++) {
+            if (langs[i].equals(lang)) return i;
+        }
+        return -1;
+    }
+}
@@ -1,7 +1,19 @@
 package com.example.multilingualchatassistant.nlp;
 
+import com.example.multilingualchatassistant.util.TextScan;
+
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 
+/**
+ * ToneDetector
+ *
+ * One pass over the message (Features.extract) fills a small feature
+ * bitset + counters; the scoring rules below only look at those bits.
+ * Keyword lists are matched by one KeywordMatcher automaton, slang markers
+ * by whole tokens, all without per-message garbage.
+ */
 public class ToneDetector {
 
     /**
@@ -10,25 +22,38 @@ public class ToneDetector {
      *  "casual", "neutral", "angry", "sad".
      */
     public static String detectTone(String text) {
-        if (text == null || text.trim().isEmpty()) {
+        Features f = Features.get();
+        if (text == null || !f.extract(text)) {
             return "neutral";
         }
+        return tone(f);
+    }
 
-        String t = text.trim();
-        String lower = t.toLowerCase(Locale.ROOT);
+    /**
+     * Same as detectTone(text.normalized()), reusing the tokens of the
+     * analysed text instead of tokenizing again.
+     */
+    public static String detectTone(AnalyzedText text) {
+        Features f = Features.get();
+        if (text == null || !f.extract(text.normalized(), text.tokens())) {
+            return "neutral";
+        }
+        return tone(f);
+    }
 
-        boolean hasEmoji = containsEmoji(t);
-        boolean hasExclaim = lower.contains("!");
-        boolean hasQuestion = lower.contains("?");
-        boolean hasAllCapsWord = hasAllCapsWord(t);
-        boolean hasSlang = containsSlang(lower);
+    private static String tone(Features f) {
+        boolean hasEmoji = f.has(Features.EMOJI);
+        boolean hasExclaim = f.has(Features.EXCLAIM);
+        boolean hasQuestion = f.has(Features.QUESTION);
+        boolean hasAllCapsWord = f.has(Features.ALL_CAPS_WORD);
+        boolean hasSlang = f.has(Features.SLANG);
 
-        int formalityScore = computeFormalityScore(lower, hasEmoji, hasSlang);
+        int formalityScore = computeFormalityScore(f);
 
-        boolean hasPositive = containsAny(lower, POSITIVE_WORDS);
-        boolean hasNegative = containsAny(lower, NEGATIVE_WORDS);
-        boolean hasApology = containsAny(lower, APOLOGY_WORDS);
-        boolean hasSupport = containsAny(lower, SUPPORT_WORDS);
+        boolean hasPositive = f.has(Features.POSITIVE);
+        boolean hasNegative = f.has(Features.NEGATIVE);
+        boolean hasApology = f.has(Features.APOLOGY);
+        boolean hasSupport = f.has(Features.SUPPORT);
 
         // 1) Very formal messages
         if (formalityScore >= 6) {
@@ -50,7 +75,7 @@ public class ToneDetector {
 
         // 4) Humorous / casual
         if (hasSlang || hasEmoji || hasExclaim) {
-            if (hasEmoji && containsAny(lower, LAUGH_WORDS)) {
+            if (hasEmoji && f.has(Features.LAUGH)) {
                 return "humorous";
             }
             return "casual";
@@ -73,13 +98,14 @@ public class ToneDetector {
      */
     public static boolean isLikelyFormal(String text) {
         if (text == null) return false;
-        String t = text.trim().toLowerCase(Locale.ROOT);
-        if (t.isEmpty()) return false;
+        Features f = Features.get();
+        return f.extract(text) && computeFormalityScore(f) >= 6;
+    }
 
-        boolean hasEmoji = containsEmoji(text);
-        boolean hasSlang = containsSlang(t);
-        int score = computeFormalityScore(t, hasEmoji, hasSlang);
-        return score >= 6;
+    public static boolean isLikelyFormal(AnalyzedText text) {
+        if (text == null) return false;
+        Features f = Features.get();
+        return f.extract(text.normalized(), text.tokens()) && computeFormalityScore(f) >= 6;
     }
 
     // ---------------------------------------------------------------------
@@ -133,15 +159,19 @@ public class ToneDetector {
             "jaja", "mdr"
     };
 
+    // Matched as whole tokens / phrases (so "lit" no longer fires on "little")
     private static final String[] SLANG_MARKERS = {
             "lol", "lmao", "rofl", "brb", "bro", "dude", "fam", "ngl",
-            "no cap", " fr", "fr ", "lit", "vibes", "wassup", "sup",
+            "no cap", "fr", "lit", "vibes", "wassup", "sup",
             "gonna", "wanna", "gotta",
             "tío", "pana", "chévere",
             "wesh", "ouf", "relou",
-            "machan", "da ", "dei "
+            "machan", "da", "dei"
     };
 
+    // Lowercased tokens per marker ("no cap" → {"no", "cap"}), same tokenizer as SlangDictionary
+    private static final char[][][] SLANG_MARKER_TOKENS = tokenizeMarkers();
+
     private static final String[] FORMAL_MARKERS = {
             "please", "kindly", "could you", "would you",
             "i would like", "i would appreciate", "i appreciate",
@@ -155,18 +185,28 @@ public class ToneDetector {
             "veuillez trouver ci-joint"
     };
 
+    // Group order = Features bit order, starting at Features.FORMAL
+    private static final KeywordMatcher KEYWORDS = KeywordMatcher.builder()
+            .contains("formal", FORMAL_MARKERS)
+            .contains("positive", POSITIVE_WORDS)
+            .contains("negative", NEGATIVE_WORDS)
+            .contains("apology", APOLOGY_WORDS)
+            .contains("support", SUPPORT_WORDS)
+            .contains("laugh", LAUGH_WORDS)
+            .build();
+
 
     // Scoring helpers
 
-    private static int computeFormalityScore(String lower,
-                                             boolean hasEmoji,
-                                             boolean hasSlang) {
+    private static int computeFormalityScore(Features f) {
+        boolean hasEmoji = f.has(Features.EMOJI);
+        boolean hasSlang = f.has(Features.SLANG);
         int score = 0;
 
-        if (containsAny(lower, FORMAL_MARKERS)) {
+        if (f.has(Features.FORMAL)) {
             score += 4;
         }
-        if (lower.length() > 40 && !hasSlang) {
+        if (f.length > 40 && !hasSlang) {
             score += 2;
         }
         if (!hasEmoji) {
@@ -178,7 +218,7 @@ public class ToneDetector {
             score -= 3;
         }
 
-        if (endsWithPunctuation(lower)) {
+        if (f.has(Features.ENDS_WITH_PUNCTUATION)) {
             score += 1;
         }
 
@@ -187,47 +227,278 @@ public class ToneDetector {
         return score;
     }
 
-    private static boolean containsAny(String text, String[] words) {
-        if (text == null || text.isEmpty()) return false;
-        for (String w : words) {
-            if (text.contains(w)) {
-                return true;
+    private static char[][][] tokenizeMarkers() {
+        char[][][] markers = new char[SLANG_MARKERS.length][][];
+        for (int m = 0; m < SLANG_MARKERS.length; m++) {
+            List<String> tokens = SlangDictionary.Index.tokenize(SLANG_MARKERS[m]);
+            markers[m] = new char[tokens.size()][];
+            for (int t = 0; t < tokens.size(); t++) {
+                markers[m][t] = tokens.get(t).toCharArray();
             }
         }
-        return false;
+        return markers;
     }
 
-    private static boolean containsSlang(String lower) {
-        return containsAny(lower, SLANG_MARKERS);
-    }
+    // ---------------------------------------------------------------------
+    // Single-pass feature extraction
+    // ---------------------------------------------------------------------
+
+    /**
+     * Everything the tone rules need, from ONE scan of the trimmed text.
+     * Reused per thread, so extraction does not allocate (except for an
+     * occasional buffer resize, and the exact upper-case check of
+     * non-ASCII all-caps candidates).
+     *
+     * Same results as the old per-feature passes over
+     * t = text.trim() and lower = t.toLowerCase(Locale.ROOT):
+     *  - EMOJI: a code point of t in U+1F300..U+1FAFF
+     *  - EXCLAIM / QUESTION: '!' / '?' in t
+     *  - ALL_CAPS_WORD: a t.split("\\s+") token longer than 2 chars that
+     *    equals its upper case and has an ASCII capital
+     *  - SLANG: a SLANG_MARKERS token / phrase among SlangDictionary.Index.tokenize(lower)
+     *  - keyword groups: lower.contains(any word of the group)
+     *  - ENDS_WITH_PUNCTUATION: lower ends with '.', '?' or '!'
+     *  - length: lower.length()
+     */
+    static final class Features {
+
+        static final int EMOJI = 1;
+        static final int EXCLAIM = 1 << 1;
+        static final int QUESTION = 1 << 2;
+        static final int ALL_CAPS_WORD = 1 << 3;
+        static final int SLANG = 1 << 4;
+        static final int ENDS_WITH_PUNCTUATION = 1 << 5;
+        // KEYWORDS groups, in builder order
+        static final int FORMAL = 1 << 6;
+        static final int POSITIVE = 1 << 7;
+        static final int NEGATIVE = 1 << 8;
+        static final int APOLOGY = 1 << 9;
+        static final int SUPPORT = 1 << 10;
+        static final int LAUGH = 1 << 11;
+        private static final int KEYWORD_SHIFT = 6;
+
+        private static final ThreadLocal<Features> PER_THREAD =
+                ThreadLocal.withInitial(Features::new);
+
+        int bits;
+        int length;    // chars of the lowercased, trimmed text
+        int tokens;    // word tokens (SlangDictionary tokenizer)
+        int emojis;
+
+        // Lowercased text of the current message
+        private char[] lower = new char[256];
+
+        // Scan state
+        private CharSequence text;
+        private int state;
+        private int tokenStart;
+        private int pendingApostrophe;
+        private int[] markerProgress = new int[SLANG_MARKER_TOKENS.length];
+        private boolean tokenize;
+        private int capsStart;
+        private boolean capsUpper;
+        private boolean capsLower;
+        private boolean capsNonAscii;
+
+        static Features get() {
+            return PER_THREAD.get();
+        }
+
+        boolean has(int feature) {
+            return (bits & feature) != 0;
+        }
+
+        /**
+         * Scan text. Returns false (and no features) if it is blank.
+         */
+        boolean extract(CharSequence text) {
+            return extract(text, null);
+        }
+
+        /**
+         * Scan text whose word tokens are already known (AnalyzedText);
+         * they replace the tokenizer. tokens == null → tokenize here.
+         */
+        boolean extract(CharSequence text, List<String> tokens) {
+            int start = 0;
+            int end = text.length();
+            // String.trim(): strip chars <= ' ' at both ends
+            while (start < end && text.charAt(start) <= ' ') start++;
+            while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+            reset(text);
+            if (start == end) return false;
+            tokenize = tokens == null;
+            if (lower.length < 2 * (end - start)) {
+                lower = new char[2 * (end - start)];
+            }
+
+            for (int i = start; i < end; ) {
+                int cp = Character.codePointAt(text, i);
+                int next = i + Character.charCount(cp);
+
+                if (cp == '!') bits |= EXCLAIM;
+                else if (cp == '?') bits |= QUESTION;
+                if (cp >= 0x1F300 && cp <= 0x1FAFF) {
+                    bits |= EMOJI;
+                    emojis++;
+                }
+                capsWord(cp, i, next);
+
+                if (cp == 0x130) {
+                    // toLowerCase(ROOT) turns 'İ' into "i̇"
+                    lowered('i');
+                    lowered(0x307);
+                } else {
+                    // Capital sigma's final form only matters for Greek,
+                    // which no keyword or marker contains
+                    lowered(Character.toLowerCase(cp));
+                }
+                i = next;
+            }
+
+            endCapsWord(end);
+            if (!tokenize) {
+                for (int t = 0; t < tokens.size(); t++) {
+                    String token = tokens.get(t);
+                    advanceMarkers(token, 0, token.length());
+                }
+                this.tokens = tokens.size();
+            } else if (pendingApostrophe >= 0) {
+                endToken(pendingApostrophe);
+            } else if (tokenStart >= 0) {
+                endToken(length);
+            }
+
+            char last = lower[length - 1];
+            if (last == '.' || last == '?' || last == '!') bits |= ENDS_WITH_PUNCTUATION;
+            this.text = null;
+            return true;
+        }
+
+        private void reset(CharSequence text) {
+            this.text = text;
+            bits = 0;
+            length = 0;
+            tokens = 0;
+            emojis = 0;
+            state = KeywordMatcher.ROOT;
+            tokenStart = -1;
+            pendingApostrophe = -1;
+            Arrays.fill(markerProgress, 0);
+            capsStart = -1;
+        }
+
+        // One lowercased code point: keyword automaton + word tokenizer
+        private void lowered(int cp) {
+            int at = length;
+            if (Character.isBmpCodePoint(cp)) {
+                lower[length++] = (char) cp;
+                state = KEYWORDS.next(state, (char) cp);
+                bits |= KEYWORDS.containsMask(state) << KEYWORD_SHIFT;
+            } else {
+                Character.toChars(cp, lower, length);
+                length += 2;
+                // No keyword contains a surrogate: back to the root, like a miss
+                state = KeywordMatcher.ROOT;
+            }
 
-    private static boolean containsEmoji(String s) {
-        if (s == null) return false;
-        int len = s.length();
-        for (int i = 0; i < len; i++) {
-            int cp = s.codePointAt(i);
-            if (cp >= 0x1F300 && cp <= 0x1FAFF) { // emoji range
-                return true;
+            if (!tokenize) return;
+
+            // SlangDictionary.Index.tokenize: an apostrophe stays in a word
+            // only when a letter follows, so decide on the next code point
+            if (pendingApostrophe >= 0) {
+                if (Character.isLetter(cp)) {
+                    pendingApostrophe = -1;
+                } else {
+                    endToken(pendingApostrophe);
+                }
+            }
+
+            int type = Character.getType(cp);
+            boolean word = Character.isLetterOrDigit(cp) || cp == '_'
+                    || type == Character.NON_SPACING_MARK
+                    || type == Character.COMBINING_SPACING_MARK;
+            if (word) {
+                if (tokenStart < 0) tokenStart = at;
+            } else if ((cp == '\'' || cp == '’') && tokenStart >= 0) {
+                pendingApostrophe = at;
+            } else if (tokenStart >= 0) {
+                endToken(at);
             }
         }
-        return false;
-    }
 
-    private static boolean hasAllCapsWord(String text) {
-        if (text == null) return false;
-        String[] parts = text.split("\\s+");
-        for (String p : parts) {
-            if (p.length() > 2 && p.equals(p.toUpperCase(Locale.ROOT))
-                    && p.matches(".*[A-Z].*")) {
-                return true;
+        private void endToken(int end) {
+            int start = tokenStart;
+            tokenStart = -1;
+            pendingApostrophe = -1;
+            tokens++;
+            advanceMarkers(null, start, end);
+        }
+
+        // One token, either lower[start, end) (token == null) or token itself
+        private void advanceMarkers(String token, int start, int end) {
+            for (int m = 0; m < SLANG_MARKER_TOKENS.length; m++) {
+                char[][] marker = SLANG_MARKER_TOKENS[m];
+                int progress = markerProgress[m];
+                // Markers have no repeated prefix, so restarting is enough
+                if (progress > 0 && !regionEquals(token, start, end, marker[progress])) {
+                    progress = 0;
+                }
+                if (regionEquals(token, start, end, marker[progress])) {
+                    progress++;
+                    if (progress == marker.length) {
+                        bits |= SLANG;
+                        progress = 0;
+                    }
+                }
+                markerProgress[m] = progress;
             }
         }
-        return false;
-    }
 
-    private static boolean endsWithPunctuation(String lower) {
-        if (lower == null || lower.isEmpty()) return false;
-        char c = lower.charAt(lower.length() - 1);
-        return c == '.' || c == '?' || c == '!';
+        private boolean regionEquals(String s, int start, int end, char[] token) {
+            if (end - start != token.length) return false;
+            for (int i = 0; i < token.length; i++) {
+                char c = s == null ? lower[start + i] : s.charAt(start + i);
+                if (c != token[i]) return false;
+            }
+            return true;
+        }
+
+        // ---- all-caps words: runs of non-"\s" chars of the original text ----
+
+        private void capsWord(int cp, int i, int next) {
+            if (TextScan.isRegexSpace(cp)) {
+                endCapsWord(i);
+                return;
+            }
+            if (capsStart < 0) {
+                capsStart = i;
+                capsUpper = false;
+                capsLower = false;
+                capsNonAscii = false;
+            }
+            if (cp >= 'A' && cp <= 'Z') capsUpper = true;
+            else if (cp >= 'a' && cp <= 'z') capsLower = true;
+            else if (cp >= 0x80) capsNonAscii = true;
+        }
+
+        private void endCapsWord(int end) {
+            if (capsStart < 0) return;
+            int start = capsStart;
+            capsStart = -1;
+            if (end - start <= 2 || !capsUpper || capsLower || has(ALL_CAPS_WORD)) return;
+
+            if (!capsNonAscii) {
+                bits |= ALL_CAPS_WORD;
+                return;
+            }
+            // Rare: exact String semantics ('ß' → "SS", ligatures, ...), and
+            // matches(".*[A-Z].*") fails on the line terminators \s leaves in
+            String p = text.subSequence(start, end).toString();
+            if (p.equals(p.toUpperCase(Locale.ROOT)) && !TextScan.hasLineTerminator(p)) {
+                bits |= ALL_CAPS_WORD;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,441 @@
+package com.example.multilingualchatassistant.nlp;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * TranslationCache
+ *
+ * Result cache for TranslatorHelper, keyed by (src, tgt, text hash):
+ *
+ *  1) Memory tier: LRU bounded by total characters, with a TTL.
+ *  2) Optional disk tier: one small file per entry in a cache directory,
+ *     bounded by bytes, same TTL. Read and written on a background executor,
+ *     so repeated replies survive restarts without touching ML Kit.
+ *
+ * The original text is stored with every entry, so a hash collision is a miss,
+ * never a wrong translation.
+ */
+public final class TranslationCache {
+
+    public static final int DEFAULT_MAX_MEMORY_CHARS = 64 * 1024;
+    public static final long DEFAULT_MAX_DISK_BYTES = 1024 * 1024;
+    public static final long DEFAULT_TTL_MS = 7L * 24 * 60 * 60 * 1000; // 7 days
+
+    private static final int DISK_FORMAT_VERSION = 1;
+    private static final String DISK_SUFFIX = ".tr";
+
+    public interface Lookup {
+        void onResult(@Nullable String translated);
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public static class Stats {
+        public long memoryHits;
+        public long diskHits;
+        public long misses;
+        public long evictions;
+        public long expirations;
+        public int memoryEntries;
+        public int memoryChars;
+
+        public double hitRate() {
+            long total = memoryHits + diskHits + misses;
+            return total == 0 ? 0.0 : (double) (memoryHits + diskHits) / total;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "memoryHits=" + memoryHits + " diskHits=" + diskHits + " misses=" + misses
+                    + " hitRate=" + String.format(Locale.ROOT, "%.2f", hitRate())
+                    + " evictions=" + evictions + " expirations=" + expirations
+                    + " entries=" + memoryEntries + " chars=" + memoryChars;
+        }
+    }
+
+    private static final class Entry {
+        final String text;
+        final String translated;
+        final long createdAt;
+
+        Entry(String text, String translated, long createdAt) {
+            this.text = text;
+            this.translated = translated;
+            this.createdAt = createdAt;
+        }
+
+        int chars() {
+            return text.length() + translated.length();
+        }
+    }
+
+    private final int maxMemoryChars;
+    private final long ttlMs;
+    private final LongSupplier clock;
+
+    // Access-ordered → iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private int memoryChars;
+
+    // Disk tier (null until enableDisk)
+    private volatile File diskDir;
+    private volatile Executor io;
+
+    // Disk accounting has its own lock: the monitor of this is taken on the
+    // main thread by getFromMemory, so it must never be held across disk IO
+    private final Object diskLock = new Object();
+    private long maxDiskBytes = DEFAULT_MAX_DISK_BYTES; // guarded by diskLock
+    private long diskBytes = -1; // guarded by diskLock, lazily computed on the io thread
+
+    // Counters (guarded by this)
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public TranslationCache(int maxMemoryChars, long ttlMs) {
+        this(maxMemoryChars, ttlMs, System::currentTimeMillis);
+    }
+
+    TranslationCache(int maxMemoryChars, long ttlMs, LongSupplier clock) {
+        this.maxMemoryChars = Math.max(1, maxMemoryChars);
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Turn on the persistent tier. All disk IO runs on the given executor.
+     */
+    public void enableDisk(@NonNull File dir, long maxDiskBytes, @NonNull Executor io) {
+        synchronized (diskLock) {
+            this.maxDiskBytes = Math.max(0L, maxDiskBytes);
+            this.diskBytes = -1;
+        }
+        this.io = io;
+        this.diskDir = dir;
+    }
+
+    public boolean hasDisk() {
+        return diskDir != null;
+    }
+
+    // --------------------------------------------------------------------
+    // Lookups
+    // --------------------------------------------------------------------
+
+    /**
+     * Memory tier only, safe to call from the main thread.
+     * Without a disk tier a null result counts as a miss.
+     */
+    @Nullable
+    public synchronized String getFromMemory(@NonNull String src,
+                                             @NonNull String tgt,
+                                             @NonNull String text) {
+        String key = key(src, tgt, text);
+        Entry e = memory.get(key);
+        if (e != null && !e.text.equals(text)) {
+            e = null; // hash collision
+        }
+        if (e != null && isExpired(e)) {
+            removeMemory(key, e);
+            expirations++;
+            e = null;
+        }
+        if (e != null) {
+            memoryHits++;
+            return e.translated;
+        }
+        if (diskDir == null) {
+            misses++;
+        }
+        return null;
+    }
+
+    /**
+     * Disk tier lookup on the io executor. The callback runs on the io thread;
+     * a disk hit is promoted into the memory tier.
+     */
+    public void getFromDisk(@NonNull String src,
+                            @NonNull String tgt,
+                            @NonNull String text,
+                            @NonNull Lookup callback) {
+        File dir = diskDir;
+        Executor executor = io;
+        if (dir == null || executor == null) {
+            callback.onResult(null);
+            return;
+        }
+
+        executor.execute(() -> {
+            Entry e = readDisk(dir, src, tgt, text);
+            synchronized (this) {
+                if (e != null) {
+                    diskHits++;
+                    putMemory(key(src, tgt, text), e);
+                } else {
+                    misses++;
+                }
+            }
+            callback.onResult(e != null ? e.translated : null);
+        });
+    }
+
+    // --------------------------------------------------------------------
+    // Writes
+    // --------------------------------------------------------------------
+
+    public void put(@NonNull String src,
+                    @NonNull String tgt,
+                    @NonNull String text,
+                    @NonNull String translated) {
+        Entry e = new Entry(text, translated, clock.getAsLong());
+        synchronized (this) {
+            putMemory(key(src, tgt, text), e);
+        }
+
+        File dir = diskDir;
+        Executor executor = io;
+        if (dir != null && executor != null) {
+            executor.execute(() -> writeDisk(dir, src, tgt, e));
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            memory.clear();
+            memoryChars = 0;
+        }
+
+        File dir = diskDir;
+        Executor executor = io;
+        if (dir != null && executor != null) {
+            executor.execute(() -> {
+                File[] files = dir.listFiles();
+                if (files != null) {
+                    for (File f : files) {
+                        if (f.getName().endsWith(DISK_SUFFIX)) f.delete();
+                    }
+                }
+                synchronized (diskLock) {
+                    diskBytes = 0;
+                }
+            });
+        }
+    }
+
+    @NonNull
+    public synchronized Stats getStats() {
+        Stats s = new Stats();
+        s.memoryHits = memoryHits;
+        s.diskHits = diskHits;
+        s.misses = misses;
+        s.evictions = evictions;
+        s.expirations = expirations;
+        s.memoryEntries = memory.size();
+        s.memoryChars = memoryChars;
+        return s;
+    }
+
+    // --------------------------------------------------------------------
+    // Memory tier internals (guarded by this)
+    // --------------------------------------------------------------------
+
+    private void putMemory(String key, Entry e) {
+        Entry old = memory.put(key, e);
+        if (old != null) memoryChars -= old.chars();
+        memoryChars += e.chars();
+
+        Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+        while (memoryChars > maxMemoryChars && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            memoryChars -= eldest.chars();
+            evictions++;
+        }
+    }
+
+    private void removeMemory(String key, Entry e) {
+        memory.remove(key);
+        memoryChars -= e.chars();
+    }
+
+    private boolean isExpired(Entry e) {
+        return ttlMs > 0 && clock.getAsLong() - e.createdAt > ttlMs;
+    }
+
+    // --------------------------------------------------------------------
+    // Disk tier internals (io thread only)
+    // --------------------------------------------------------------------
+
+    @Nullable
+    private Entry readDisk(File dir, String src, String tgt, String text) {
+        File f = new File(dir, fileName(src, tgt, text));
+        if (!f.isFile()) return null;
+
+        Entry e;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(f)))) {
+            if (in.readInt() != DISK_FORMAT_VERSION) return null;
+            long createdAt = in.readLong();
+            String fSrc = readString(in);
+            String fTgt = readString(in);
+            String fText = readString(in);
+            String fTranslated = readString(in);
+
+            if (!src.equals(fSrc) || !tgt.equals(fTgt) || !text.equals(fText)) {
+                return null; // hash collision
+            }
+
+            e = new Entry(fText, fTranslated, createdAt);
+        } catch (IOException ex) {
+            deleteDisk(f);
+            return null;
+        }
+
+        if (isExpired(e)) {
+            deleteDisk(f);
+            synchronized (this) {
+                expirations++;
+            }
+            return null;
+        }
+        return e;
+    }
+
+    private void writeDisk(File dir, String src, String tgt, Entry e) {
+        if (!dir.isDirectory() && !dir.mkdirs()) return;
+
+        File f = new File(dir, fileName(src, tgt, e.text));
+        File tmp = new File(dir, f.getName() + ".tmp");
+        long before = f.isFile() ? f.length() : 0;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(DISK_FORMAT_VERSION);
+            out.writeLong(e.createdAt);
+            writeString(out, src);
+            writeString(out, tgt);
+            writeString(out, e.text);
+            writeString(out, e.translated);
+        } catch (IOException ex) {
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(f)) {
+            tmp.delete();
+            return;
+        }
+
+        int trimmed = 0;
+        synchronized (diskLock) {
+            if (diskBytes < 0) {
+                diskBytes = totalDiskBytes(dir);
+            } else {
+                diskBytes += f.length() - before;
+            }
+            if (diskBytes > maxDiskBytes) {
+                trimmed = trimDisk(dir);
+            }
+        }
+        if (trimmed > 0) {
+            synchronized (this) {
+                evictions += trimmed;
+            }
+        }
+    }
+
+    // Delete oldest files until we are back under 90% of the limit (holding
+    // diskLock); returns how many were deleted
+    private int trimDisk(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(DISK_SUFFIX));
+        if (files == null) return 0;
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+
+        long target = maxDiskBytes * 9 / 10;
+        int deleted = 0;
+        for (File f : files) {
+            if (diskBytes <= target) break;
+            long size = f.length();
+            if (f.delete()) {
+                diskBytes -= size;
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void deleteDisk(File f) {
+        long size = f.length();
+        if (f.delete()) {
+            synchronized (diskLock) {
+                if (diskBytes >= 0) diskBytes -= size;
+            }
+        }
+    }
+
+    private static long totalDiskBytes(File dir) {
+        long total = 0;
+        File[] files = dir.listFiles((d, name) -> name.endsWith(DISK_SUFFIX));
+        if (files != null) {
+            for (File f : files) total += f.length();
+        }
+        return total;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > 1024 * 1024) throw new IOException("bad length " + len);
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --------------------------------------------------------------------
+    // Keys
+    // --------------------------------------------------------------------
+
+    private static String key(String src, String tgt, String text) {
+        return src + '|' + tgt + '|' + Long.toHexString(hash64(text));
+    }
+
+    private static String fileName(String src, String tgt, String text) {
+        return src + "_" + tgt + "_" + Long.toHexString(hash64(text)) + DISK_SUFFIX;
+    }
+
+    // 64-bit FNV-1a over UTF-16 chars
+    static long hash64(String text) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -1,26 +1,63 @@
 package com.example.multilingualchatassistant.nlp;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.google.mlkit.nl.translate.TranslateLanguage;
-import com.google.mlkit.nl.translate.Translation;
-import com.google.mlkit.nl.translate.Translator;
-import com.google.mlkit.nl.translate.TranslatorOptions;
 import com.google.mlkit.common.model.DownloadConditions;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Wrapper around ML Kit on-device translation.
- * Supports only: en, es, fr, ta.
+ * Supports only: en, es, fr, ta, de.
+ *
+ * Translators are kept in a TranslatorPool, so only the first translation
+ * for a language pair pays for model loading. Results go through a
+ * TranslationCache (memory LRU + optional disk tier), so repeated phrases
+ * skip ML Kit entirely.
  */
 public class TranslatorHelper {
 
+    private static final TranslatorPool POOL = new TranslatorPool(
+            new DownloadConditions.Builder()
+                    .requireWifi()
+                    .build());
+
+    private static final TranslationCache CACHE = new TranslationCache(
+            TranslationCache.DEFAULT_MAX_MEMORY_CHARS,
+            TranslationCache.DEFAULT_TTL_MS);
+
+    private static final ExecutorService DISK_IO = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN = new Handler(Looper.getMainLooper());
+
     public interface TranslateCallback {
         void onTranslated(@NonNull String translatedText);
         void onError(@NonNull Exception e);
     }
 
+    /**
+     * Called on the main thread when ML Kit was involved, otherwise
+     * synchronously on the thread that called translateBatch.
+     */
+    public interface BatchTranslateCallback {
+        /** Same order as the input; an entry is null if that text failed to translate. */
+        void onTranslated(@NonNull List<String> translatedTexts);
+        /** The whole pair failed (e.g. model download). */
+        void onError(@NonNull Exception e);
+    }
+
     public static void translate(
             @NonNull String sourceLang,
             @NonNull String targetLang,
@@ -41,38 +78,170 @@ public class TranslatorHelper {
             return;
         }
 
-        TranslatorOptions options =
-                new TranslatorOptions.Builder()
-                        .setSourceLanguage(src)
-                        .setTargetLanguage(tgt)
-                        .build();
-        final Translator translator = Translation.getClient(options);
+        // 1) Memory tier: repeated phrases come back without any inference
+        String cached = CACHE.getFromMemory(src, tgt, text);
+        if (cached != null) {
+            callback.onTranslated(cached);
+            return;
+        }
+
+        // 2) Disk tier (if enabled) on the io thread, then back to main
+        if (CACHE.hasDisk()) {
+            CACHE.getFromDisk(src, tgt, text, fromDisk -> MAIN.post(() -> {
+                if (fromDisk != null) {
+                    callback.onTranslated(fromDisk);
+                } else {
+                    translateWithModel(src, tgt, text, callback);
+                }
+            }));
+            return;
+        }
+
+        translateWithModel(src, tgt, text, callback);
+    }
+
+    /**
+     * Translate many texts for ONE language pair with a single pooled translator.
+     * Duplicates are translated once; memory-cache hits skip ML Kit entirely.
+     * The callback runs on the main thread after an ML Kit round trip, but
+     * synchronously on the calling thread when no text needs one (same or
+     * unsupported language, or every text cached).
+     */
+    public static void translateBatch(
+            @NonNull String sourceLang,
+            @NonNull String targetLang,
+            @NonNull List<String> texts,
+            @NonNull BatchTranslateCallback callback
+    ) {
+        String src = toMlKitCode(sourceLang);
+        String tgt = toMlKitCode(targetLang);
+
+        if (sourceLang.equalsIgnoreCase(targetLang) || src == null || tgt == null) {
+            // Same language / unsupported -> original texts
+            callback.onTranslated(new ArrayList<>(texts));
+            return;
+        }
+
+        String[] out = new String[texts.size()];
+
+        // Distinct cache misses -> positions in the batch
+        LinkedHashMap<String, List<Integer>> misses = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            String cached = CACHE.getFromMemory(src, tgt, text);
+            if (cached != null) {
+                out[i] = cached;
+            } else {
+                misses.computeIfAbsent(text, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            callback.onTranslated(Arrays.asList(out));
+            return;
+        }
+
+        final TranslatorPool.Lease lease = POOL.acquire(src, tgt);
 
-        DownloadConditions conditions =
-                new DownloadConditions.Builder()
-                        .requireWifi()
-                        .build();
+        lease.ready()
+                .addOnSuccessListener(unused -> {
+                    // All listeners run on main, so plain counters are enough
+                    int[] remaining = {misses.size()};
+                    Runnable finish = () -> {
+                        // Not counted as one translation: it would skew the per-call timings
+                        POOL.release(lease, false);
+                        callback.onTranslated(Arrays.asList(out));
+                    };
 
-        translator.downloadModelIfNeeded(conditions)
+                    for (Map.Entry<String, List<Integer>> miss : misses.entrySet()) {
+                        String text = miss.getKey();
+                        lease.translator().translate(text)
+                                .addOnSuccessListener(translatedText -> {
+                                    CACHE.put(src, tgt, text, translatedText);
+                                    for (int i : miss.getValue()) out[i] = translatedText;
+                                    if (--remaining[0] == 0) finish.run();
+                                })
+                                .addOnFailureListener(e -> {
+                                    Log.e("TranslatorHelper", "batch translate error", e);
+                                    if (--remaining[0] == 0) finish.run();
+                                });
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e("TranslatorHelper", "model download error", e);
+                    POOL.invalidate(lease);
+                    POOL.release(lease, false);
+                    callback.onError(e);
+                });
+    }
+
+    private static void translateWithModel(String src,
+                                           String tgt,
+                                           String text,
+                                           TranslateCallback callback) {
+        // Pooled translator: model download + native init only on the first call per pair
+        final TranslatorPool.Lease lease = POOL.acquire(src, tgt);
+
+        lease.ready()
                 .addOnSuccessListener(unused ->
-                        translator.translate(text)
+                        lease.translator().translate(text)
                                 .addOnSuccessListener(translatedText -> {
+                                    POOL.release(lease, true);
+                                    CACHE.put(src, tgt, text, translatedText);
                                     callback.onTranslated(translatedText);
-                                    translator.close();
                                 })
                                 .addOnFailureListener(e -> {
                                     Log.e("TranslatorHelper", "translate error", e);
+                                    POOL.release(lease, false);
                                     callback.onError(e);
-                                    translator.close();
                                 })
                 )
                 .addOnFailureListener(e -> {
                     Log.e("TranslatorHelper", "model download error", e);
+                    POOL.invalidate(lease);
+                    POOL.release(lease, false);
                     callback.onError(e);
-                    translator.close();
                 });
     }
 
+    /**
+     * Keep translation results on disk too, so they survive app restarts.
+     */
+    public static void enablePersistentCache(@NonNull Context context) {
+        CACHE.enableDisk(new File(context.getCacheDir(), "translations"),
+                TranslationCache.DEFAULT_MAX_DISK_BYTES, DISK_IO);
+    }
+
+    /**
+     * Result cache hit rate / eviction counters.
+     */
+    @NonNull
+    public static TranslationCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * How long an unused translator stays open before it is closed.
+     */
+    public static void setIdleTimeoutMs(long idleTimeoutMs) {
+        POOL.setIdleTimeoutMs(idleTimeoutMs);
+    }
+
+    /**
+     * Close all idle translators now (e.g. from onTrimMemory / onDestroy).
+     */
+    public static void releaseTranslators() {
+        POOL.evictAll();
+    }
+
+    /**
+     * Pool hit/miss counters and model-load / translate timings.
+     */
+    @NonNull
+    public static TranslatorPool.Stats getPoolStats() {
+        return POOL.getStats();
+    }
+
     private static String toMlKitCode(String code) {
         if (code == null) return null;
         String c = code.toLowerCase();
@@ -92,6 +261,9 @@ public class TranslatorHelper {
             case "ta":
             case "ta-in":
                 return TranslateLanguage.TAMIL;
+            case "de":
+            case "de-de":
+                return TranslateLanguage.GERMAN;
             default:
                 return null; // unsupported
         }
@@ -0,0 +1,381 @@
+package com.example.multilingualchatassistant.nlp;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.android.gms.tasks.Task;
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.Translation;
+import com.google.mlkit.nl.translate.Translator;
+import com.google.mlkit.nl.translate.TranslatorOptions;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * TranslatorPool
+ *
+ * Bounded cache of ML Kit Translator clients keyed by (source, target).
+ *
+ *  - One Translator + one model download per language pair, shared by callers.
+ *    The download starts with the first ready() on the pair.
+ *  - Reference counted: a translator is only closed when nobody is using it.
+ *  - Idle translators are closed after a configurable timeout.
+ *  - LRU: when more than maxTranslators pairs are open, the least recently
+ *    used idle one is closed first.
+ *  - Hit / miss counters and model-load timings for the stats screen / logs.
+ */
+public final class TranslatorPool {
+
+    private static final String TAG = "TranslatorPool";
+
+    public static final int DEFAULT_MAX_TRANSLATORS = 4;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 60_000L;
+
+    /**
+     * Snapshot of the pool counters.
+     */
+    public static class Stats {
+        public long hits;
+        public long misses;
+        public long evictions;
+        public int openTranslators;
+
+        public long modelLoads;           // successful downloadModelIfNeeded calls
+        public long lastModelLoadMs;
+        public long avgModelLoadMs;
+
+        public long avgColdTranslateMs;   // acquire → translated, new translator
+        public long avgWarmTranslateMs;   // acquire → translated, pooled translator
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "hits=" + hits + " misses=" + misses
+                    + " evictions=" + evictions + " open=" + openTranslators
+                    + " modelLoad(last/avg)=" + lastModelLoadMs + "/" + avgModelLoadMs + "ms"
+                    + " translate(cold/warm)=" + avgColdTranslateMs + "/" + avgWarmTranslateMs + "ms";
+        }
+    }
+
+    /**
+     * A borrowed translator. Callers must hand it back with release().
+     */
+    public static final class Lease {
+        private final TranslatorPool pool;
+        private final Slot slot;
+        private final boolean warm;
+        private final long acquiredAt;
+        private boolean released;
+
+        private Lease(TranslatorPool pool, Slot slot, boolean warm, long acquiredAt) {
+            this.pool = pool;
+            this.slot = slot;
+            this.warm = warm;
+            this.acquiredAt = acquiredAt;
+        }
+
+        @NonNull
+        public Translator translator() {
+            return slot.translator;
+        }
+
+        /**
+         * Completes once the model is on the device (shared by every lease of this pair).
+         */
+        @NonNull
+        public Task<Void> ready() {
+            return pool.ready(slot);
+        }
+
+        public boolean isWarm() {
+            return warm;
+        }
+    }
+
+    private static final class Slot {
+        final String key;
+        final Translator translator;
+        final long openedAt;
+        Task<Void> ready;
+        int refs;
+        long lastUsed;
+        boolean evicted;
+
+        Slot(String key, Translator translator, long openedAt) {
+            this.key = key;
+            this.translator = translator;
+            this.openedAt = openedAt;
+        }
+    }
+
+    /**
+     * Creates the ML Kit client for a pair; swapped out in tests.
+     */
+    interface TranslatorFactory {
+        @NonNull
+        Translator create(@NonNull String src, @NonNull String tgt);
+    }
+
+    // Access-ordered → iteration starts at the least recently used pair
+    private final LinkedHashMap<String, Slot> slots = new LinkedHashMap<>(8, 0.75f, true);
+    private final Runnable idleSweep = this::evictIdle;
+    private final DownloadConditions downloadConditions;
+    private final TranslatorFactory factory;
+    private final LongSupplier clock;
+    @Nullable private final Handler handler;   // null → no idle sweeps
+
+    private int maxTranslators = DEFAULT_MAX_TRANSLATORS;
+    private long idleTimeoutMs = DEFAULT_IDLE_TIMEOUT_MS;
+
+    // Counters (guarded by this)
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long modelLoads;
+    private long totalModelLoadMs;
+    private long lastModelLoadMs;
+    private long coldTranslations;
+    private long totalColdTranslateMs;
+    private long warmTranslations;
+    private long totalWarmTranslateMs;
+
+    public TranslatorPool(@NonNull DownloadConditions downloadConditions) {
+        this(downloadConditions, TranslatorPool::newClient, SystemClock::elapsedRealtime,
+                new Handler(Looper.getMainLooper()));
+    }
+
+    @VisibleForTesting
+    TranslatorPool(@NonNull DownloadConditions downloadConditions,
+                   @NonNull TranslatorFactory factory,
+                   @NonNull LongSupplier clock,
+                   @Nullable Handler handler) {
+        this.downloadConditions = downloadConditions;
+        this.factory = factory;
+        this.clock = clock;
+        this.handler = handler;
+    }
+
+    // --------------------------------------------------------------------
+    // Configuration
+    // --------------------------------------------------------------------
+
+    public synchronized void setMaxTranslators(int maxTranslators) {
+        this.maxTranslators = Math.max(1, maxTranslators);
+        trimToSize();
+    }
+
+    public synchronized void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = Math.max(0L, idleTimeoutMs);
+        scheduleIdleSweep();
+    }
+
+    // --------------------------------------------------------------------
+    // Acquire / release
+    // --------------------------------------------------------------------
+
+    /**
+     * Borrow the translator for (src, tgt), creating it on a miss.
+     * src / tgt are ML Kit language codes.
+     */
+    @NonNull
+    public synchronized Lease acquire(@NonNull String src, @NonNull String tgt) {
+        long now = clock.getAsLong();
+        String key = src + "->" + tgt;
+
+        Slot slot = slots.get(key);
+        boolean warm = slot != null;
+        if (warm) {
+            hits++;
+        } else {
+            misses++;
+            slot = open(key, src, tgt, now);
+            slots.put(key, slot);
+        }
+
+        slot.refs++;
+        slot.lastUsed = now;
+        trimToSize();
+        return new Lease(this, slot, warm, now);
+    }
+
+    /**
+     * Give the translator back. Safe to call more than once.
+     *
+     * @param translated true if the lease produced a translation (counts towards timings)
+     */
+    public synchronized void release(@NonNull Lease lease, boolean translated) {
+        if (lease.released) return;
+        lease.released = true;
+
+        long now = clock.getAsLong();
+        if (translated) {
+            long took = now - lease.acquiredAt;
+            if (lease.warm) {
+                warmTranslations++;
+                totalWarmTranslateMs += took;
+            } else {
+                coldTranslations++;
+                totalColdTranslateMs += took;
+            }
+        }
+
+        Slot slot = lease.slot;
+        slot.refs--;
+        slot.lastUsed = now;
+
+        if (slot.refs == 0) {
+            if (slot.evicted) {
+                slot.translator.close();
+            } else {
+                trimToSize();
+                scheduleIdleSweep();
+            }
+        }
+    }
+
+    /**
+     * Drop a broken translator (e.g. model download failed) so the next call
+     * starts fresh. It is closed once the last lease is released.
+     */
+    public synchronized void invalidate(@NonNull Lease lease) {
+        Slot slot = lease.slot;
+        if (slot.evicted) return;
+        if (slots.get(slot.key) == slot) {
+            slots.remove(slot.key);
+        }
+        slot.evicted = true;
+        evictions++;
+        if (slot.refs == 0) {
+            slot.translator.close();
+        }
+    }
+
+    /**
+     * Close every idle translator now (e.g. from onTrimMemory). Busy ones are
+     * closed as soon as their last lease is released.
+     */
+    public synchronized void evictAll() {
+        List<Slot> all = new ArrayList<>(slots.values());
+        slots.clear();
+        for (Slot slot : all) {
+            slot.evicted = true;
+            evictions++;
+            if (slot.refs == 0) {
+                slot.translator.close();
+            }
+        }
+        if (handler != null) handler.removeCallbacks(idleSweep);
+    }
+
+    @NonNull
+    public synchronized Stats getStats() {
+        Stats s = new Stats();
+        s.hits = hits;
+        s.misses = misses;
+        s.evictions = evictions;
+        s.openTranslators = slots.size();
+        s.modelLoads = modelLoads;
+        s.lastModelLoadMs = lastModelLoadMs;
+        s.avgModelLoadMs = modelLoads == 0 ? 0 : totalModelLoadMs / modelLoads;
+        s.avgColdTranslateMs = coldTranslations == 0 ? 0 : totalColdTranslateMs / coldTranslations;
+        s.avgWarmTranslateMs = warmTranslations == 0 ? 0 : totalWarmTranslateMs / warmTranslations;
+        return s;
+    }
+
+    // --------------------------------------------------------------------
+    // Internals
+    // --------------------------------------------------------------------
+
+    private static Translator newClient(String src, String tgt) {
+        TranslatorOptions options =
+                new TranslatorOptions.Builder()
+                        .setSourceLanguage(src)
+                        .setTargetLanguage(tgt)
+                        .build();
+        return Translation.getClient(options);
+    }
+
+    private Slot open(String key, String src, String tgt, long startedAt) {
+        return new Slot(key, factory.create(src, tgt), startedAt);
+    }
+
+    // First ready() on a pair starts its download; later leases share the task
+    private synchronized Task<Void> ready(Slot slot) {
+        if (slot.ready == null) {
+            slot.ready = slot.translator.downloadModelIfNeeded(downloadConditions)
+                    .addOnSuccessListener(unused -> {
+                        synchronized (TranslatorPool.this) {
+                            long took = clock.getAsLong() - slot.openedAt;
+                            modelLoads++;
+                            totalModelLoadMs += took;
+                            lastModelLoadMs = took;
+                        }
+                        Log.d(TAG, "model ready " + slot.key);
+                    });
+        }
+        return slot.ready;
+    }
+
+    // Close least recently used idle translators until we are within bounds
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Slot>> it = slots.entrySet().iterator();
+        while (slots.size() > maxTranslators && it.hasNext()) {
+            Slot slot = it.next().getValue();
+            if (slot.refs > 0) continue;
+            it.remove();
+            slot.evicted = true;
+            evictions++;
+            slot.translator.close();
+        }
+    }
+
+    private void evictIdle() {
+        synchronized (this) {
+            long now = clock.getAsLong();
+            Iterator<Map.Entry<String, Slot>> it = slots.entrySet().iterator();
+            while (it.hasNext()) {
+                Slot slot = it.next().getValue();
+                if (slot.refs == 0 && now - slot.lastUsed >= idleTimeoutMs) {
+                    it.remove();
+                    slot.evicted = true;
+                    evictions++;
+                    slot.translator.close();
+                }
+            }
+            scheduleIdleSweep();
+        }
+    }
+
+    // One pending sweep, timed for the oldest idle translator
+    private void scheduleIdleSweep() {
+        if (handler == null) return;
+        handler.removeCallbacks(idleSweep);
+
+        long oldestIdle = Long.MAX_VALUE;
+        for (Slot slot : slots.values()) {
+            if (slot.refs == 0 && slot.lastUsed < oldestIdle) {
+                oldestIdle = slot.lastUsed;
+            }
+        }
+        if (oldestIdle == Long.MAX_VALUE) return;
+
+        long delay = oldestIdle + idleTimeoutMs - clock.getAsLong();
+        handler.postDelayed(idleSweep, Math.max(0L, delay));
+    }
+}
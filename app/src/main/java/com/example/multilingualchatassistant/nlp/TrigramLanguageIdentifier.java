@@ -0,0 +1,297 @@
+package com.example.multilingualchatassistant.nlp;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import androidx.annotation.NonNull;
+
+import com.example.multilingualchatassistant.util.TextScan;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+
+/**
+ * TrigramLanguageIdentifier
+ *
+ * Offline language identification from character trigrams (en / es / fr /
+ * ta / de). The per-language profiles are one binary table,
+ * assets/langid/trigrams.bin, built by LanguageProfileBuilder (unit-test
+ * sources) from the corpora in src/test/resources/langid.
+ *
+ * The table is memory-mapped, not parsed: a lookup is a binary search over
+ * the mapped key column, so loading costs no heap beyond a few views.
+ *
+ * identify() makes one pass over at most MAX_CHARS code points (the fixed
+ * latency budget: at most MAX_CHARS + 1 lookups), sums each language's
+ * log-probabilities over the known trigrams and returns every language
+ * ranked, with the naive-Bayes posterior as confidence.
+ *
+ * Table layout (big-endian):
+ *   int magic "LGID", int version, int languages L, int trigrams N
+ *   L × 2 ASCII bytes   language codes, zero-padded to a multiple of 4
+ *   N × int             trigram keys, ascending (see key())
+ *   N × L bytes         cost per key and language: round(-ln p × COST_SCALE)
+ */
+public final class TrigramLanguageIdentifier {
+
+    static final String ASSET = "langid/trigrams.bin";
+    static final int MAGIC = 0x4C474944; // "LGID"
+    static final int VERSION = 1;
+    static final int COST_SCALE = 16;
+
+    /** Code points scanned per call at most; the rest of the text is ignored. */
+    public static final int MAX_CHARS = 256;
+
+    // Below this, LanguageDetector falls back to its rules
+    static final int MIN_TRIGRAMS = 3;
+    static final double MIN_CONFIDENCE = 0.9;
+
+    private final String[] languages;
+    private final IntBuffer keys;
+    private final ByteBuffer costs;
+
+    private TrigramLanguageIdentifier(ByteBuffer table) throws IOException {
+        if (table.remaining() < 16 || table.getInt(0) != MAGIC) {
+            throw new IOException("not a language profile table");
+        }
+        if (table.getInt(4) != VERSION) {
+            throw new IOException("unsupported profile table version " + table.getInt(4));
+        }
+        int langCount = table.getInt(8);
+        int keyCount = table.getInt(12);
+        int keysOffset = 16 + ((2 * langCount + 3) & ~3);
+        int costsOffset = keysOffset + 4 * keyCount;
+        if (langCount <= 0 || keyCount < 0
+                || table.remaining() != costsOffset + (long) keyCount * langCount) {
+            throw new IOException("truncated profile table");
+        }
+
+        languages = new String[langCount];
+        for (int l = 0; l < langCount; l++) {
+            byte[] code = {table.get(16 + 2 * l), table.get(17 + 2 * l)};
+            languages[l] = new String(code, StandardCharsets.US_ASCII);
+        }
+
+        ByteBuffer keyView = table.duplicate();
+        keyView.position(keysOffset).limit(costsOffset);
+        keys = keyView.slice().asIntBuffer();
+
+        ByteBuffer costView = table.duplicate();
+        costView.position(costsOffset);
+        costs = costView.slice();
+    }
+
+    /**
+     * Map the profile table from the app's assets. The asset is stored
+     * uncompressed (noCompress 'bin' in app/build.gradle), so it can be
+     * mapped in place from the APK.
+     */
+    @NonNull
+    public static TrigramLanguageIdentifier load(@NonNull Context context) throws IOException {
+        try (AssetFileDescriptor fd = context.getAssets().openFd(ASSET);
+             FileInputStream in = fd.createInputStream()) {
+            return new TrigramLanguageIdentifier(in.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getDeclaredLength()));
+        }
+    }
+
+    /** Map a profile table file (tests, tools). */
+    @NonNull
+    static TrigramLanguageIdentifier map(@NonNull File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            return new TrigramLanguageIdentifier(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Use an in-memory table (tests, tools). */
+    @NonNull
+    static TrigramLanguageIdentifier wrap(@NonNull ByteBuffer table) throws IOException {
+        return new TrigramLanguageIdentifier(table.slice());
+    }
+
+    /** Language codes in the table. */
+    @NonNull
+    public List<String> languages() {
+        List<String> out = new ArrayList<>(languages.length);
+        Collections.addAll(out, languages);
+        return out;
+    }
+
+    /**
+     * All languages, best first. Only the first MAX_CHARS code points of
+     * text are looked at.
+     */
+    @NonNull
+    public Result identify(@NonNull CharSequence text) {
+        int langCount = languages.length;
+        long[] cost = new long[langCount];
+        int[] known = new int[1];
+
+        forEachTrigram(text, MAX_CHARS, key -> {
+            int row = find(key);
+            if (row < 0) return; // in no profile: no evidence either way
+            known[0]++;
+            int base = row * langCount;
+            for (int l = 0; l < langCount; l++) {
+                cost[l] += costs.get(base + l) & 0xFF;
+            }
+        });
+
+        // Posterior with a uniform prior: softmax of the log-likelihoods
+        long min = Long.MAX_VALUE;
+        for (long c : cost) min = Math.min(min, c);
+        double[] weight = new double[langCount];
+        double sum = 0;
+        for (int l = 0; l < langCount; l++) {
+            weight[l] = Math.exp(-(cost[l] - min) / (double) COST_SCALE);
+            sum += weight[l];
+        }
+
+        List<Candidate> candidates = new ArrayList<>(langCount);
+        for (int l = 0; l < langCount; l++) {
+            candidates.add(new Candidate(languages[l], weight[l] / sum));
+        }
+        Collections.sort(candidates, (a, b) -> Double.compare(b.confidence, a.confidence));
+        return new Result(candidates, known[0]);
+    }
+
+    private int find(int key) {
+        int lo = 0;
+        int hi = keys.limit() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = keys.get(mid);
+            if (k < key) lo = mid + 1;
+            else if (k > key) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // --------------------------------------------------------------------
+    // Result
+    // --------------------------------------------------------------------
+
+    public static final class Candidate {
+        public final String language;
+        public final double confidence;
+
+        Candidate(String language, double confidence) {
+            this.language = language;
+            this.confidence = confidence;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s=%.3f", language, confidence);
+        }
+    }
+
+    public static final class Result {
+        private final List<Candidate> candidates;
+        private final int trigrams;
+
+        Result(List<Candidate> candidates, int trigrams) {
+            this.candidates = Collections.unmodifiableList(candidates);
+            this.trigrams = trigrams;
+        }
+
+        /** Every language, highest confidence first; confidences sum to 1. */
+        @NonNull
+        public List<Candidate> candidates() {
+            return candidates;
+        }
+
+        /** Trigrams found in the table (the evidence behind the ranking). */
+        public int trigrams() {
+            return trigrams;
+        }
+
+        /** Best language, or "und" without any evidence. */
+        @NonNull
+        public String best() {
+            return trigrams == 0 ? "und" : candidates.get(0).language;
+        }
+
+        /** Enough evidence and a clear winner. */
+        public boolean isConfident() {
+            return trigrams >= MIN_TRIGRAMS && candidates.get(0).confidence >= MIN_CONFIDENCE;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Result{" + candidates + ", trigrams=" + trigrams + "}";
+        }
+    }
+
+    // --------------------------------------------------------------------
+    // Trigrams (shared with LanguageProfileBuilder)
+    // --------------------------------------------------------------------
+
+    // Symbols are 10 bits: lowercased Latin (< U+0250), Tamil block, one
+    // symbol for any other letter, and a word boundary
+    static final int BOUNDARY = ' ';
+    private static final int TAMIL_BASE = 0x250;
+    private static final int OTHER_LETTER = 0x2D0;
+    private static final int SKIP = -1;
+
+    static int key(int a, int b, int c) {
+        return (a << 20) | (b << 10) | c;
+    }
+
+    // Digits, punctuation, spaces and emoji are all word boundaries;
+    // combining marks outside Tamil are skipped (NFD accents, emoji selectors)
+    private static int symbol(int cp) {
+        if (TextScan.isTamil(cp)) return TAMIL_BASE + (cp - 0x0B80);
+        if (Character.isLetter(cp)) {
+            int lower = Character.toLowerCase(cp);
+            return lower < TAMIL_BASE ? lower : OTHER_LETTER;
+        }
+        switch (Character.getType(cp)) {
+            case Character.NON_SPACING_MARK:
+            case Character.COMBINING_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+            case Character.FORMAT:
+                return SKIP;
+            default:
+                return BOUNDARY;
+        }
+    }
+
+    /**
+     * Feed the trigram keys of the first maxChars code points of text to
+     * sink, with a word boundary before and after the text and runs of
+     * boundaries collapsed to one.
+     */
+    static void forEachTrigram(CharSequence text, int maxChars, IntConsumer sink) {
+        int a = SKIP;
+        int b = BOUNDARY;
+        int chars = 0;
+        for (int i = 0; i < text.length() && chars < maxChars; chars++) {
+            int cp = Character.codePointAt(text, i);
+            i += Character.charCount(cp);
+
+            int c = symbol(cp);
+            if (c == SKIP || (c == BOUNDARY && b == BOUNDARY)) continue;
+            if (a != SKIP) sink.accept(key(a, b, c));
+            a = b;
+            b = c;
+        }
+        if (b != BOUNDARY) sink.accept(key(a, b, BOUNDARY));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.multilingualchatassistant.ui;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+/**
+ * Single image pipeline for every GIF in the app (preview + history).
+ *
+ *  - Memory cache: Glide's size calculator, capped at two screens of pixels.
+ *  - Disk cache: 64 MB in the app cache dir, keeping the original GIF bytes
+ *    (DATA), so a GIF is downloaded once and re-decoded at whatever size
+ *    the next ImageView needs.
+ *  - Decoded at most at the target view size.
+ */
+@GlideModule
+public final class ChatGlideModule extends AppGlideModule {
+
+    private static final long DISK_CACHE_BYTES = 64L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(2)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, "gifs", DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .diskCacheStrategy(DiskCacheStrategy.DATA)
+                .downsample(DownsampleStrategy.AT_MOST));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
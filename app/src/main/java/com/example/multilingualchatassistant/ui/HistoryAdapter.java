@@ -7,34 +7,79 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
 import com.example.multilingualchatassistant.R;
-import com.example.multilingualchatassistant.data.MessageEntity;
-import com.example.multilingualchatassistant.util.LanguageUtils;
-import com.squareup.picasso.Picasso;
 
-import java.text.DateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+
+/**
+ * Paged history list. Rows come from MessageRepository.getHistoryPages,
+ * mapped to pre-formatted HistoryRows (see HistoryRow.map) and handed in
+ * with submitData(); only loaded pages are held in memory.
+ *
+ * Updates are diffed by id on a background thread (PagingDataAdapter's
+ * AsyncPagingDataDiffer), so a new message only inserts one row. The
+ * GIF-only toggle is a payload bind that flips visibility without
+ * rebinding texts or reloading GIFs, and keeps the scroll position.
+ *
+ * GIFs go through the app's single Glide pipeline (ChatGlideModule): loads
+ * are cleared when a row is recycled, and createPreloader() fetches the
+ * GIFs of the next rows while the user scrolls.
+ */
+public class HistoryAdapter extends PagingDataAdapter<HistoryRow, HistoryAdapter.ViewHolder>
+        implements ListPreloader.PreloadModelProvider<String> {
+
+    private static final int PRELOAD_ROWS = 6;
+
+    // Rows are immutable once saved, so the id identifies the content too
+    private static final DiffUtil.ItemCallback<HistoryRow> DIFF =
+            new DiffUtil.ItemCallback<HistoryRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull HistoryRow a, @NonNull HistoryRow b) {
+                    return a.id == b.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull HistoryRow a, @NonNull HistoryRow b) {
+                    return a.timestamp == b.timestamp && Objects.equals(a.gifUrl, b.gifUrl);
+                }
+            };
+
+    // Partial bind: only row visibility changes, texts and GIF stay as bound
+    private static final Object PAYLOAD_GIF_ONLY_MODE = new Object();
+
+    private final RequestManager glide;
+    private final ViewPreloadSizeProvider<String> preloadSize = new ViewPreloadSizeProvider<>();
 
-public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHolder> {
-
-    private final List<MessageEntity> items = new ArrayList<>();
     private boolean gifOnlyMode = false;
 
-    public void setItems(List<MessageEntity> list) {
-        items.clear();
-        if (list != null) {
-            items.addAll(list);
-        }
-        notifyDataSetChanged();
+    public HistoryAdapter(@NonNull RequestManager glide) {
+        super(DIFF);
+        this.glide = glide;
+    }
+
+    /**
+     * Scroll listener that prefetches GIFs of the rows about to appear.
+     */
+    @NonNull
+    public RecyclerView.OnScrollListener createPreloader() {
+        return new RecyclerViewPreloader<>(glide, this, preloadSize, PRELOAD_ROWS);
     }
 
     public void setGifOnlyMode(boolean enabled) {
+        if (gifOnlyMode == enabled) return;
         this.gifOnlyMode = enabled;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_GIF_ONLY_MODE);
     }
 
     @NonNull
@@ -42,81 +87,89 @@ public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.ViewHold
     public HistoryAdapter.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_message, parent, false);
-        return new ViewHolder(v);
+        ViewHolder holder = new ViewHolder(v);
+        preloadSize.setView(holder.ivGif);
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull HistoryAdapter.ViewHolder holder, int position) {
-        MessageEntity msg = items.get(position);
-
-        // Common stuff
-        String original = msg.originalText != null ? msg.originalText : "";
-        String translated = msg.translatedForUserText != null ? msg.translatedForUserText : "";
-        String replyStyled = msg.replyStyledUserLang != null ? msg.replyStyledUserLang : "";
-        String replySend = msg.replySendText != null ? msg.replySendText : "";
-        String gifUrl = msg.gifUrl;
-
-        String origLangName = LanguageUtils.codeToName(msg.originalLang);
-        String userLangName = LanguageUtils.codeToName(msg.userDisplayLang);
-        String sendLangName = LanguageUtils.codeToName(msg.replySendLang);
-
-        String tone = msg.detectedTone != null ? msg.detectedTone : "unknown";
-        String intent = msg.detectedIntent != null ? msg.detectedIntent : "unknown";
-
-        String timeStr = "";
-        if (msg.timestamp > 0) {
-            DateFormat df = DateFormat.getDateTimeInstance(
-                    DateFormat.SHORT, DateFormat.SHORT);
-            timeStr = df.format(new Date(msg.timestamp));
-        }
-
-        String meta = origLangName + " → " + userLangName;
-        if (sendLangName != null && !sendLangName.isEmpty()) {
-            meta += " → " + sendLangName;
-        }
-        meta += " • tone=" + tone + " • intent=" + intent;
-        if (!timeStr.isEmpty()) {
-            meta += " • " + timeStr;
-        }
-
-        if (gifOnlyMode) {
-            // Show only GIF + minimal meta
-            holder.tvOriginal.setVisibility(View.GONE);
-            holder.tvTranslated.setVisibility(View.GONE);
-            holder.tvReplyUserStyled.setVisibility(View.GONE);
-            holder.tvReplySend.setVisibility(View.GONE);
-
-            holder.tvMeta.setVisibility(View.VISIBLE);
-            holder.tvMeta.setText(meta);
-
-        } else {
-            // Show full text info
-            holder.tvOriginal.setVisibility(View.VISIBLE);
-            holder.tvTranslated.setVisibility(View.VISIBLE);
-            holder.tvReplyUserStyled.setVisibility(View.VISIBLE);
-            holder.tvReplySend.setVisibility(View.VISIBLE);
-            holder.tvMeta.setVisibility(View.VISIBLE);
-
-            holder.tvOriginal.setText("Original (" + origLangName + "): " + original);
-            holder.tvTranslated.setText("For you (" + userLangName + "): " + translated);
-            holder.tvReplyUserStyled.setText("Your reply meaning (" + userLangName + "): " + replyStyled);
-            holder.tvReplySend.setText("Reply to send (" + sendLangName + "): " + replySend);
-            holder.tvMeta.setText(meta);
+    public void onBindViewHolder(@NonNull HistoryAdapter.ViewHolder holder,
+                                 int position,
+                                 @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty() && allModePayloads(payloads)) {
+            applyMode(holder);
+            return;
         }
+        onBindViewHolder(holder, position);
+    }
 
-        if (gifUrl != null && !gifUrl.isEmpty()) {
+    @Override
+    public void onBindViewHolder(@NonNull HistoryAdapter.ViewHolder holder, int position) {
+        HistoryRow row = getItem(position);
+        if (row == null) return; // placeholders are disabled, but the API allows it
+
+        // Texts are bound in both modes, so toggling GIF-only is just visibility
+        holder.tvOriginal.setText(row.originalLabel);
+        holder.tvTranslated.setText(row.translatedLabel);
+        holder.tvReplyUserStyled.setText(row.replyUserLabel);
+        holder.tvReplySend.setText(row.replySendLabel);
+        holder.tvMeta.setText(row.meta);
+        applyMode(holder);
+
+        if (row.gifUrl != null) {
             holder.ivGif.setVisibility(View.VISIBLE);
-            Picasso.get()
-                    .load(gifUrl)
-                    .into(holder.ivGif);
+            gifRequest(row.gifUrl).into(holder.ivGif);
         } else {
+            glide.clear(holder.ivGif);
             holder.ivGif.setVisibility(View.GONE);
         }
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        // Cancel an in-flight download / decode and free the frames
+        glide.clear(holder.ivGif);
+    }
+
+    // --------------------------------------------------------------------
+    // Preloading
+    // --------------------------------------------------------------------
+
+    @NonNull
+    @Override
+    public List<String> getPreloadItems(int position) {
+        // peek() does not trigger page loads
+        HistoryRow row = position < getItemCount() ? peek(position) : null;
+        return row != null && row.gifUrl != null
+                ? Collections.singletonList(row.gifUrl)
+                : Collections.emptyList();
+    }
+
+    @NonNull
+    @Override
+    public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String gifUrl) {
+        return gifRequest(gifUrl);
+    }
+
+    private RequestBuilder<?> gifRequest(String gifUrl) {
+        return glide.asGif().load(gifUrl);
+    }
+
+    private void applyMode(ViewHolder holder) {
+        // GIF-only: show only GIF + minimal meta
+        int textVisibility = gifOnlyMode ? View.GONE : View.VISIBLE;
+        holder.tvOriginal.setVisibility(textVisibility);
+        holder.tvTranslated.setVisibility(textVisibility);
+        holder.tvReplyUserStyled.setVisibility(textVisibility);
+        holder.tvReplySend.setVisibility(textVisibility);
+        holder.tvMeta.setVisibility(View.VISIBLE);
+    }
+
+    private static boolean allModePayloads(List<Object> payloads) {
+        for (Object p : payloads) {
+            if (p != PAYLOAD_GIF_ONLY_MODE) return false;
+        }
+        return true;
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -0,0 +1,89 @@
+package com.example.multilingualchatassistant.ui;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+
+import com.example.multilingualchatassistant.data.MessageEntity;
+import com.example.multilingualchatassistant.util.LanguageUtils;
+
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * HistoryRow
+ *
+ * Display-ready form of one MessageEntity: every label and the meta line
+ * are formatted once, on a background thread, when the page is loaded.
+ * HistoryAdapter's bind then only calls setText / setVisibility.
+ */
+final class HistoryRow {
+
+    // Rows are built on this single thread, which also owns the DateFormat
+    private static final Executor BUILDER = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "history-rows"));
+    private static DateFormat dateFormat;
+    private static Locale dateLocale;
+
+    final int id;
+    final long timestamp;
+    final String gifUrl;
+
+    final String originalLabel;
+    final String translatedLabel;
+    final String replyUserLabel;
+    final String replySendLabel;
+    final String meta;
+
+    private HistoryRow(MessageEntity msg) {
+        id = msg.id;
+        timestamp = msg.timestamp;
+        gifUrl = msg.gifUrl != null && !msg.gifUrl.isEmpty() ? msg.gifUrl : null;
+
+        String origLangName = LanguageUtils.codeToName(msg.originalLang);
+        String userLangName = LanguageUtils.codeToName(msg.userDisplayLang);
+        String sendLangName = LanguageUtils.codeToName(msg.replySendLang);
+
+        originalLabel = "Original (" + origLangName + "): " + orEmpty(msg.originalText);
+        translatedLabel = "For you (" + userLangName + "): " + orEmpty(msg.translatedForUserText);
+        replyUserLabel = "Your reply meaning (" + userLangName + "): " + orEmpty(msg.replyStyledUserLang);
+        replySendLabel = "Reply to send (" + sendLangName + "): " + orEmpty(msg.replySendText);
+
+        StringBuilder sb = new StringBuilder(96)
+                .append(origLangName).append(" → ").append(userLangName);
+        if (sendLangName != null && !sendLangName.isEmpty()) {
+            sb.append(" → ").append(sendLangName);
+        }
+        sb.append(" • tone=").append(msg.detectedTone != null ? msg.detectedTone : "unknown")
+                .append(" • intent=").append(msg.detectedIntent != null ? msg.detectedIntent : "unknown");
+        if (msg.timestamp > 0) {
+            sb.append(" • ").append(formatTime(msg.timestamp));
+        }
+        meta = sb.toString();
+    }
+
+    /**
+     * Convert a page stream of entities into rows, off the main thread.
+     */
+    @NonNull
+    static PagingData<HistoryRow> map(@NonNull PagingData<MessageEntity> pages) {
+        return PagingDataTransforms.map(pages, BUILDER, HistoryRow::new);
+    }
+
+    // BUILDER thread only. Rebuilt if the user changes the device locale.
+    private static String formatTime(long timestamp) {
+        Locale locale = Locale.getDefault();
+        if (dateFormat == null || !locale.equals(dateLocale)) {
+            dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale);
+            dateLocale = locale;
+        }
+        return dateFormat.format(new Date(timestamp));
+    }
+
+    private static String orEmpty(String s) {
+        return s != null ? s : "";
+    }
+}
@@ -34,16 +34,20 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.multilingualchatassistant.R;
-import com.example.multilingualchatassistant.data.AppDatabase;
-import com.example.multilingualchatassistant.data.MessageDao;
+import com.example.multilingualchatassistant.data.GifQueryCache;
 import com.example.multilingualchatassistant.data.MessageEntity;
+import com.example.multilingualchatassistant.data.MessageRepository;
+import com.example.multilingualchatassistant.network.GifPrewarmWorker;
+import com.example.multilingualchatassistant.network.GifRanker;
+import com.example.multilingualchatassistant.network.GifSearch;
 import com.example.multilingualchatassistant.network.GiphyApi;
 import com.example.multilingualchatassistant.network.GiphyResponse;
 import com.example.multilingualchatassistant.network.RetrofitClient;
+import com.example.multilingualchatassistant.nlp.AnalyzedText;
 import com.example.multilingualchatassistant.nlp.IntentDetector;
 import com.example.multilingualchatassistant.nlp.LanguageDetector;
+import com.example.multilingualchatassistant.nlp.LocalNlpModel;
 import com.example.multilingualchatassistant.nlp.ReplyEngine;
-import com.example.multilingualchatassistant.nlp.SlangProcessor;
 import com.example.multilingualchatassistant.nlp.ToneDetector;
 import com.example.multilingualchatassistant.nlp.TranslatorHelper;
 import com.example.multilingualchatassistant.overlay.FloatingBubbleService;
@@ -54,10 +58,6 @@ import com.example.multilingualchatassistant.util.LanguageUtils;
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 public class MainActivity extends AppCompatActivity {
 
     // UI
@@ -74,7 +74,7 @@ public class MainActivity extends AppCompatActivity {
 
     // Database
     private HistoryAdapter adapter;
-    private MessageDao messageDao;
+    private MessageRepository messageRepository;
 
     // Language & tone
     private String detectedOriginalLang = "unknown";
@@ -84,9 +84,19 @@ public class MainActivity extends AppCompatActivity {
     private String lastReplyToSend = "";
     private String lastGifUrl = null;
 
+    // GIF carousel: ranked results of the last search, switched without network
+    private static final int GIF_RESULTS = GifQueryCache.MAX_URLS;
+    private static final int GIF_PREFETCH = 3;
+    private final List<String> gifCarousel = new ArrayList<>();
+    private int gifCarouselIndex = 0;
+
+    // In-flight reply pipeline (cancelled when superseded or on destroy)
+    private ReplyEngine.ReplyRequest pendingReply;
+
     // Giphy
     private GiphyApi giphyApi;
-    private static final String GIPHY_API_KEY = "guZjkLGwI9IGzQSQqiZ0NOdR07hkwBbz";
+    private GifQueryCache gifQueryCache;
+    private GifSearch gifSearch;
 
     // Speech
     private SpeechRecognizer speechRecognizerIncoming;
@@ -108,18 +118,28 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        messageDao = AppDatabase.getInstance(this).messageDao();
-        giphyApi = RetrofitClient.getClient().create(GiphyApi.class);
+        messageRepository = MessageRepository.getInstance(this);
+        giphyApi = RetrofitClient.getClient(this).create(GiphyApi.class);
+        gifSearch = new GifSearch(giphyApi, GiphyApi.API_KEY);
+        gifSearch.setResultLimit(GIF_RESULTS);
+        gifQueryCache = GifQueryCache.getInstance(this);
+        GifPrewarmWorker.schedule(this);
+        TranslatorHelper.enablePersistentCache(this);
+        LanguageDetector.loadProfiles(this);
+        LocalNlpModel.loadModel(this); // no-op unless LocalNlpModel.USE_ML_MODEL
 
         bindViews();
         setupToneSpinner();
         setupSpeechRecognizers();
 
-        adapter = new HistoryAdapter();
+        adapter = new HistoryAdapter(Glide.with(this));
         rvHistory.setLayoutManager(new LinearLayoutManager(this));
         rvHistory.setAdapter(adapter);
+        rvHistory.addOnScrollListener(adapter.createPreloader());
 
-        loadHistory();
+        // Paged from the database in the background; only nearby pages stay loaded
+        messageRepository.getHistoryPages(getLifecycle())
+                .observe(this, pages -> adapter.submitData(getLifecycle(), HistoryRow.map(pages)));
 
         switchGifOnly.setOnCheckedChangeListener(
                 (buttonView, isChecked) -> adapter.setGifOnlyMode(isChecked)
@@ -222,48 +242,32 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
 
-            tvDetectedLanguage.setText("Detecting language...");
             tvTranslatedForUser.setText("...");
 
-            LanguageDetector.detectLanguage(incoming, new LanguageDetector.Callback() {
-                @Override
-                public void onResult(@NonNull String langCode) {
-
-                    detectedOriginalLang = langCode;
-                    String langName = LanguageUtils.codeToName(langCode);
-
-                    runOnUiThread(() ->
-                            tvDetectedLanguage.setText("Detected: " + langName + " (" + langCode + ")")
-                    );
-
-                    String normalized = SlangProcessor.normalizeInput(langCode, incoming);
-
-                    TranslatorHelper.translate(
-                            langCode,
-                            "en",
-                            normalized,
-                            new TranslatorHelper.TranslateCallback() {
-                                @Override
-                                public void onTranslated(@NonNull String translated) {
-                                    runOnUiThread(() -> tvTranslatedForUser.setText(translated));
-                                }
-
-                                @Override
-                                public void onError(@NonNull Exception e) {
-                                    runOnUiThread(() -> tvTranslatedForUser.setText(incoming));
-                                }
-                            });
-                }
+            // Language guess + slang normalisation in the guessed language, once;
+            // both are synchronous, so no callback hop before translating
+            AnalyzedText analyzed = AnalyzedText.of(incoming, null);
+            String langCode = analyzed.detectedLanguage();
+
+            detectedOriginalLang = langCode;
+            tvDetectedLanguage.setText(
+                    "Detected: " + LanguageUtils.codeToName(langCode) + " (" + langCode + ")");
+
+            TranslatorHelper.translate(
+                    langCode,
+                    "en",
+                    analyzed.normalized(),
+                    new TranslatorHelper.TranslateCallback() {
+                        @Override
+                        public void onTranslated(@NonNull String translated) {
+                            runOnUiThread(() -> tvTranslatedForUser.setText(translated));
+                        }
 
-                @Override
-                public void onError(@NonNull Exception e) {
-                    detectedOriginalLang = "unknown";
-                    runOnUiThread(() -> {
-                        tvDetectedLanguage.setText("Detected language: unknown");
-                        tvTranslatedForUser.setText(incoming);
+                        @Override
+                        public void onError(@NonNull Exception e) {
+                            runOnUiThread(() -> tvTranslatedForUser.setText(incoming));
+                        }
                     });
-                }
-            });
         });
     }
 
@@ -282,7 +286,10 @@ public class MainActivity extends AppCompatActivity {
             btnGenerateReply.setEnabled(false);
             btnGenerateReply.setText("Generating...");
 
-            ReplyEngine.generateReplyAsync(
+            if (pendingReply != null) {
+                pendingReply.cancel();
+            }
+            pendingReply = ReplyEngine.generateReplyAsync(
                     incoming,
                     userReply,
                     "en",
@@ -351,25 +358,21 @@ public class MainActivity extends AppCompatActivity {
         msg.gifUrl = gifUrl;
         msg.timestamp = System.currentTimeMillis();
 
-        messageDao.insert(msg);
-        runOnUiThread(this::loadHistory);
-    }
-
-    private void loadHistory() {
-        List<MessageEntity> list = messageDao.getAllMessages();
-        adapter.setItems(list != null ? list : new ArrayList<>());
+        messageRepository.insert(msg);
     }
 
     private void setupClearHistoryButton() {
         btnClearHistory.setOnClickListener(v -> {
-            messageDao.clearAll();
-            loadHistory();
+            messageRepository.clearAll();
             Toast.makeText(this, "History cleared", Toast.LENGTH_SHORT).show();
         });
     }
 
     // --------------- GIF ----------------
     private void setupGifButton() {
+        // Tap the preview → next ranked GIF of the same search (already prefetched)
+        ivGifPreview.setOnClickListener(v -> showNextGif());
+
         btnGenerateGif.setOnClickListener(v -> {
 
             String incoming = etIncoming.getText().toString().trim();
@@ -382,27 +385,23 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
 
-            String incomingNorm =
-                    SlangProcessor.normalizeInput(detectedOriginalLang, incoming);
-            String replyNorm =
-                    SlangProcessor.normalizeInput("en", reply);
+            // Each message is normalised, lowercased and tokenized once;
+            // intent, tone and keywords all read from these
+            AnalyzedText incomingText = AnalyzedText.of(incoming, detectedOriginalLang);
+            AnalyzedText replyText = AnalyzedText.of(reply, "en");
 
-            String intentFromReply = IntentDetector.detectIntent(replyNorm);
-            String intentFromIncoming = IntentDetector.detectIntent(incomingNorm);
+            String intentFromReply = IntentDetector.detectIntent(replyText);
+            String intentFromIncoming = IntentDetector.detectIntent(incomingText);
             String intent = !"unknown".equals(intentFromReply)
                     ? intentFromReply
                     : intentFromIncoming;
 
             String tone = ToneDetector.detectTone(
-                    replyNorm.isEmpty() ? incomingNorm : replyNorm
+                    replyText.normalized().isEmpty() ? incomingText : replyText
             );
 
-            String keywordSourceRaw = reply.isEmpty() ? incoming : reply;
-            String keywordSourceNorm =
-                    SlangProcessor.normalizeInput(
-                            reply.isEmpty() ? detectedOriginalLang : "en",
-                            keywordSourceRaw);
-            String keywords = KeywordExtractor.extractKeywords(keywordSourceNorm, 2);
+            AnalyzedText keywordSource = reply.isEmpty() ? incomingText : replyText;
+            String keywords = KeywordExtractor.extractKeywords(keywordSource, 2);
 
             String primaryQuery = GifQueryBuilder.buildQuery(intent, tone, keywords);
 
@@ -419,96 +418,96 @@ public class MainActivity extends AppCompatActivity {
         btnGenerateGif.setEnabled(false);
         btnGenerateGif.setText("Loading GIF...");
 
-        Call<GiphyResponse> call =
-                giphyApi.searchGifs(GIPHY_API_KEY, primaryQuery, 1, "g");
+        // Most taps map to a handful of queries → try the persistent query cache first
+        gifQueryCache.get(primaryQuery, cachedUrls -> {
+            if (cachedUrls != null) {
+                setGifCarousel(cachedUrls);
+                showGif(cachedUrls.get(0), primaryQuery, intent, tone, incoming, reply);
+            } else {
+                searchGifWithFallback(primaryQuery, intent, tone, incoming, reply);
+            }
+        });
+    }
+
+    private void searchGifWithFallback(String primaryQuery,
+                                       String intent,
+                                       String tone,
+                                       String incoming,
+                                       String reply) {
 
-        call.enqueue(new Callback<GiphyResponse>() {
+        // Primary and intent/tone fallback race; the primary wins if it has a GIF
+        String fallback = GifQueryBuilder.buildFallbackQuery(intent, tone);
+        gifSearch.search(primaryQuery, fallback, new GifSearch.Callback() {
             @Override
-            public void onResponse(@NonNull Call<GiphyResponse> call,
-                                   @NonNull Response<GiphyResponse> response) {
-
-                if (response.isSuccessful()
-                        && response.body() != null
-                        && response.body().data != null
-                        && !response.body().data.isEmpty()) {
-
-                    handleGifSuccess(response.body(), primaryQuery,
-                            intent, tone, incoming, reply);
-
-                } else {
-                    String fallback = GifQueryBuilder.buildFallbackQuery(intent, tone);
-
-                    if (!fallback.equalsIgnoreCase(primaryQuery)) {
-                        giphyApi.searchGifs(GIPHY_API_KEY, fallback, 1, "g")
-                                .enqueue(new Callback<GiphyResponse>() {
-                                    @Override
-                                    public void onResponse(@NonNull Call<GiphyResponse> call,
-                                                           @NonNull Response<GiphyResponse> response2) {
-
-                                        if (response2.isSuccessful()
-                                                && response2.body() != null
-                                                && response2.body().data != null
-                                                && !response2.body().data.isEmpty()) {
-
-                                            handleGifSuccess(response2.body(), fallback,
-                                                    intent, tone, incoming, reply);
-                                        } else {
-                                            onGifNoneFound(primaryQuery);
-                                        }
-                                    }
-
-                                    @Override
-                                    public void onFailure(@NonNull Call<GiphyResponse> call,
-                                                          @NonNull Throwable t) {
-                                        onGifFailure();
-                                    }
-                                });
-                    } else {
-                        onGifNoneFound(primaryQuery);
-                    }
+            public void onFound(@NonNull GiphyResponse response, @NonNull String usedQuery) {
+                List<GifRanker.Candidate> ranked = GifRanker.rank(response, intent, tone);
+                if (ranked.isEmpty()) {
+                    onGifNoneFound(primaryQuery);
+                    return;
+                }
+                List<String> urls = new ArrayList<>(ranked.size());
+                for (GifRanker.Candidate c : ranked) urls.add(c.url);
+                String gifUrl = urls.get(0);
+
+                // Remember the answer for the query we asked, and for the fallback we used
+                gifQueryCache.put(usedQuery, urls);
+                if (!usedQuery.equals(primaryQuery)) {
+                    gifQueryCache.put(primaryQuery, urls);
                 }
+
+                setGifCarousel(urls);
+                showGif(gifUrl, usedQuery, intent, tone, incoming, reply);
+            }
+
+            @Override
+            public void onNoneFound() {
+                onGifNoneFound(primaryQuery);
             }
 
             @Override
-            public void onFailure(@NonNull Call<GiphyResponse> call,
-                                  @NonNull Throwable t) {
+            public void onFailure(@NonNull Throwable t) {
                 onGifFailure();
             }
         });
     }
 
-    private void handleGifSuccess(GiphyResponse body,
-                                  String usedQuery,
-                                  String intent,
-                                  String tone,
-                                  String incoming,
-                                  String reply) {
-
-        btnGenerateGif.setEnabled(true);
-        btnGenerateGif.setText("Generate GIF");
+    private void setGifCarousel(List<String> urls) {
+        gifCarousel.clear();
+        gifCarousel.addAll(urls);
+        gifCarouselIndex = 0;
 
-        if (body.data == null || body.data.isEmpty()) {
-            onGifNoneFound(usedQuery);
-            return;
+        // Download the next few into Glide's disk cache so switching is instant
+        for (int i = 1; i <= GIF_PREFETCH && i < urls.size(); i++) {
+            Glide.with(this).downloadOnly().load(urls.get(i)).submit();
         }
+    }
 
-        GiphyResponse.GifObject gif = body.data.get(0);
+    private void showNextGif() {
+        if (gifCarousel.size() < 2) return;
 
-        String url = null;
-        if (gif.images != null) {
-            if (gif.images.downsizedMedium != null &&
-                    gif.images.downsizedMedium.url != null) {
-                url = gif.images.downsizedMedium.url;
-            } else if (gif.images.original != null &&
-                    gif.images.original.url != null) {
-                url = gif.images.original.url;
-            }
-        }
+        gifCarouselIndex = (gifCarouselIndex + 1) % gifCarousel.size();
+        lastGifUrl = gifCarousel.get(gifCarouselIndex);
+        Glide.with(this)
+                .asGif()
+                .load(lastGifUrl)
+                .into(ivGifPreview);
 
-        if (url == null) {
-            onGifNoneFound(usedQuery);
-            return;
+        // Keep the prefetch window ahead of the user
+        int ahead = gifCarouselIndex + GIF_PREFETCH;
+        if (ahead < gifCarousel.size()) {
+            Glide.with(this).downloadOnly().load(gifCarousel.get(ahead)).submit();
         }
+    }
+
+    private void showGif(String url,
+                         String usedQuery,
+                         String intent,
+                         String tone,
+                         String incoming,
+                         String reply) {
+
+        btnGenerateGif.setEnabled(true);
+        btnGenerateGif.setText("Generate GIF");
 
         lastGifUrl = url;
 
@@ -532,8 +531,7 @@ public class MainActivity extends AppCompatActivity {
         msg.gifUrl = url;
         msg.timestamp = System.currentTimeMillis();
 
-        messageDao.insert(msg);
-        runOnUiThread(this::loadHistory);
+        messageRepository.insert(msg);
 
         Toast.makeText(this,
                 "GIF loaded for: " + usedQuery,
@@ -750,11 +748,21 @@ public class MainActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
 
+        if (pendingReply != null) {
+            pendingReply.cancel();
+            pendingReply = null;
+        }
+
         if (speechRecognizerIncoming != null) {
             speechRecognizerIncoming.destroy();
         }
         if (speechRecognizerReply != null) {
             speechRecognizerReply.destroy();
         }
+
+        // Pooled ML Kit translators survive rotation, but not leaving the app
+        if (isFinishing()) {
+            TranslatorHelper.releaseTranslators();
+        }
     }
 }
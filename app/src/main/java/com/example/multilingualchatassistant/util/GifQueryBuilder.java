@@ -1,5 +1,8 @@
 package com.example.multilingualchatassistant.util;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -13,6 +16,11 @@ import java.util.Locale;
  */
 public class GifQueryBuilder {
 
+    // Every phrase buildFromIntentTone can return (pre-warmed by GifPrewarmWorker)
+    private static final List<String> FALLBACK_PHRASES = Collections.unmodifiableList(Arrays.asList(
+            "hello wave", "thank you", "love heart", "sorry", "congratulations",
+            "funny reaction", "sad reaction", "angry reaction", "happy reaction", "reaction"));
+
     /**
      * Main query builder used by MainActivity.
      *
@@ -40,6 +48,32 @@ public class GifQueryBuilder {
         return buildFromIntentTone(intent, tone);
     }
 
+    /**
+     * The fixed intent/tone phrases, i.e. the queries most taps end up sending.
+     */
+    public static List<String> fallbackPhrases() {
+        return FALLBACK_PHRASES;
+    }
+
+    /**
+     * An {intent, tone} that builds phrase (one of fallbackPhrases()), so
+     * results fetched ahead of time can be ranked like a live search.
+     */
+    public static String[] intentToneFor(String phrase) {
+        switch (phrase) {
+            case "hello wave":      return new String[]{"greeting", "friendly"};
+            case "thank you":       return new String[]{"thanks", "friendly"};
+            case "love heart":      return new String[]{"love", "friendly"};
+            case "sorry":           return new String[]{"apology", "empathetic"};
+            case "congratulations": return new String[]{"congrats", "friendly"};
+            case "funny reaction":  return new String[]{"unknown", "humorous"};
+            case "sad reaction":    return new String[]{"unknown", "sad"};
+            case "angry reaction":  return new String[]{"unknown", "angry"};
+            case "happy reaction":  return new String[]{"unknown", "friendly"};
+            default:                return new String[]{"unknown", "neutral"};
+        }
+    }
+
     // -------------------------------------------------------------
     // Internal helpers
     // -------------------------------------------------------------
@@ -66,31 +100,42 @@ public class GifQueryBuilder {
         return "reaction";
     }
 
+    // Letters (including basic accents) allowed in a query word
+    private static final TextScan.CharSet QUERY_LETTERS =
+            TextScan.CharSet.of("abcdefghijklmnopqrstuvwxyzñáéíóúüçàèìòùâêîôûäëïöü");
+
     /**
      * Keep only letters + spaces, trim, and limit to 3 words max.
      * This guarantees we never leak the full message text.
+     *
+     * One pass, no regex: lowercase each code point, any other char ends
+     * the word, stop when a 4th word would start.
      */
-    private static String sanitizeKeywords(String raw) {
+    static String sanitizeKeywords(String raw) {
         if (raw == null) return "";
 
-        String t = raw.toLowerCase(Locale.ROOT).trim();
-
-        // Letters (including basic accents) + spaces only
-        t = t.replaceAll("[^a-zñáéíóúüçàèìòùâêîôûäëïöü ]", " ");
-        t = t.replaceAll("\\s+", " ").trim();
-
-        if (t.isEmpty()) return "";
-
-        String[] parts = t.split(" ");
         StringBuilder sb = new StringBuilder();
         int count = 0;
-        for (String p : parts) {
-            if (p.isEmpty()) continue;
-            if (count > 0) sb.append(' ');
-            sb.append(p);
-            count++;
-            if (count >= 3) break; // max 3 words
+        boolean inWord = false;
+        for (int i = 0; i < raw.length(); ) {
+            int cp = raw.codePointAt(i);
+            i += Character.charCount(cp);
+
+            // toLowerCase(ROOT) turns 'İ' into "i" + U+0307, which ends the word
+            int lower = cp == '\u0130' ? 'i' : Character.toLowerCase(cp);
+            if (QUERY_LETTERS.contains(lower)) {
+                if (!inWord) {
+                    if (count >= 3) break; // max 3 words
+                    if (count > 0) sb.append(' ');
+                    count++;
+                    inWord = true;
+                }
+                sb.append((char) lower);
+            } else {
+                inWord = false;
+            }
+            if (cp == '\u0130') inWord = false;
         }
-        return sb.toString().trim();
+        return sb.toString();
     }
 }
@@ -1,14 +1,16 @@
 package com.example.multilingualchatassistant.util;
 
+import com.example.multilingualchatassistant.nlp.AnalyzedText;
+import com.example.multilingualchatassistant.nlp.SlangDictionary;
+
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
 
 /**
  * Very small, on-device keyword extractor.
- * - Removes emojis & punctuation
+ * - Works on AnalyzedText tokens (no emojis / punctuation)
  * - Drops stopwords
  * - Keeps 1–2 content words only
  */
@@ -38,13 +40,42 @@ public class KeywordExtractor {
      * Extract up to maxKeywords short keywords.
      */
     public static String extractKeywords(String text, int maxKeywords) {
+        return extractKeywords(text, maxKeywords, null);
+    }
+
+    /**
+     * Same as above, but also skips slang tokens / phrases of the given language
+     * (looked up in the SlangDictionary index), so filler like "ngl" or "no cap"
+     * never ends up in a GIF query. langCode == null → no slang filtering.
+     */
+    public static String extractKeywords(String text, int maxKeywords, String langCode) {
         if (text == null || text.trim().isEmpty()) return "";
+        return extractKeywords(AnalyzedText.ofNormalized(text, langCode), maxKeywords);
+    }
 
-        String normalized = stripEmojisAndPunctuation(text).toLowerCase(Locale.ROOT);
-        String[] parts = normalized.split("\\s+");
+    /**
+     * Keywords from the tokens of an analysed message; slang is skipped for
+     * text.langCode(). Emojis and punctuation never make it into tokens.
+     */
+    public static String extractKeywords(AnalyzedText text, int maxKeywords) {
+        if (text == null || text.isEmpty()) return "";
+
+        List<String> parts = text.tokens();
+        String langCode = text.langCode();
+        SlangDictionary.Index slang = langCode != null ? SlangDictionary.getIndex(langCode) : null;
         List<String> keep = new ArrayList<>();
 
-        for (String p : parts) {
+        for (int i = 0; i < parts.size(); i++) {
+            String p = parts.get(i);
+            if (slang != null) {
+                int slangTokens = slang.phraseLengthAt(parts, i);
+                if (slangTokens > 0) {
+                    i += slangTokens - 1;
+                    continue;
+                }
+            }
+            // Queries never carried apostrophes ("don't" → "dont")
+            p = stripApostrophes(p);
             if (p.length() < 2) continue;
             if (STOP_SET.contains(p)) continue;
             keep.add(p);
@@ -63,24 +94,8 @@ public class KeywordExtractor {
         return sb.toString().trim();
     }
 
-    private static String stripEmojisAndPunctuation(String input) {
-        if (input == null) return "";
-        StringBuilder out = new StringBuilder();
-        int len = input.length();
-        for (int i = 0; i < len; ) {
-            int cp = input.codePointAt(i);
-            if (isEmoji(cp)) {
-                // skip
-            } else if (Character.isLetterOrDigit(cp) || Character.isSpaceChar(cp)) {
-                out.appendCodePoint(cp);
-            } // else skip punctuation
-            i += Character.charCount(cp);
-        }
-        return out.toString();
-    }
-
-    private static boolean isEmoji(int codePoint) {
-        // very rough: anything in emoji blocks
-        return (codePoint >= 0x1F000 && codePoint <= 0x1FAFF);
+    private static String stripApostrophes(String token) {
+        if (token.indexOf('\'') < 0 && token.indexOf('’') < 0) return token;
+        return token.replace("'", "").replace("’", "");
     }
 }
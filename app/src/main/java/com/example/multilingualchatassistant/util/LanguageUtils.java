@@ -10,6 +10,7 @@ public class LanguageUtils {
         if (n.contains("spanish")) return "es";
         if (n.contains("french")) return "fr";
         if (n.contains("tamil")) return "ta";
+        if (n.contains("german")) return "de";
         return "en";
     }
 
@@ -22,6 +23,8 @@ public class LanguageUtils {
                 return "French";
             case "ta":
                 return "Tamil";
+            case "de":
+                return "German";
             default:
                 return "English";
         }
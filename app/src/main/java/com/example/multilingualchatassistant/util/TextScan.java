@@ -0,0 +1,136 @@
+package com.example.multilingualchatassistant.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TextScan
+ *
+ * Regex-free building blocks for the nlp / util text paths, so no hot path
+ * compiles a Pattern per call (String.matches / replaceAll / split do):
+ *  - code-point classes (regex \s, line terminators, emoji and Tamil blocks)
+ *  - a whitespace tokenizer with split("\\s+") semantics
+ *  - CharSet bitmaps for small Latin sets (accents, allowed query chars)
+ *  - matchesPhrase: s.matches("(p1|p2|...)[tail]*") without the regex
+ */
+public final class TextScan {
+
+    private TextScan() {
+    }
+
+    // --------------------------------------------------------------------
+    // Code-point classes
+    // --------------------------------------------------------------------
+
+    /** Regex \s (no UNICODE_CHARACTER_CLASS): [ \t\n\x0B\f\r]. */
+    public static boolean isRegexSpace(int cp) {
+        return cp == ' ' || cp == '\t' || cp == '\n' || cp == 0x0B || cp == '\f' || cp == '\r';
+    }
+
+    /** Chars regex '.' does not match (no DOTALL / UNIX_LINES). */
+    public static boolean isLineTerminator(int cp) {
+        return cp == '\n' || cp == '\r' || cp == 0x85 || cp == 0x2028 || cp == 0x2029;
+    }
+
+    public static boolean hasLineTerminator(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isLineTerminator(s.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    /** Very rough: anything in the emoji blocks U+1F000..U+1FAFF. */
+    public static boolean isEmoji(int cp) {
+        return cp >= 0x1F000 && cp <= 0x1FAFF;
+    }
+
+    /** Tamil block U+0B80..U+0BFF. */
+    public static boolean isTamil(int cp) {
+        return cp >= 0x0B80 && cp <= 0x0BFF;
+    }
+
+    // --------------------------------------------------------------------
+    // Whitespace tokenizer
+    // --------------------------------------------------------------------
+
+    /**
+     * Runs of non-\s chars, i.e. s.trim().split("\\s+") for text without
+     * control chars, and an empty list (not {""}) for blank text.
+     */
+    public static List<String> splitWhitespace(CharSequence s) {
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < s.length(); i++) {
+            if (isRegexSpace(s.charAt(i))) {
+                if (start >= 0) {
+                    out.add(s.subSequence(start, i).toString());
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        if (start >= 0) out.add(s.subSequence(start, s.length()).toString());
+        return out;
+    }
+
+    // --------------------------------------------------------------------
+    // Char sets
+    // --------------------------------------------------------------------
+
+    /** Spanish accents á é í ó ú ñ (lowercase). */
+    public static final CharSet SPANISH_ACCENTS = CharSet.of("áéíóúñ");
+
+    /** French accents à â ä ç é è ê ë î ï ô œ ù û ü ÿ (lowercase). */
+    public static final CharSet FRENCH_ACCENTS = CharSet.of("àâäçéèêëîïôœùûüÿ");
+
+    /**
+     * Immutable set of chars below U+0250 (Basic Latin .. Latin Extended-B)
+     * as a bitmap: one array read per lookup.
+     */
+    public static final class CharSet {
+
+        private static final int LIMIT = 0x250;
+
+        private final long[] bits;
+
+        private CharSet(long[] bits) {
+            this.bits = bits;
+        }
+
+        public static CharSet of(String chars) {
+            long[] bits = new long[(LIMIT + 63) >> 6];
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                if (c >= LIMIT) {
+                    throw new IllegalArgumentException("char outside Latin ranges: " + c);
+                }
+                bits[c >> 6] |= 1L << c;
+            }
+            return new CharSet(bits);
+        }
+
+        public boolean contains(int cp) {
+            return cp >= 0 && cp < LIMIT && (bits[cp >> 6] & (1L << cp)) != 0;
+        }
+
+        /** True if every char of s from index from on is in this set. */
+        public boolean containsAll(CharSequence s, int from) {
+            for (int i = from; i < s.length(); i++) {
+                if (!contains(s.charAt(i))) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * s.matches("(p1|p2|...)[tail]*"): s is one of the phrases followed only
+     * by chars of tail. Phrases are literal, no regex metachars.
+     */
+    public static boolean matchesPhrase(String s, String[] phrases, CharSet tail) {
+        for (String p : phrases) {
+            if (s.startsWith(p) && tail.containsAll(s, p.length())) return true;
+        }
+        return false;
+    }
+}
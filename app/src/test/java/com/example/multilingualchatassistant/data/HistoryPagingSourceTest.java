@@ -0,0 +1,183 @@
+package com.example.multilingualchatassistant.data;
+
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingSource;
+import androidx.paging.PagingState;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Keyset pages over an in-memory MessageDao, and the refresh key that keeps
+ * the page under the viewport after an invalidation.
+ */
+public class HistoryPagingSourceTest {
+
+    private static final int PAGE = 30;
+
+    @Test
+    public void appendThenPrepend_walkTheWholeHistory() throws Exception {
+        FakeDao dao = new FakeDao(100);
+        HistoryPagingSource source = new HistoryPagingSource(dao, Runnable::run);
+
+        PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> top =
+                page(source, new PagingSource.LoadParams.Refresh<>(null, PAGE, false));
+        assertNull(top.getPrevKey());
+        assertEquals(ids(99, 70), ids(top));
+
+        PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> older =
+                page(source, new PagingSource.LoadParams.Append<>(top.getNextKey(), PAGE, false));
+        assertEquals(ids(69, 40), ids(older));
+
+        PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> above =
+                page(source, new PagingSource.LoadParams.Prepend<>(older.getPrevKey(), PAGE, false));
+        assertEquals(ids(99, 70), ids(above));
+    }
+
+    @Test
+    public void refreshKey_isFirstRowOfAnchorPage() throws Exception {
+        FakeDao dao = new FakeDao(200);
+        HistoryPagingSource source = new HistoryPagingSource(dao, Runnable::run);
+
+        List<PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity>> pages = new ArrayList<>();
+        pages.add(page(source, new PagingSource.LoadParams.Refresh<>(null, PAGE, false)));
+        for (int i = 0; i < 4; i++) {
+            HistoryPagingSource.Key next = pages.get(pages.size() - 1).getNextKey();
+            pages.add(page(source, new PagingSource.LoadParams.Append<>(next, PAGE, false)));
+        }
+
+        // Scrolled to row 100 (id 99), in the fourth page (ids 109..80)
+        HistoryPagingSource.Key key = source.getRefreshKey(state(pages, 100));
+        assertNotNull(key);
+
+        // A new message arrives; the refreshed list restarts at that page
+        dao.add(200);
+        HistoryPagingSource refreshed = new HistoryPagingSource(dao, Runnable::run);
+        PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> page =
+                page(refreshed, new PagingSource.LoadParams.Refresh<>(key, PAGE * 2, false));
+        assertEquals(ids(109, 50), ids(page));
+
+        // ...and scrolling up prepends back to the new message
+        PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> above =
+                page(refreshed, new PagingSource.LoadParams.Prepend<>(page.getPrevKey(), PAGE, false));
+        assertEquals(ids(139, 110), ids(above));
+        int top = 0;
+        HistoryPagingSource.Key prev = above.getPrevKey();
+        while (prev != null) {
+            above = page(refreshed, new PagingSource.LoadParams.Prepend<>(prev, PAGE, false));
+            prev = above.getPrevKey();
+            if (!above.getData().isEmpty()) top = above.getData().get(0).id;
+        }
+        assertEquals(200, top);
+    }
+
+    @Test
+    public void refreshKey_nullAtTheTop() throws Exception {
+        HistoryPagingSource source = new HistoryPagingSource(new FakeDao(100), Runnable::run);
+        List<PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity>> pages = new ArrayList<>();
+        pages.add(page(source, new PagingSource.LoadParams.Refresh<>(null, PAGE, false)));
+        pages.add(page(source, new PagingSource.LoadParams.Append<>(pages.get(0).getNextKey(), PAGE, false)));
+
+        assertNull(source.getRefreshKey(state(pages, 5)));
+        assertNull(source.getRefreshKey(state(pages, null)));
+        assertNotNull(source.getRefreshKey(state(pages, 40)));
+    }
+
+    // ---- helpers ----
+
+    @SuppressWarnings("unchecked")
+    private static PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity> page(
+            HistoryPagingSource source,
+            PagingSource.LoadParams<HistoryPagingSource.Key> params) throws Exception {
+        return (PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity>)
+                source.loadFuture(params).get();
+    }
+
+    private static PagingState<HistoryPagingSource.Key, MessageEntity> state(
+            List<PagingSource.LoadResult.Page<HistoryPagingSource.Key, MessageEntity>> pages,
+            Integer anchor) {
+        return new PagingState<>(pages, anchor, new PagingConfig(PAGE), 0);
+    }
+
+    private static List<Integer> ids(PagingSource.LoadResult.Page<?, MessageEntity> page) {
+        List<Integer> out = new ArrayList<>();
+        for (MessageEntity m : page.getData()) out.add(m.id);
+        return out;
+    }
+
+    // from, from - 1, ..., to
+    private static List<Integer> ids(int from, int to) {
+        List<Integer> out = new ArrayList<>();
+        for (int id = from; id >= to; id--) out.add(id);
+        return out;
+    }
+
+    // Rows 0..n-1; two per timestamp, so the id tie-break matters
+    private static final class FakeDao implements MessageDao {
+        private static final Comparator<MessageEntity> NEWEST_FIRST =
+                Comparator.<MessageEntity>comparingLong(m -> m.timestamp).thenComparingInt(m -> m.id).reversed();
+
+        private final List<MessageEntity> rows = new ArrayList<>();
+
+        FakeDao(int n) {
+            for (int id = 0; id < n; id++) add(id);
+        }
+
+        void add(int id) {
+            MessageEntity m = new MessageEntity();
+            m.id = id;
+            m.timestamp = 1_000L + id / 2;
+            rows.add(m);
+        }
+
+        @Override
+        public long insert(MessageEntity message) {
+            rows.add(message);
+            return message.id;
+        }
+
+        @Override
+        public List<MessageEntity> getNewest(int limit) {
+            return select(m -> true, limit, NEWEST_FIRST);
+        }
+
+        @Override
+        public List<MessageEntity> getOlderThan(long timestamp, int id, int limit) {
+            return select(m -> m.timestamp < timestamp || (m.timestamp == timestamp && m.id < id),
+                    limit, NEWEST_FIRST);
+        }
+
+        @Override
+        public List<MessageEntity> getFrom(long timestamp, int id, int limit) {
+            return select(m -> m.timestamp < timestamp || (m.timestamp == timestamp && m.id <= id),
+                    limit, NEWEST_FIRST);
+        }
+
+        @Override
+        public List<MessageEntity> getNewerThan(long timestamp, int id, int limit) {
+            return select(m -> m.timestamp > timestamp || (m.timestamp == timestamp && m.id > id),
+                    limit, NEWEST_FIRST.reversed());
+        }
+
+        @Override
+        public void clearAll() {
+            rows.clear();
+        }
+
+        private List<MessageEntity> select(Predicate<MessageEntity> where,
+                                           int limit, Comparator<MessageEntity> order) {
+            MessageEntity[] sorted = rows.stream().filter(where).toArray(MessageEntity[]::new);
+            Arrays.sort(sorted, order);
+            return new ArrayList<>(Arrays.asList(sorted).subList(0, Math.min(limit, sorted.length)));
+        }
+    }
+}
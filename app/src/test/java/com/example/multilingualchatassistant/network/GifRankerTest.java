@@ -0,0 +1,75 @@
+package com.example.multilingualchatassistant.network;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GifRankerTest {
+
+    private static GiphyResponse parse(String json) {
+        return new Gson().fromJson(json, GiphyResponse.class);
+    }
+
+    private static String gif(String title, String slug, String url, String w, String h, String size) {
+        return "{\"title\":\"" + title + "\",\"slug\":\"" + slug + "\",\"images\":{"
+                + "\"downsized_medium\":{\"url\":\"" + url + "\",\"width\":\"" + w
+                + "\",\"height\":\"" + h + "\",\"size\":\"" + size + "\"}}}";
+    }
+
+    @Test
+    public void parsesRenditionFieldsSentAsStrings() {
+        GiphyResponse r = parse("{\"data\":[" + gif("Hi", "hi-1", "https://g/1.gif", "480", "270", "123456") + "]}");
+
+        GiphyResponse.GifImage image = r.data.get(0).bestRendition();
+        assertEquals(480, image.width);
+        assertEquals(270, image.height);
+        assertEquals(123456L, image.size);
+    }
+
+    @Test
+    public void intentAndToneMatchesRankFirst() {
+        GiphyResponse r = parse("{\"data\":["
+                + gif("Random Cat", "cat-xyz", "https://g/cat.gif", "400", "300", "500000") + ","
+                + gif("Thank You Funny", "thanks-lol", "https://g/thanks.gif", "400", "300", "500000") + ","
+                + gif("Thanks", "thanks", "https://g/plain.gif", "400", "300", "500000")
+                + "]}");
+
+        List<GifRanker.Candidate> ranked = GifRanker.rank(r, "thanks", "humorous");
+
+        assertEquals(3, ranked.size());
+        assertEquals("https://g/thanks.gif", ranked.get(0).url);
+        assertEquals("https://g/plain.gif", ranked.get(1).url);
+        assertEquals("https://g/cat.gif", ranked.get(2).url);
+    }
+
+    @Test
+    public void heavyAndOddShapedGifsDropBehind_tiesKeepGiphyOrder() {
+        GiphyResponse r = parse("{\"data\":["
+                + gif("Big", "big", "https://g/big.gif", "400", "300", "9000000") + ","
+                + gif("Tall", "tall", "https://g/tall.gif", "100", "400", "10000") + ","
+                + gif("A", "a", "https://g/a.gif", "400", "300", "10000") + ","
+                + gif("B", "b", "https://g/b.gif", "400", "300", "10000")
+                + "]}");
+
+        List<GifRanker.Candidate> ranked = GifRanker.rank(r, "unknown", "neutral");
+
+        assertEquals("https://g/a.gif", ranked.get(0).url);
+        assertEquals("https://g/b.gif", ranked.get(1).url);
+        assertEquals("https://g/big.gif", ranked.get(2).url);
+        assertEquals("https://g/tall.gif", ranked.get(3).url);
+    }
+
+    @Test
+    public void gifsWithoutRenditionAreDropped() {
+        GiphyResponse r = parse("{\"data\":[{\"title\":\"x\"},"
+                + gif("Ok", "ok", "https://g/ok.gif", "1", "1", "1") + "]}");
+
+        List<GifRanker.Candidate> ranked = GifRanker.rank(r, null, null);
+        assertEquals(1, ranked.size());
+        assertEquals("https://g/ok.gif", GiphyResponse.firstGifUrl(r));
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.multilingualchatassistant.network;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GifSearchTest {
+
+    private static final String EMPTY = "{\"data\":[]}";
+
+    private MockWebServer server;
+    private okhttp3.Dispatcher calls;
+    private GifSearch search;
+
+    // query -> response, and what the response waits for (orders the race
+    // without relying on delays)
+    private final Map<String, MockResponse> responses = new ConcurrentHashMap<>();
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private final Map<String, CountDownLatch> arrived = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    // Holds a response until the test ends
+    private final CountDownLatch testDone = new CountDownLatch(1);
+
+    private interface Gate {
+        void await() throws InterruptedException;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) throws InterruptedException {
+                String q = request.getRequestUrl().queryParameter("q");
+                requests.computeIfAbsent(q, k -> new AtomicInteger()).incrementAndGet();
+                arrived(q).countDown();
+                Gate gate = gates.get(q);
+                if (gate != null) gate.await();
+                MockResponse r = responses.get(q);
+                return r != null ? r : new MockResponse().setBody(EMPTY);
+            }
+        });
+        server.start();
+
+        calls = new okhttp3.Dispatcher();
+        OkHttpClient client = new OkHttpClient.Builder().dispatcher(calls).build();
+        GiphyApi api = RetrofitClient.create(server.url("/v1/").toString(), client)
+                .create(GiphyApi.class);
+        search = new GifSearch(api, "key");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        testDone.countDown();
+        server.shutdown();
+    }
+
+    private static MockResponse gif(String url) {
+        return new MockResponse()
+                .setBody("{\"data\":[{\"images\":{\"original\":{\"url\":\"" + url + "\"}}}]}");
+    }
+
+    private CountDownLatch arrived(String query) {
+        return arrived.computeIfAbsent(query, k -> new CountDownLatch(1));
+    }
+
+    // Respond to query only once other has reached the server
+    private void respondAfterRequest(String query, String other) {
+        gates.put(query, () -> assertTrue(other + " never requested",
+                arrived(other).await(5, TimeUnit.SECONDS)));
+    }
+
+    private int requests(String query) {
+        AtomicInteger n = requests.get(query);
+        return n == null ? 0 : n.get();
+    }
+
+    private static final class Outcome implements GifSearch.Callback {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicInteger callbacks = new AtomicInteger();
+        volatile String url;
+        volatile String query;
+        volatile Throwable error;
+        volatile boolean none;
+
+        @Override
+        public void onFound(@NonNull GiphyResponse response, @NonNull String usedQuery) {
+            url = GiphyResponse.firstGifUrl(response);
+            query = usedQuery;
+            callbacks.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onNoneFound() {
+            none = true;
+            callbacks.incrementAndGet();
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(@NonNull Throwable t) {
+            error = t;
+            callbacks.incrementAndGet();
+            done.countDown();
+        }
+
+        Outcome await() throws InterruptedException {
+            assertTrue("search timed out", done.await(5, TimeUnit.SECONDS));
+            return this;
+        }
+    }
+
+    @Test
+    public void race_primaryWins_andPendingFallbackIsCancelled() throws Exception {
+        responses.put("cat dance", gif("https://g/primary.gif"));
+        responses.put("happy reaction", gif("https://g/fallback.gif"));
+        // Both requests are out before the primary answers; the fallback never does
+        respondAfterRequest("cat dance", "happy reaction");
+        gates.put("happy reaction", testDone::await);
+
+        Outcome o = new Outcome();
+        search.search("cat dance", "happy reaction", o);
+        o.await();
+
+        assertEquals("https://g/primary.gif", o.url);
+        assertEquals("cat dance", o.query);
+        assertEquals(1, o.callbacks.get());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, requests("cat dance"));
+        assertEquals(1, requests("happy reaction"));
+
+        GifSearch.Stats stats = search.getStats();
+        assertEquals(1, stats.primaryWins);
+        assertEquals(0, stats.fallbackWins);
+        assertEquals(1, stats.cancelledLosers);
+    }
+
+    @Test
+    public void race_fallbackFinishedFirst_primaryStillPreferred() throws Exception {
+        responses.put("cat dance", gif("https://g/primary.gif"));
+        responses.put("happy reaction", gif("https://g/fallback.gif"));
+        // The primary answers only once the fallback call has completed
+        gates.put("cat dance", () -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (calls.runningCallsCount() > 1 && System.nanoTime() < deadline) Thread.sleep(5);
+        });
+
+        Outcome o = new Outcome();
+        search.search("cat dance", "happy reaction", o);
+        o.await();
+
+        assertEquals("https://g/primary.gif", o.url);
+        assertEquals(1, o.callbacks.get());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, search.getStats().primaryWins);
+        assertEquals(0, search.getStats().cancelledLosers);
+    }
+
+    @Test
+    public void race_emptyPrimary_usesFallback_inOneRoundTrip() throws Exception {
+        responses.put("thank you", gif("https://g/thanks.gif"));
+        // Each answer waits for the other request: a sequential search would
+        // never send the fallback and time out
+        respondAfterRequest("qwzx", "thank you");
+        respondAfterRequest("thank you", "qwzx");
+
+        Outcome o = new Outcome();
+        search.search("qwzx", "thank you", o);
+        o.await();
+
+        assertEquals("https://g/thanks.gif", o.url);
+        assertEquals("thank you", o.query);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, requests("qwzx"));
+        assertEquals(1, requests("thank you"));
+
+        GifSearch.Stats stats = search.getStats();
+        assertEquals(1, stats.fallbackWins);
+        assertEquals(1.0, stats.fallbackWinRate(), 1e-9);
+        assertEquals(0, stats.cancelledLosers);
+    }
+
+    @Test
+    public void race_bothEmpty_noneFound() throws Exception {
+        Outcome o = new Outcome();
+        search.search("qwzx", "reaction", o);
+        o.await();
+
+        assertTrue(o.none);
+        assertNull(o.url);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, search.getStats().noneFound);
+    }
+
+    @Test
+    public void sequential_runsFallbackOnlyAfterEmptyPrimary() throws Exception {
+        search.setRaceFallback(false);
+        responses.put("thank you", gif("https://g/thanks.gif"));
+
+        Outcome o = new Outcome();
+        search.search("qwzx", "thank you", o);
+        o.await();
+
+        assertEquals("https://g/thanks.gif", o.url);
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, search.getStats().fallbackWins);
+        assertEquals(0, search.getStats().totalSavedMs);
+    }
+
+    @Test
+    public void resultLimit_isSentWithEverySearch() throws Exception {
+        search.setResultLimit(10);
+        responses.put("thank you", gif("https://g/thanks.gif"));
+
+        Outcome o = new Outcome();
+        search.search("thank you", null, o);
+        o.await();
+
+        assertEquals("10", server.takeRequest().getRequestUrl().queryParameter("limit"));
+    }
+
+    @Test
+    public void sameFallbackAsPrimary_singleRequest() throws Exception {
+        Outcome o = new Outcome();
+        search.search("reaction", "reaction", o);
+        o.await();
+
+        assertTrue(o.none);
+        assertEquals(1, server.getRequestCount());
+    }
+}
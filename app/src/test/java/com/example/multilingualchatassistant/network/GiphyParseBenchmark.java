@@ -0,0 +1,92 @@
+package com.example.multilingualchatassistant.network;
+
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+
+/**
+ * JMH: reflective Gson vs the streaming GiphyResponseConverter on recorded
+ * search payloads. Both read from a ResponseBody, like Retrofit does.
+ *
+ * Allocation per parse comes from the GC profiler (gc.alloc.rate.norm).
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.network.GiphyParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GiphyParseBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @Param({"search_10.json", "search_25.json"})
+    public String payload;
+
+    /** GIFs the app actually asks for (MainActivity.GIF_RESULTS). */
+    @Param({"10"})
+    public int maxResults;
+
+    private byte[] bytes;
+    private Gson gson;
+    private GiphyResponseConverter converter;
+
+    @Setup
+    public void setUp() throws IOException {
+        bytes = GiphyResponseConverterTest.payload(payload).getBytes(StandardCharsets.UTF_8);
+        gson = new Gson();
+        converter = new GiphyResponseConverter(maxResults);
+    }
+
+    @Benchmark
+    public GiphyResponse reflectiveGson() throws IOException {
+        try (ResponseBody body = body()) {
+            return gson.fromJson(body.charStream(), GiphyResponse.class);
+        }
+    }
+
+    @Benchmark
+    public GiphyResponse streaming() throws IOException {
+        return converter.convert(body());
+    }
+
+    // Streams from the byte array like a socket would (pooled okio segments),
+    // so copying the payload does not dominate both numbers
+    private ResponseBody body() {
+        return ResponseBody.create(
+                Okio.buffer(Okio.source(new ByteArrayInputStream(bytes))), JSON, bytes.length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GiphyParseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
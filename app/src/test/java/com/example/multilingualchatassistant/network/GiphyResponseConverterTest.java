@@ -0,0 +1,96 @@
+package com.example.multilingualchatassistant.network;
+
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class GiphyResponseConverterTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    static String payload(String name) throws IOException {
+        try (InputStream in = GiphyResponseConverterTest.class.getResourceAsStream("/giphy/" + name)) {
+            assertNotNull("missing test resource " + name, in);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static GiphyResponse stream(String json, int maxResults) throws IOException {
+        return new GiphyResponseConverter(maxResults).convert(ResponseBody.create(json, JSON));
+    }
+
+    @Test
+    public void recordedPayloads_matchReflectiveGson() throws IOException {
+        for (String name : new String[]{"search_10.json", "search_25.json"}) {
+            String json = payload(name);
+            GiphyResponse expected = new Gson().fromJson(json, GiphyResponse.class);
+            GiphyResponse actual = stream(json, RetrofitClient.MAX_GIF_RESULTS);
+
+            assertEquals(name, expected.data.size(), actual.data.size());
+            for (int i = 0; i < expected.data.size(); i++) {
+                GiphyResponse.GifObject e = expected.data.get(i);
+                GiphyResponse.GifObject a = actual.data.get(i);
+                String at = name + " #" + i;
+                assertEquals(at, e.id, a.id);
+                assertEquals(at, e.title, a.title);
+                assertEquals(at, e.slug, a.slug);
+                assertEquals(at, e.rating, a.rating);
+                assertImage(at + " downsized_medium", e.images.downsizedMedium, a.images.downsizedMedium);
+                assertImage(at + " original", e.images.original, a.images.original);
+            }
+        }
+    }
+
+    @Test
+    public void stopsAfterMaxResults() throws IOException {
+        String json = payload("search_25.json");
+        GiphyResponse full = new Gson().fromJson(json, GiphyResponse.class);
+
+        GiphyResponse r = stream(json, 3);
+
+        assertEquals(3, r.data.size());
+        assertEquals(full.data.get(2).id, r.data.get(2).id);
+    }
+
+    @Test
+    public void toleratesNullsMissingFieldsAndNumericValues() throws IOException {
+        GiphyResponse r = stream("{\"meta\":{\"status\":200},\"data\":["
+                + "{\"id\":null,\"images\":{\"original\":{\"url\":\"https://g/1.gif\",\"width\":480,"
+                + "\"height\":\"\",\"size\":\"123\"},\"downsized_medium\":null}},"
+                + "{\"title\":\"no images\"},"
+                + "7]}", 10);
+
+        assertEquals(2, r.data.size());
+        GiphyResponse.GifObject first = r.data.get(0);
+        assertNull(first.id);
+        assertNull(first.images.downsizedMedium);
+        assertEquals("https://g/1.gif", first.bestRendition().url);
+        assertEquals(480, first.images.original.width);
+        assertEquals(0, first.images.original.height);
+        assertEquals(123L, first.images.original.size);
+        assertNull(r.data.get(1).bestRendition());
+    }
+
+    @Test
+    public void noData_givesNullList() throws IOException {
+        assertNull(stream("{\"meta\":{\"status\":401,\"msg\":\"Unauthorized\"}}", 10).data);
+    }
+
+    private static void assertImage(String at, GiphyResponse.GifImage e, GiphyResponse.GifImage a) {
+        assertEquals(at, e.url, a.url);
+        assertEquals(at, e.width, a.width);
+        assertEquals(at, e.height, a.height);
+        assertEquals(at, e.size, a.size);
+    }
+}
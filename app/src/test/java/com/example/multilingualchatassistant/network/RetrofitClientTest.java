@@ -0,0 +1,131 @@
+package com.example.multilingualchatassistant.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Retrofit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class RetrofitClientTest {
+
+    private static final String BODY =
+            "{\"data\":[{\"images\":{\"original\":{\"url\":\"https://media.example/1.gif\"}}}]}";
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private GiphyApi api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = RetrofitClient.buildHttpClient(tmp.newFolder("http"));
+        Retrofit retrofit = RetrofitClient.create(server.url("/v1/").toString(), client);
+        api = retrofit.create(GiphyApi.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        client.cache().close();
+    }
+
+    private static MockResponse giphyResponse() {
+        // Giphy-like headers: explicitly not cacheable
+        return new MockResponse()
+                .setHeader("Cache-Control", "no-cache, no-store, must-revalidate")
+                .setHeader("Pragma", "no-cache")
+                .setBody(BODY);
+    }
+
+    @Test
+    public void repeatedSearch_isServedFromCache() throws IOException {
+        server.enqueue(giphyResponse());
+
+        GiphyResponse first = api.searchGifs("key", "thank you", 1, "g").execute().body();
+        GiphyResponse second = api.searchGifs("key", "thank you", 1, "g").execute().body();
+
+        assertEquals(1, server.getRequestCount());
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals("https://media.example/1.gif", second.data.get(0).images.original.url);
+        assertEquals(1, client.cache().hitCount());
+    }
+
+    @Test
+    public void streamingParse_stillCachesTheFullBody() throws IOException {
+        // 25 GIFs: the converter stops before meta / pagination
+        server.enqueue(giphyResponse().setBody(GiphyResponseConverterTest.payload("search_25.json")));
+
+        GiphyResponse first = api.searchGifs("key", "thank you", 25, "g").execute().body();
+        GiphyResponse second = api.searchGifs("key", "thank you", 25, "g").execute().body();
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(25, first.data.size());
+        assertEquals(first.data.get(24).id, second.data.get(24).id);
+        assertEquals(1, client.cache().hitCount());
+    }
+
+    @Test
+    public void differentQuery_goesToNetwork() throws IOException {
+        server.enqueue(giphyResponse());
+        server.enqueue(giphyResponse());
+
+        api.searchGifs("key", "thank you", 1, "g").execute();
+        api.searchGifs("key", "hello wave", 1, "g").execute();
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.cache().hitCount());
+    }
+
+    @Test
+    public void errorResponses_areNotCached() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(giphyResponse());
+
+        assertNull(api.searchGifs("key", "hello wave", 1, "g").execute().body());
+        assertNotNull(api.searchGifs("key", "hello wave", 1, "g").execute().body());
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void otherEndpoints_keepServerCacheHeaders() throws IOException {
+        server.enqueue(giphyResponse());
+        server.enqueue(giphyResponse());
+
+        Request request = new Request.Builder().url(server.url("/v1/gifs/trending")).build();
+        try (Response r = client.newCall(request).execute()) {
+            r.body().string();
+        }
+        try (Response r = client.newCall(request).execute()) {
+            r.body().string();
+        }
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void client_hasTimeoutsAndSharedPool() {
+        assertEquals(10_000, client.connectTimeoutMillis());
+        assertEquals(15_000, client.readTimeoutMillis());
+        assertEquals(20_000, client.callTimeoutMillis());
+        assertEquals(RetrofitClient.CACHE_BYTES, client.cache().maxSize());
+    }
+}
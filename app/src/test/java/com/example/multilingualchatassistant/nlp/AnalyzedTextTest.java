@@ -0,0 +1,103 @@
+package com.example.multilingualchatassistant.nlp;
+
+import com.example.multilingualchatassistant.util.KeywordExtractor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * One AnalyzedText must give every detector the same answer as the old
+ * per-detector String paths.
+ */
+public class AnalyzedTextTest {
+
+    private static final String[] LANGUAGE_CASES = {
+            "hola amigo", "¿qué tal?", "¡vamos!", "canción", "CANCIÓN", "mañana\nok",
+            "café", "café\nok", "garçon", "très bien", "bonjour", "MERCI", "gracias\nmerci",
+            "வணக்கம்", "hello வணக்கம்", "hello", "1234", "😂", "  ", "", "İstanbul",
+            "bienvenido\u2028", "élan\u0085", "NAÏVE", "Œuvre", "ÿ", "übung",
+    };
+
+    @Test
+    public void detectedLanguage_matchesLegacyDetector() {
+        for (String text : corpus()) {
+            assertEquals(text, LegacyLanguageDetector.simpleGuess(text),
+                    AnalyzedText.of(text, "en").detectedLanguage());
+        }
+    }
+
+    @Test
+    public void normalizedAndTokens_matchOldPipeline() {
+        for (String lang : new String[]{"en", "es", "fr", "ta", "unknown"}) {
+            for (String text : corpus()) {
+                AnalyzedText a = AnalyzedText.of(text, lang);
+                String expected = SlangProcessor.normalizeInput(lang, text.trim());
+                assertEquals(text, expected, a.normalized());
+                assertEquals(text, SlangDictionary.Index.tokenize(expected), a.tokens());
+            }
+        }
+    }
+
+    @Test
+    public void nullLanguage_normalizesInDetectedLanguage() {
+        AnalyzedText a = AnalyzedText.of("  hola, ¿qué tal?  ", null);
+        assertEquals("es", a.detectedLanguage());
+        assertEquals("es", a.langCode());
+        assertEquals(SlangProcessor.normalizeInput("es", "hola, ¿qué tal?"), a.normalized());
+    }
+
+    @Test
+    public void detectors_matchStringOverloads() {
+        for (String text : corpus()) {
+            AnalyzedText a = AnalyzedText.of(text, "en");
+            String normalized = a.normalized();
+            assertEquals(text, IntentDetector.detectIntent(normalized), IntentDetector.detectIntent(a));
+            assertEquals(text, ToneDetector.detectTone(normalized), ToneDetector.detectTone(a));
+            assertEquals(text, ToneDetector.isLikelyFormal(normalized), ToneDetector.isLikelyFormal(a));
+            assertEquals(text, LocalNlpModel.predictTone(normalized), LocalNlpModel.predictTone(a));
+        }
+    }
+
+    @Test
+    public void codePointClasses() {
+        AnalyzedText a = AnalyzedText.of("Hola 😂😂 வணக்கம் 42!\nok", "en");
+        assertTrue(a.has(AnalyzedText.LATIN));
+        assertTrue(a.has(AnalyzedText.TAMIL));
+        assertTrue(a.has(AnalyzedText.DIGIT));
+        assertTrue(a.has(AnalyzedText.PUNCTUATION));
+        assertTrue(a.has(AnalyzedText.LINE_BREAK));
+        assertTrue(a.hasEmoji());
+        assertEquals(2, a.emojiCount());
+        assertFalse(a.has(AnalyzedText.OTHER_LETTER));
+
+        AnalyzedText empty = AnalyzedText.of(null, "en");
+        assertTrue(empty.isEmpty());
+        assertTrue(empty.tokens().isEmpty());
+        assertEquals("und", empty.detectedLanguage());
+    }
+
+    @Test
+    public void extractKeywords_fromTokens() {
+        assertEquals("pizza tonight",
+                KeywordExtractor.extractKeywords(AnalyzedText.of("Pizza tonight? 🍕🍕", "en"), 2));
+        assertEquals("dont forget",
+                KeywordExtractor.extractKeywords(AnalyzedText.of("I don't forget!", "en"), 2));
+        assertEquals("", KeywordExtractor.extractKeywords(AnalyzedText.of("  ", "en"), 2));
+        assertEquals(KeywordExtractor.extractKeywords(AnalyzedText.ofNormalized("Big party at the beach", "en"), 2),
+                KeywordExtractor.extractKeywords("Big party at the beach", 2, "en"));
+    }
+
+    static List<String> corpus() {
+        List<String> out = new ArrayList<>(Arrays.asList(LANGUAGE_CASES));
+        out.addAll(LocalNlpModelTest.corpus().subList(0, 4_000));
+        out.addAll(ToneDetectorTest.corpus().subList(0, 4_000));
+        return out;
+    }
+}
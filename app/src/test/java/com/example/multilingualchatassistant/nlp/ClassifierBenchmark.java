@@ -0,0 +1,154 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accuracy and latency of the classifier backends. main() prints held-out
+ * accuracy (heuristics vs linear model with fallback, per label, and how
+ * often the int8 weights agree with the float model), then JMH times each
+ * backend on the same messages; *_score is the allocation-free core
+ * without the Prediction object (run with -prof gc to check).
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.ClassifierBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierBenchmark {
+
+    private ClassifierBackend heuristics;
+    private LinearModelBackend linear;
+    private String[] messages;
+    private String[] lowered;
+    private LinearModelBackend.Scorer scorer;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        heuristics = LocalNlpModel.heuristics();
+        linear = LinearModelBackendTest.load();
+        scorer = new LinearModelBackend.Scorer();
+        List<ClassifierTrainer.Example> eval = ClassifierTrainer.read("intent_eval.tsv");
+        eval.addAll(ClassifierTrainer.read("tone_eval.tsv"));
+        messages = new String[eval.size()];
+        lowered = new String[eval.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = eval.get(i).text;
+            lowered[i] = messages[i].toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Benchmark
+    public String intent_heuristic() {
+        return heuristics.predictIntent(messages[next()]).label;
+    }
+
+    @Benchmark
+    public String intent_linear() {
+        return linear.predictIntent(messages[next()]).label;
+    }
+
+    @Benchmark
+    public int intent_score() {
+        return linear.score(scorer, LinearModelBackend.INTENT, messages[next()]);
+    }
+
+    @Benchmark
+    public String tone_heuristic() {
+        return heuristics.predictTone(lowered[next()]).label;
+    }
+
+    @Benchmark
+    public String tone_linear() {
+        return linear.predictTone(lowered[next()]).label;
+    }
+
+    @Benchmark
+    public int tone_score() {
+        return linear.score(scorer, LinearModelBackend.TONE, lowered[next()]);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (cursor + 1) % messages.length;
+        return i;
+    }
+
+    static void printAccuracy() throws IOException {
+        LocalNlpModel.setBackend(LinearModelBackendTest.load());
+        try {
+            System.out.println("task    messages  heuristic  linear+fallback");
+            print("intent", LinearModelBackendTest.accuracy("intent_eval.tsv", false));
+            print("tone", LinearModelBackendTest.accuracy("tone_eval.tsv", true));
+            printPerLabel("intent", ClassifierTrainer.INTENTS, false);
+            printPerLabel("tone", ClassifierTrainer.TONES, true);
+            for (LocalNlpModel.Stats s : LocalNlpModel.getStats()) System.out.println(s);
+        } finally {
+            LocalNlpModel.setBackend(null);
+            LocalNlpModel.resetStats();
+        }
+    }
+
+    private static void print(String task, int[] r) {
+        System.out.println(String.format(Locale.ROOT, "%-6s  %8d  %9d  %15d", task, r[0], r[2], r[1]));
+    }
+
+    // Correct answers per label, plus int8 vs float agreement
+    private static void printPerLabel(String task, String[] labels, boolean tone) throws IOException {
+        ClassifierTrainer.Model floats = ClassifierTrainer.train(
+                labels, ClassifierTrainer.read(task + "_train.tsv"), tone);
+        ClassifierBackend heuristic = LocalNlpModel.heuristics();
+        LinearModelBackend int8 = LinearModelBackendTest.load();
+        List<String> names = Arrays.asList(labels);
+        int[][] counts = new int[labels.length][3]; // messages, heuristic, linear+fallback
+        int agree = 0;
+        List<ClassifierTrainer.Example> eval = ClassifierTrainer.read(task + "_eval.tsv");
+        for (ClassifierTrainer.Example e : eval) {
+            String lower = e.text.toLowerCase(Locale.ROOT);
+            int[] c = counts[names.indexOf(e.label)];
+            c[0]++;
+            String rules = tone ? heuristic.predictTone(lower).label : heuristic.predictIntent(e.text).label;
+            String model = tone ? LocalNlpModel.predictTone(e.text) : LocalNlpModel.predictIntent(e.text);
+            if (rules.equals(e.label)) c[1]++;
+            if (model.equals(e.label)) c[2]++;
+            String quantised = tone ? int8.predictTone(lower).label : int8.predictIntent(e.text).label;
+            if (quantised.equals(floats.predict(e.text))) agree++;
+        }
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-11s messages  heuristic  linear+fallback", task));
+        for (int l = 0; l < labels.length; l++) {
+            System.out.println(String.format(Locale.ROOT, "%-11s %8d  %9d  %15d",
+                    labels[l], counts[l][0], counts[l][1], counts[l][2]));
+        }
+        System.out.println("int8 vs float agreement: " + agree + "/" + eval.size());
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        printAccuracy();
+        new Runner(new OptionsBuilder()
+                .include(ClassifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
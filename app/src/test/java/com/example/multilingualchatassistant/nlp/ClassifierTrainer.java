@@ -0,0 +1,236 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Trains assets/nlp/classifier.bin (see LinearModelBackend for the layout)
+ * from the labelled messages in src/test/resources/classifier.
+ *
+ * Multinomial logistic regression over LinearModelBackend's hashed
+ * features, plain SGD with a fixed seed and StrictMath, then int8
+ * quantisation with one scale per label (largest |weight| maps to 127).
+ * The output is byte-for-byte reproducible, so LinearModelBackendTest can
+ * check that the committed asset matches the training data.
+ *
+ * Regenerate after editing the data (from the app/ directory):
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.ClassifierTrainer
+ */
+final class ClassifierTrainer {
+
+    static final String[] INTENTS = {
+            "greeting", "farewell", "thanks", "apology", "love",
+            "congrats", "hate", "smalltalk", "question", "unknown"
+    };
+    // As documented by ToneDetector.detectTone
+    static final String[] TONES = {
+            "formal", "friendly", "humorous", "empathetic", "casual", "neutral", "angry", "sad"
+    };
+    static final String OUTPUT = "src/main/assets/" + LinearModelBackend.ASSET;
+
+    private static final int HASH_BITS = 12;
+    private static final int EPOCHS = 40;
+    private static final double LEARNING_RATE = 0.2;
+    private static final double L2 = 1e-4;
+    private static final long SEED = 24;
+
+    private ClassifierTrainer() {
+    }
+
+    /** One labelled message. */
+    static final class Example {
+        final String label;
+        final String text;
+
+        Example(String label, String text) {
+            this.label = label;
+            this.text = text;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        File out = new File(args.length > 0 ? args[0] : OUTPUT);
+        byte[] table = build(read("intent_train.tsv"), read("tone_train.tsv"));
+        out.getParentFile().mkdirs();
+        Files.write(out.toPath(), table);
+        System.out.println("Wrote " + table.length + " bytes to " + out);
+    }
+
+    /** Labelled messages from src/test/resources/classifier/name. */
+    static List<Example> read(String name) throws IOException {
+        String path = "/classifier/" + name;
+        try (InputStream in = ClassifierTrainer.class.getResourceAsStream(path)) {
+            if (in == null) throw new IOException("missing " + path);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) bytes.write(buffer, 0, n);
+
+            List<Example> out = new ArrayList<>();
+            for (String line : new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+                if (line.trim().isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\t", 2);
+                out.add(new Example(parts[0], parts[1]));
+            }
+            return out;
+        }
+    }
+
+    static byte[] build(List<Example> intents, List<Example> tones) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(LinearModelBackend.MAGIC);
+        out.writeInt(LinearModelBackend.VERSION);
+        out.writeInt(HASH_BITS);
+        train(INTENTS, intents, false).write(out);
+        train(TONES, tones, true).write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /** The float model before quantisation (for the quantisation-loss report). */
+    static final class Model {
+        final String[] labels;
+        final boolean lower;
+        final double[] bias;
+        final double[] weights;
+
+        Model(String[] labels, boolean lower) {
+            this.labels = labels;
+            this.lower = lower;
+            this.bias = new double[labels.length];
+            this.weights = new double[(1 << HASH_BITS) * labels.length];
+        }
+
+        String predict(String text) {
+            double[] s = bias.clone();
+            for (int h : features(lower ? text.toLowerCase(Locale.ROOT) : text)) {
+                for (int l = 0; l < labels.length; l++) s[l] += weights[h * labels.length + l];
+            }
+            int best = 0;
+            for (int l = 1; l < s.length; l++) if (s[l] > s[best]) best = l;
+            return labels[best];
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            int count = labels.length;
+            out.writeInt(count);
+            int written = 0;
+            for (String label : labels) {
+                byte[] name = label.getBytes(StandardCharsets.US_ASCII);
+                out.writeByte(name.length);
+                out.write(name);
+                written += 1 + name.length;
+            }
+            for (; written % 4 != 0; written++) out.writeByte(0);
+
+            float[] scale = new float[count];
+            for (int l = 0; l < count; l++) {
+                double max = 0;
+                for (int i = l; i < weights.length; i += count) max = Math.max(max, Math.abs(weights[i]));
+                scale[l] = max == 0 ? 1f : (float) (max / 127);
+            }
+            for (double b : bias) out.writeFloat((float) b);
+            for (float sc : scale) out.writeFloat(sc);
+            for (int i = 0; i < weights.length; i++) {
+                long q = Math.round(weights[i] / scale[i % count]);
+                out.writeByte((int) Math.max(-127, Math.min(127, q)));
+            }
+            for (int pad = (4 - weights.length % 4) % 4; pad > 0; pad--) out.writeByte(0);
+        }
+    }
+
+    static Model train(String[] labels, List<Example> examples, boolean lower) {
+        List<String> names = Arrays.asList(labels);
+        int[][] features = new int[examples.size()][];
+        int[] targets = new int[examples.size()];
+        for (int e = 0; e < examples.size(); e++) {
+            Example ex = examples.get(e);
+            targets[e] = names.indexOf(ex.label);
+            if (targets[e] < 0) throw new IllegalArgumentException("unknown label " + ex.label);
+            // predictTone sees lowercased text
+            features[e] = features(lower ? ex.text.toLowerCase(Locale.ROOT) : ex.text);
+        }
+        Model model = new Model(labels, lower);
+        train(features, targets, labels.length, model.bias, model.weights);
+        return model;
+    }
+
+    /** Bucket of every feature of text, repeats included. */
+    static int[] features(String text) {
+        int mask = (1 << HASH_BITS) - 1;
+        List<Integer> out = new ArrayList<>();
+        LinearModelBackend.forEachFeature(text, LinearModelBackend.MAX_CHARS,
+                new LinearModelBackend.FeatureSink() {
+                    @Override
+                    void feature(int hash) {
+                        out.add(hash & mask);
+                    }
+                });
+        int[] f = new int[out.size()];
+        for (int i = 0; i < f.length; i++) f[i] = out.get(i);
+        return f;
+    }
+
+    // SGD on the softmax cross-entropy, L2 on the touched weights
+    private static void train(int[][] features, int[] targets, int labels,
+                              double[] bias, double[] weights) {
+        Integer[] order = new Integer[features.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Random random = new Random(SEED);
+        double[] p = new double[labels];
+
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            double rate = LEARNING_RATE / (1 + 0.1 * epoch);
+            shuffle(order, random);
+            for (int e : order) {
+                int[] f = features[e];
+                for (int l = 0; l < labels; l++) {
+                    double s = bias[l];
+                    for (int h : f) s += weights[h * labels + l];
+                    p[l] = s;
+                }
+                softmax(p);
+                for (int l = 0; l < labels; l++) {
+                    double g = p[l] - (l == targets[e] ? 1 : 0);
+                    bias[l] -= rate * g;
+                    for (int h : f) {
+                        int i = h * labels + l;
+                        weights[i] -= rate * (g + L2 * weights[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void softmax(double[] s) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : s) max = Math.max(max, v);
+        double sum = 0;
+        for (int i = 0; i < s.length; i++) {
+            s[i] = StrictMath.exp(s[i] - max);
+            sum += s[i];
+        }
+        for (int i = 0; i < s.length; i++) s[i] /= sum;
+    }
+
+    // Fisher-Yates with our own Random (Collections.shuffle is not
+    // guaranteed to draw the same numbers on every JDK)
+    private static void shuffle(Integer[] a, Random random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The synchronous detect() core and its executor wrapper; no Looper involved.
+ */
+public class LanguageDetectorTest {
+
+    @Test
+    public void detect_matchesLegacyDetector() {
+        for (String text : AnalyzedTextTest.corpus()) {
+            assertEquals(text, LegacyLanguageDetector.simpleGuess(text), LanguageDetector.detect(text));
+            assertEquals(text, LegacyLanguageDetector.simpleGuess(text),
+                    LanguageDetector.detect(new StringBuilder(text)));
+        }
+        assertEquals("und", LanguageDetector.detect(null));
+    }
+
+    @Test
+    public void detectAsync_runsOnGivenExecutor() {
+        List<String> results = new ArrayList<>();
+        LanguageDetector.Callback callback = new LanguageDetector.Callback() {
+            @Override
+            public void onResult(String languageCode) {
+                results.add(languageCode);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+        LanguageDetector.detectAsync("¿qué tal?", Runnable::run, callback);
+        LanguageDetector.detectAsync("merci beaucoup", Runnable::run, callback);
+        LanguageDetector.detectAsync(null, Runnable::run, callback);
+
+        List<String> expected = new ArrayList<>();
+        expected.add("es");
+        expected.add("fr");
+        expected.add("und");
+        assertEquals(expected, results);
+    }
+
+    @Test
+    public void detect_isThreadSafe() throws Exception {
+        List<String> texts = new ArrayList<>();
+        for (String[] row : TrigramLanguageIdentifierTest.evalSet()) texts.add(row[1]);
+        texts.addAll(AnalyzedTextTest.corpus().subList(0, 2_000));
+
+        LanguageDetector.setIdentifier(TrigramLanguageIdentifierTest.load());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<String> expected = new ArrayList<>();
+            for (String text : texts) expected.add(LanguageDetector.detect(text));
+
+            List<Future<List<String>>> runs = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                runs.add(pool.submit(() -> {
+                    List<String> out = new ArrayList<>();
+                    for (String text : texts) out.add(LanguageDetector.detect(text));
+                    return out;
+                }));
+            }
+            for (Future<List<String>> run : runs) assertEquals(expected, run.get());
+        } finally {
+            pool.shutdownNow();
+            LanguageDetector.setIdentifier(null);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accuracy and throughput of the trigram identifier vs the first-match rules
+ * it replaced. main() prints per-language accuracy on the held-out set
+ * (langid/eval.tsv) before running JMH over the same messages; the
+ * longMessage pair shows the MAX_CHARS cap.
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.LanguageIdBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageIdBenchmark {
+
+    private TrigramLanguageIdentifier identifier;
+    private String[] messages;
+    private String longMessage;
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        identifier = TrigramLanguageIdentifierTest.load();
+        List<String[]> eval = TrigramLanguageIdentifierTest.evalSet();
+        messages = new String[eval.size()];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = eval.get(i)[1];
+            sb.append(messages[i]).append(' ');
+        }
+        longMessage = sb.toString();
+    }
+
+    @Benchmark
+    public String rules() {
+        return LegacyLanguageDetector.simpleGuess(messages[next()]);
+    }
+
+    @Benchmark
+    public String trigrams() {
+        return identifier.identify(messages[next()]).best();
+    }
+
+    @Benchmark
+    public String longMessage_rules() {
+        return LegacyLanguageDetector.simpleGuess(longMessage);
+    }
+
+    @Benchmark
+    public String longMessage_trigrams() {
+        return identifier.identify(longMessage).best();
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (cursor + 1) % messages.length;
+        return i;
+    }
+
+    // ---- Accuracy ----
+
+    static void printAccuracy() throws IOException {
+        TrigramLanguageIdentifier id = TrigramLanguageIdentifierTest.load();
+        // lang -> {messages, rules correct, trigrams correct, confident, confident correct}
+        Map<String, int[]> rows = new LinkedHashMap<>();
+        for (String[] row : TrigramLanguageIdentifierTest.evalSet()) {
+            int[] r = rows.computeIfAbsent(row[0], k -> new int[5]);
+            TrigramLanguageIdentifier.Result result = id.identify(row[1]);
+            boolean right = result.best().equals(row[0]);
+            r[0]++;
+            if (LegacyLanguageDetector.simpleGuess(row[1]).equals(row[0])) r[1]++;
+            if (right) r[2]++;
+            if (result.isConfident()) {
+                r[3]++;
+                if (right) r[4]++;
+            }
+        }
+
+        int[] total = new int[5];
+        System.out.println("lang  messages  rules  trigrams  confident (correct)");
+        for (Map.Entry<String, int[]> e : rows.entrySet()) {
+            print(e.getKey(), e.getValue());
+            for (int i = 0; i < total.length; i++) total[i] += e.getValue()[i];
+        }
+        print("all", total);
+    }
+
+    private static void print(String lang, int[] r) {
+        System.out.println(String.format(Locale.ROOT, "%-4s  %8d  %5d  %8d  %9d (%d)",
+                lang, r[0], r[1], r[2], r[3], r[4]));
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        printAccuracy();
+        new Runner(new OptionsBuilder()
+                .include(LanguageIdBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Builds assets/langid/trigrams.bin (see TrigramLanguageIdentifier for the
+ * layout) from the corpora in src/test/resources/langid/train.
+ *
+ * Per language, the TOP_PER_LANGUAGE most frequent trigrams go into the
+ * shared key column; every language then gets an add-ALPHA smoothed cost for
+ * every key. Output is deterministic, so TrigramLanguageIdentifierTest can check that
+ * the committed asset matches the corpora.
+ *
+ * Regenerate after editing a corpus (from the app/ directory):
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.LanguageProfileBuilder
+ */
+final class LanguageProfileBuilder {
+
+    static final String[] LANGUAGES = {"en", "es", "fr", "ta", "de"};
+    static final String OUTPUT = "src/main/assets/" + TrigramLanguageIdentifier.ASSET;
+
+    private static final int TOP_PER_LANGUAGE = 400;
+    private static final double ALPHA = 0.5;
+
+    private LanguageProfileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File out = new File(args.length > 0 ? args[0] : OUTPUT);
+        byte[] table = build(readCorpora());
+        out.getParentFile().mkdirs();
+        Files.write(out.toPath(), table);
+        System.out.println("Wrote " + table.length + " bytes to " + out);
+    }
+
+    /** Training text per language, from the test resources. */
+    static Map<String, List<String>> readCorpora() throws IOException {
+        Map<String, List<String>> corpora = new LinkedHashMap<>();
+        for (String lang : LANGUAGES) {
+            String name = "/langid/train/" + lang + ".txt";
+            try (InputStream in = LanguageProfileBuilder.class.getResourceAsStream(name)) {
+                if (in == null) throw new IOException("missing " + name);
+                List<String> lines = new ArrayList<>();
+                for (String line : new String(readAll(in), StandardCharsets.UTF_8).split("\n")) {
+                    if (!line.trim().isEmpty() && !line.startsWith("#")) lines.add(line);
+                }
+                corpora.put(lang, lines);
+            }
+        }
+        return corpora;
+    }
+
+    static byte[] build(Map<String, List<String>> corpora) throws IOException {
+        List<String> langs = new ArrayList<>(corpora.keySet());
+
+        // ---- 1) Trigram counts per language ----
+        List<Map<Integer, Integer>> counts = new ArrayList<>();
+        long[] totals = new long[langs.size()];
+        for (int l = 0; l < langs.size(); l++) {
+            Map<Integer, Integer> c = new HashMap<>();
+            for (String line : corpora.get(langs.get(l))) {
+                TrigramLanguageIdentifier.forEachTrigram(line, Integer.MAX_VALUE,
+                        key -> c.merge(key, 1, Integer::sum));
+            }
+            counts.add(c);
+            for (int n : c.values()) totals[l] += n;
+        }
+
+        // ---- 2) Shared keys: each language's most frequent trigrams ----
+        TreeSet<Integer> keys = new TreeSet<>();
+        for (Map<Integer, Integer> c : counts) {
+            List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(c.entrySet());
+            entries.sort((a, b) -> !a.getValue().equals(b.getValue())
+                    ? Integer.compare(b.getValue(), a.getValue())
+                    : Integer.compare(a.getKey(), b.getKey()));
+            for (int i = 0; i < Math.min(TOP_PER_LANGUAGE, entries.size()); i++) {
+                keys.add(entries.get(i).getKey());
+            }
+        }
+
+        // ---- 3) Table ----
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(TrigramLanguageIdentifier.MAGIC);
+        out.writeInt(TrigramLanguageIdentifier.VERSION);
+        out.writeInt(langs.size());
+        out.writeInt(keys.size());
+        for (String lang : langs) {
+            byte[] code = lang.getBytes(StandardCharsets.US_ASCII);
+            if (code.length != 2) throw new IllegalArgumentException("language code must be 2 letters: " + lang);
+            out.write(code);
+        }
+        for (int pad = (4 - (2 * langs.size()) % 4) % 4; pad > 0; pad--) out.writeByte(0);
+        for (int key : keys) out.writeInt(key);
+        for (int key : keys) {
+            for (int l = 0; l < langs.size(); l++) {
+                int n = counts.get(l).getOrDefault(key, 0);
+                double p = (n + ALPHA) / (totals[l] + ALPHA * counts.get(l).size());
+                long cost = Math.round(-StrictMath.log(p) * TrigramLanguageIdentifier.COST_SCALE);
+                out.writeByte((int) Math.min(255, Math.max(0, cost)));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n; (n = in.read(buffer)) > 0; ) out.write(buffer, 0, n);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.util.Locale;
+
+/**
+ * The original containsAny / regex LocalNlpModel.heuristicIntent, kept only
+ * as the reference for parity tests.
+ */
+final class LegacyIntentHeuristic {
+
+    private LegacyIntentHeuristic() {
+    }
+
+    static String heuristicIntent(String text) {
+        String t = text.toLowerCase(Locale.ROOT).trim();
+
+        // ---- Greeting (EN, chat-style) ----
+        if (t.matches("^(hi|hey|hello|yo|sup)[!. ]?.*")
+                || t.contains("good morning")
+                || t.contains("good afternoon")
+                || t.contains("good evening")
+                || t.contains("how are you")
+                || t.contains("what's up")
+                || t.contains("whats up")
+                || t.contains("wyd")
+                || t.contains("wya")) {
+            return "greeting";
+        }
+
+        // ---- Greeting (ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // Spanish
+                "hola", "buenos dias", "buenas noches",
+                // French
+                "salut", "bonsoir", "bonjour",
+                // Tamil
+                "வணக்கம்", "ஹலோ", "vanakkam"
+        })) {
+            return "greeting";
+        }
+
+        // ---- Farewell / bye (EN chat + ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // English
+                "bye", "goodbye", "good night", "see you",
+                "cya", "ttyl", "gtg", "g2g", "talk to you later",
+                // Spanish
+                "adios", "hasta luego", "hasta pronto",
+                // French
+                "à plus", "a plus", "au revoir",
+                // Tamil
+                "போறேன்", "போயிட்டேன்",
+                // Variants
+                "see u"
+        })) {
+            return "farewell";
+        }
+
+        // ---- Thanks (EN / ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // English
+                "thank you", "thanks", "thx", "tysm",
+                "thanks a lot", "appreciate it", "big thanks",
+                "much appreciated",
+                // Spanish
+                "gracias", "muchas gracias",
+                // French
+                "merci", "merci beaucoup",
+                // Tamil
+                "நன்றி", "ரொம்ப நன்றி"
+        })) {
+            return "thanks";
+        }
+
+        // ---- Apology (EN / ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // English
+                "sorry", "my bad", "apologise", "apologize",
+                "i didn’t mean", "i didnt mean",
+                // Spanish
+                "lo siento", "perdón", "disculpa", "disculpe",
+                // French
+                "désolé", "je suis désolé", "pardon",
+                // Tamil
+                "மன்னிச்சு", "மன்னிக்கவும்", "மன்னி"
+        })) {
+            return "apology";
+        }
+
+        // ---- Congrats / celebration (EN / ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // English
+                "congrats", "congratulations",
+                "so proud of you", "proud of you",
+                "well done", "good job", "nice job",
+                "gg", "you smashed it", "you nailed it",
+                // Spanish
+                "felicidades", "enhorabuena",
+                // French
+                "félicitations",
+                // Tamil
+                "வாழ்த்துக்கள்", "ரொம்ப சந்தோஷம்"
+        })) {
+            return "congrats";
+        }
+
+        // ---- Love / affection (EN / ES / FR / TA) ----
+        if (containsAny(t, new String[]{
+                // English
+                "i love you", "love u", "love ya",
+                "i love u", "i luv u",
+                "miss you", "i miss u",
+                "you mean a lot", "you mean the world",
+                "my favorite person", "my favourite person",
+                // Spanish
+                "te amo", "te quiero",
+                // French
+                "je t'aime",
+                // Tamil
+                "நான் உன்னை காதலிக்கிறேன்", "லவ் யூ"
+        })) {
+            return "love";
+        }
+
+        // ---- Hate / anger (extra social intent) ----
+        if (containsAny(t, new String[]{
+                "hate you", "i hate you", "i hate u",
+                "so mad at you", "angry at you", "pissed at you"
+        })) {
+            return "hate";
+        }
+
+        // ---- Question (multilingual) ----
+        boolean looksLikeQuestion =
+                t.endsWith("?") ||
+                        t.contains("?") ||
+                        t.startsWith("can you") ||
+                        t.startsWith("could you") ||
+                        t.startsWith("do you know") ||
+                        t.startsWith("what is") ||
+                        t.startsWith("when is") ||
+                        t.startsWith("where is") ||
+                        t.startsWith("why is") ||
+                        t.startsWith("how do i") ||
+                        t.startsWith("how can i") ||
+                        // Spanish question marks / French words
+                        t.contains("¿") ||
+                        t.contains("quoi") ||
+                        t.contains("pourquoi") ||
+                        // Tamil "how" / "why"
+                        t.contains(" எப்படி") ||  // ta "how"
+                        t.contains(" ஏன்");       // ta "why"
+
+        if (looksLikeQuestion) {
+            return "question";
+        }
+
+        // ---- Smalltalk ----
+        if (containsAny(t, new String[]{
+                "how’s it going", "hows it going",
+                "what are you doing", "long time no see",
+                "wyd", "wya"
+        })) {
+            return "smalltalk";
+        }
+
+        return "unknown";
+    }
+
+    private static boolean containsAny(String text, String[] patterns) {
+        if (text == null || text.isEmpty()) return false;
+        for (String p : patterns) {
+            if (text.contains(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.util.Locale;
+
+/**
+ * The original regex LanguageDetector.simpleGuess, kept only as the
+ * reference for parity tests.
+ */
+final class LegacyLanguageDetector {
+
+    private LegacyLanguageDetector() {
+    }
+
+    static String simpleGuess(String text) {
+        if (text == null || text.trim().isEmpty()) return "und";
+
+        String t = text.trim();
+        String lower = t.toLowerCase(Locale.ROOT);
+
+        // ------------------------------
+        // Tamil detection
+        // ------------------------------
+        for (int i = 0; i < t.length(); i++) {
+            char c = t.charAt(i);
+            if (c >= 0x0B80 && c <= 0x0BFF) {
+                return "ta";
+            }
+        }
+
+        // ------------------------------
+        // Spanish detection
+        // ------------------------------
+
+        // Spanish punctuation
+        if (t.contains("¿") || t.contains("¡")) return "es";
+
+        // Spanish accents á é í ó ú ñ
+        if (lower.matches(".*[áéíóúñ].*")) return "es";
+
+        // Common Spanish keywords
+        if (lower.contains("hola") ||
+                lower.contains("gracias") ||
+                lower.contains("bienvenido")) {
+            return "es";
+        }
+
+        // ------------------------------
+        // French detection
+        // ------------------------------
+
+        // French accents à â ä ç é è ê ë î ï ô œ ù û ü ÿ
+        if (lower.matches(".*[àâäçéèêëîïôœùûüÿ].*")) return "fr";
+
+        // Common French keywords
+        if (lower.contains("bonjour") ||
+                lower.contains("merci")) {
+            return "fr";
+        }
+
+        // ------------------------------
+        // If no clear match, return "und"
+        // NOT "en"
+        // ------------------------------
+        return "und";
+    }
+}
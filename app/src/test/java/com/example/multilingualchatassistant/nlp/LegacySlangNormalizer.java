@@ -0,0 +1,31 @@
+package com.example.multilingualchatassistant.nlp;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The original regex-per-entry SlangProcessor.normalizeInput, kept only as the
+ * reference for parity tests and benchmarks.
+ */
+final class LegacySlangNormalizer {
+
+    private LegacySlangNormalizer() {
+    }
+
+    static String normalizeInput(String langCode, String text) {
+        if (text == null || text.isEmpty()) return text;
+
+        String result = text;
+        List<SlangDictionary.Entry> entries = SlangDictionary.getEntries(langCode);
+
+        for (SlangDictionary.Entry e : entries) {
+            String slang = e.slang;
+            if (slang == null || slang.isEmpty()) continue;
+
+            // word-boundary match, case-insensitive
+            String regex = "\\b" + Pattern.quote(slang) + "\\b";
+            result = result.replaceAll("(?i)" + regex, e.meaning);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.multilingualchatassistant.nlp;
+
+import com.sun.management.ThreadMXBean;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The committed model, held-out accuracy, int8 quantisation loss,
+ * allocation-free scoring, backend swapping, the heuristic fallback and the
+ * per-backend stats.
+ */
+public class LinearModelBackendTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        LocalNlpModel.resetStats();
+    }
+
+    @After
+    public void tearDown() {
+        LocalNlpModel.setBackend(null);
+        LocalNlpModel.resetStats();
+    }
+
+    @Test
+    public void committedModel_matchesTrainingData() throws IOException {
+        // Fails after a data edit until ClassifierTrainer is re-run
+        byte[] trained = ClassifierTrainer.build(
+                ClassifierTrainer.read("intent_train.tsv"), ClassifierTrainer.read("tone_train.tsv"));
+        assertArrayEquals(trained, table());
+    }
+
+    @Test
+    public void labels() throws IOException {
+        LinearModelBackend model = load();
+        assertEquals(Arrays.asList(ClassifierTrainer.INTENTS), model.intentLabels());
+        assertEquals(Arrays.asList(ClassifierTrainer.TONES), model.toneLabels());
+    }
+
+    @Test
+    public void heldOutAccuracy_beatsHeuristics() throws IOException {
+        LocalNlpModel.setBackend(load());
+        int[] intent = accuracy("intent_eval.tsv", false);
+        int[] tone = accuracy("tone_eval.tsv", true);
+
+        assertTrue("intent " + Arrays.toString(intent), intent[1] >= 0.85 * intent[0]);
+        assertTrue("intent " + Arrays.toString(intent), intent[1] > intent[2]);
+        assertTrue("tone " + Arrays.toString(tone), tone[1] >= 0.85 * tone[0]);
+        assertTrue("tone " + Arrays.toString(tone), tone[1] > tone[2]);
+    }
+
+    @Test
+    public void int8Weights_agreeWithFloatModel() throws IOException {
+        LinearModelBackend model = load();
+        String[][] tasks = {{"intent", "false"}, {"tone", "true"}};
+        for (String[] task : tasks) {
+            boolean tone = Boolean.parseBoolean(task[1]);
+            ClassifierTrainer.Model floats = ClassifierTrainer.train(
+                    tone ? ClassifierTrainer.TONES : ClassifierTrainer.INTENTS,
+                    ClassifierTrainer.read(task[0] + "_train.tsv"), tone);
+            List<ClassifierTrainer.Example> eval = ClassifierTrainer.read(task[0] + "_eval.tsv");
+            int agree = 0;
+            for (ClassifierTrainer.Example e : eval) {
+                String int8 = tone
+                        ? model.predictTone(e.text.toLowerCase(Locale.ROOT)).label
+                        : model.predictIntent(e.text).label;
+                if (int8.equals(floats.predict(e.text))) agree++;
+            }
+            assertTrue(task[0] + " " + agree + "/" + eval.size(), agree >= 0.95 * eval.size());
+        }
+    }
+
+    @Test
+    public void slangHits_addFeatures() {
+        // Same shape (one 3-letter word); "thx" / "ngl" are SlangDictionary entries
+        int plain = ClassifierTrainer.features("xqz").length;
+        assertEquals(plain + 2, ClassifierTrainer.features("thx").length);
+        assertEquals(plain + 2, ClassifierTrainer.features("NGL").length);
+    }
+
+    @Test
+    public void scoring_doesNotAllocate() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean);
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        LinearModelBackend model = load();
+        LinearModelBackend.Scorer scorer = new LinearModelBackend.Scorer();
+        List<ClassifierTrainer.Example> eval = ClassifierTrainer.read("intent_eval.tsv");
+        String[] texts = new String[eval.size()];
+        for (int i = 0; i < texts.length; i++) texts[i] = eval.get(i).text;
+
+        int sink = 0;
+        for (int round = 0; round < 200; round++) {
+            for (String text : texts) sink += model.score(scorer, LinearModelBackend.INTENT, text);
+        }
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int round = 0; round < 100; round++) {
+            for (String text : texts) sink += model.score(scorer, LinearModelBackend.TONE, text);
+        }
+        long allocated = threads.getThreadAllocatedBytes(tid) - before;
+        // Well under one byte per call: only the measurement itself allocates
+        assertTrue(allocated + " bytes (" + sink + ")", allocated < 100 * texts.length);
+    }
+
+    @Test
+    public void lowConfidence_fallsBackToHeuristics() {
+        ClassifierBackend unsure = new FixedBackend("unsure", "love", "formal", 0.1f);
+        LocalNlpModel.setBackend(unsure);
+        assertEquals("thanks", LocalNlpModel.predictIntent("thanks a lot"));
+        assertEquals("humorous", LocalNlpModel.predictTone("LOL"));
+
+        LocalNlpModel.setBackend(new FixedBackend("sure", "love", "formal", 0.9f));
+        assertEquals("love", LocalNlpModel.predictIntent("thanks a lot"));
+        assertEquals("formal", LocalNlpModel.predictTone("LOL"));
+
+        // Empty input never reaches a backend
+        assertEquals("unknown", LocalNlpModel.predictIntent("  "));
+        assertEquals("neutral", LocalNlpModel.predictTone(""));
+
+        LocalNlpModel.Stats stats = stats("unsure", "intent");
+        assertEquals(1, stats.calls);
+        assertEquals(1, stats.fallbacks);
+        assertEquals(1, stats.confidenceBuckets[1]);
+        assertEquals(0, stats("sure", "tone").fallbacks);
+    }
+
+    @Test
+    public void backendSwap_andStats() throws IOException {
+        assertSame(LocalNlpModel.heuristics(), LocalNlpModel.getBackend());
+        LinearModelBackend model = load();
+        LocalNlpModel.setBackend(model);
+        assertSame(model, LocalNlpModel.getBackend());
+
+        List<ClassifierTrainer.Example> eval = ClassifierTrainer.read("intent_eval.tsv");
+        for (ClassifierTrainer.Example e : eval) {
+            LocalNlpModel.predictIntent(AnalyzedText.of(e.text, "en"));
+        }
+        LocalNlpModel.setBackend(null);
+        LocalNlpModel.predictIntent("hello");
+
+        LocalNlpModel.Stats linear = stats("linear", "intent");
+        assertEquals(eval.size(), linear.calls);
+        assertEquals(eval.size(), Arrays.stream(linear.latencyBuckets).sum());
+        assertEquals(eval.size(), Arrays.stream(linear.confidenceBuckets).sum());
+        assertTrue(linear.latencyPercentileNs(0.5) > 0);
+        assertTrue(linear.latencyPercentileNs(0.5) <= linear.latencyPercentileNs(0.99));
+
+        LocalNlpModel.Stats heuristic = stats("heuristic", "intent");
+        assertEquals(1, heuristic.calls);
+        assertEquals(1, heuristic.confidenceBuckets[LocalNlpModel.CONFIDENCE_BUCKETS - 1]);
+
+        LocalNlpModel.resetStats();
+        assertTrue(LocalNlpModel.getStats().isEmpty());
+    }
+
+    @Test
+    public void defaultBackend_isHeuristics() {
+        for (String text : LocalNlpModelTest.corpus().subList(0, 2_000)) {
+            assertEquals(text, LegacyIntentHeuristic.heuristicIntent(text), LocalNlpModel.predictIntent(text));
+        }
+    }
+
+    @Test
+    public void mappedFile_sameAsInMemory() throws IOException {
+        File file = tmp.newFile("classifier.bin");
+        Files.write(file.toPath(), table());
+        LinearModelBackend mapped = LinearModelBackend.map(file);
+        LinearModelBackend inMemory = load();
+        for (ClassifierTrainer.Example e : ClassifierTrainer.read("tone_eval.tsv")) {
+            String lower = e.text.toLowerCase(Locale.ROOT);
+            assertEquals(e.text, inMemory.predictTone(lower).toString(), mapped.predictTone(lower).toString());
+            assertEquals(e.text, inMemory.predictIntent(e.text).toString(), mapped.predictIntent(e.text).toString());
+        }
+    }
+
+    @Test
+    public void rejectsBadTables() throws IOException {
+        byte[] good = table();
+        byte[] badMagic = good.clone();
+        badMagic[0] = 'X';
+        byte[] truncated = Arrays.copyOf(good, good.length - 4);
+        byte[] trailing = Arrays.copyOf(good, good.length + 4);
+        for (byte[] bytes : Arrays.asList(badMagic, truncated, trailing, new byte[5])) {
+            try {
+                LinearModelBackend.wrap(ByteBuffer.wrap(bytes));
+                fail("accepted a bad table of " + bytes.length + " bytes");
+            } catch (IOException expected) {
+                // ok
+            }
+        }
+    }
+
+    // ---- helpers (shared with ClassifierBenchmark) ----
+
+    /** {messages, correct with the current backend, correct with heuristics only}. */
+    static int[] accuracy(String evalFile, boolean tone) throws IOException {
+        int[] out = new int[3];
+        ClassifierBackend heuristics = LocalNlpModel.heuristics();
+        for (ClassifierTrainer.Example e : ClassifierTrainer.read(evalFile)) {
+            out[0]++;
+            String predicted = tone ? LocalNlpModel.predictTone(e.text) : LocalNlpModel.predictIntent(e.text);
+            String rules = tone
+                    ? heuristics.predictTone(e.text.toLowerCase(Locale.ROOT)).label
+                    : heuristics.predictIntent(e.text).label;
+            if (predicted.equals(e.label)) out[1]++;
+            if (rules.equals(e.label)) out[2]++;
+        }
+        return out;
+    }
+
+    static LinearModelBackend load() throws IOException {
+        return LinearModelBackend.wrap(ByteBuffer.wrap(table()));
+    }
+
+    private static byte[] table() throws IOException {
+        String name = "/" + LinearModelBackend.ASSET;
+        try (InputStream in = LinearModelBackendTest.class.getResourceAsStream(name)) {
+            if (in == null) throw new IOException("missing " + name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) out.write(buffer, 0, n);
+            return out.toByteArray();
+        }
+    }
+
+    private static LocalNlpModel.Stats stats(String backend, String task) {
+        for (LocalNlpModel.Stats s : LocalNlpModel.getStats()) {
+            if (s.backend.equals(backend) && s.task.equals(task)) return s;
+        }
+        throw new AssertionError("no stats for " + backend + "/" + task);
+    }
+
+    private static final class FixedBackend implements ClassifierBackend {
+        private final String name;
+        private final Prediction intent;
+        private final Prediction tone;
+
+        FixedBackend(String name, String intent, String tone, float confidence) {
+            this.name = name;
+            this.intent = new Prediction(intent, confidence);
+            this.tone = new Prediction(tone, confidence);
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public Prediction predictIntent(String text) {
+            assertNotNull(text);
+            return intent;
+        }
+
+        @Override
+        public Prediction predictTone(String lower) {
+            assertEquals(lower.toLowerCase(Locale.ROOT), lower);
+            return tone;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Golden outputs + parity between the intent automaton and the old
+ * containsAny / regex chain.
+ */
+public class LocalNlpModelTest {
+
+    // Every rule keyword plus near misses and filler
+    private static final String[] FRAGMENTS = {
+            "hi", "hey", "hello", "yo", "sup", "hiking", "super", "young", "oh hi",
+            "good morning", "good afternoon", "good evening", "how are you",
+            "what's up", "whats up", "wyd", "wya",
+            "hola", "buenos dias", "buenas noches", "salut", "bonsoir", "bonjour",
+            "வணக்கம்", "ஹலோ", "vanakkam",
+            "bye", "goodbye", "good night", "see you", "cya", "ttyl", "gtg", "g2g",
+            "talk to you later", "adios", "hasta luego", "hasta pronto",
+            "à plus", "a plus", "au revoir", "போறேன்", "போயிட்டேன்", "see u",
+            "thank you", "thanks", "thx", "tysm", "thanks a lot", "appreciate it",
+            "big thanks", "much appreciated", "gracias", "muchas gracias",
+            "merci", "merci beaucoup", "நன்றி", "ரொம்ப நன்றி",
+            "sorry", "my bad", "apologise", "apologize", "i didn’t mean", "i didnt mean",
+            "lo siento", "perdón", "disculpa", "disculpe", "désolé", "je suis désolé",
+            "pardon", "மன்னிச்சு", "மன்னிக்கவும்", "மன்னி",
+            "congrats", "congratulations", "so proud of you", "proud of you",
+            "well done", "good job", "nice job", "gg", "you smashed it", "you nailed it",
+            "felicidades", "enhorabuena", "félicitations", "வாழ்த்துக்கள்", "ரொம்ப சந்தோஷம்",
+            "i love you", "love u", "love ya", "i love u", "i luv u", "miss you", "i miss u",
+            "you mean a lot", "you mean the world", "my favorite person", "my favourite person",
+            "te amo", "te quiero", "je t'aime", "நான் உன்னை காதலிக்கிறேன்", "லவ் யூ",
+            "hate you", "i hate you", "i hate u", "so mad at you", "angry at you", "pissed at you",
+            "?", "¿", "quoi", "pourquoi", " எப்படி", " ஏன்", "எப்படி", "ஏன்",
+            "can you", "could you", "do you know", "what is", "when is", "where is",
+            "why is", "how do i", "how can i",
+            "how’s it going", "hows it going", "what are you doing", "long time no see",
+            // filler
+            "the", "meeting", "is", "at", "noon", "ok", "😂", "café", "!", ".", "İstanbul",
+            "Σ", "DİSCULPA", " ", "\r\n", "\t"
+    };
+
+    private static final String[] SEPARATORS = {" ", "", ", ", "! ", ". ", "\n", "  ", "\t"};
+
+    @Test
+    public void predictIntent_goldenExamples() {
+        String[][] golden = {
+                {"Hey there!", "greeting"},
+                {"hiking this weekend", "greeting"},         // old regex: prefix only
+                {"hiking\nthis weekend", "unknown"},         // '.' stops at the line break
+                {"hi\nthanks for yesterday", "thanks"},
+                {"  Good Morning team", "greeting"},
+                {"see you tomorrow, thanks!", "farewell"},   // farewell outranks thanks
+                {"THANK YOU so much", "thanks"},
+                {"lo siento mucho", "apology"},
+                {"GG well played", "congrats"},
+                {"te quiero mucho", "love"},
+                {"i hate you", "hate"},
+                {"can you send it", "question"},
+                {"so, can you send it", "unknown"},          // startsWith only
+                {"is it ready?", "question"},
+                {"எப்படி இருக்கீங்க", "unknown"},             // needs the leading space
+                {"நீங்க எப்படி", "question"},
+                {"long time no see", "smalltalk"},
+                {"wyd", "greeting"},                         // greeting rule comes first
+                {"the meeting is at noon", "unknown"},
+                {"   ", "unknown"},
+        };
+        for (String[] g : golden) {
+            assertEquals(g[0], g[1], LocalNlpModel.predictIntent(g[0]));
+        }
+    }
+
+    @Test
+    public void predictIntent_matchesLegacyHeuristic() {
+        for (String text : corpus()) {
+            assertEquals(text, LegacyIntentHeuristic.heuristicIntent(text),
+                    LocalNlpModel.predictIntent(text));
+        }
+    }
+
+    // Each fragment alone (several casings / paddings) + random mixes
+    static List<String> corpus() {
+        List<String> out = new ArrayList<>();
+        for (String f : FRAGMENTS) {
+            out.add(f);
+            out.add(f.toUpperCase(Locale.ROOT));
+            out.add(" " + f + " ");
+            out.add(f + "\nok");
+            out.add("well " + f + "!");
+            out.add(f.replace('i', 'İ'));
+        }
+
+        Random random = new Random(18);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextInt(4) == 0) sb.append(random.nextBoolean() ? "  " : "\n");
+            int parts = 1 + random.nextInt(4);
+            for (int p = 0; p < parts; p++) {
+                if (p > 0) sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+                String f = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                switch (random.nextInt(5)) {
+                    case 0:
+                        f = f.toUpperCase(Locale.ROOT);
+                        break;
+                    case 1:
+                        f = f.isEmpty() ? f : Character.toUpperCase(f.charAt(0)) + f.substring(1);
+                        break;
+                    default:
+                        break;
+                }
+                sb.append(f);
+            }
+            if (random.nextInt(4) == 0) sb.append(random.nextBoolean() ? "?" : " ");
+            out.add(sb.toString());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.multilingualchatassistant.nlp;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * generateRepliesBatch with the threads and the per-pair translator
+ * swapped for plain executors and a fake, so no Looper / ML Kit is needed.
+ */
+public class ReplyEngineTest {
+
+    private ExecutorService worker;
+    private ExecutorService main;
+
+    @Before
+    public void setUp() {
+        // One worker, so a batch's pairs are requested in order with nothing in between
+        worker = Executors.newSingleThreadExecutor();
+        main = Executors.newSingleThreadExecutor();
+        ReplyEngine.setThreads(worker, main);
+        // Like TranslatorHelper: a real pair answers later on main, an
+        // untranslatable one at once on the calling (worker) thread. The main
+        // answer is held back until then, so both pairs finish together.
+        AtomicReference<CountDownLatch> bothAsked = new AtomicReference<>();
+        ReplyEngine.setPairTranslator((src, tgt, texts, callback) -> {
+            if (!tgt.equals("es")) {
+                bothAsked.get().countDown();
+                callback.onTranslated(new ArrayList<>(texts));
+                return;
+            }
+            CountDownLatch latch = new CountDownLatch(1);
+            bothAsked.set(latch);
+            main.execute(() -> {
+                List<String> out = new ArrayList<>();
+                for (String text : texts) out.add("ES:" + text);
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                callback.onTranslated(out);
+            });
+        });
+    }
+
+    @After
+    public void tearDown() {
+        ReplyEngine.setThreads(null, null);
+        ReplyEngine.setPairTranslator(null);
+        worker.shutdownNow();
+        main.shutdownNow();
+    }
+
+    @Test
+    public void mixedBatch_deliversOnceInInputOrder() throws InterruptedException {
+        List<ReplyEngine.ReplyInput> inputs = Arrays.asList(
+                input("en", "es"),   // ML Kit pair: called back on main
+                input("en", "en"),   // same language, resolved locally
+                input("en", "xx"),   // no ML Kit model: called back on the worker
+                input("en", "es"));
+
+        int rounds = 2_000;
+        CountDownLatch done = new CountDownLatch(rounds);
+        AtomicInteger deliveries = new AtomicInteger();
+        List<List<ReplyEngine.ReplyResult>> results = new ArrayList<>();
+        List<ReplyEngine.BatchTiming> timings = new ArrayList<>();
+        for (int round = 0; round < rounds; round++) {
+            ReplyEngine.generateRepliesBatch(inputs, new ReplyEngine.BatchCallback() {
+                @Override
+                public void onRepliesReady(@NonNull List<ReplyEngine.ReplyResult> replies,
+                                           @NonNull ReplyEngine.BatchTiming timing) {
+                    synchronized (results) {
+                        results.add(replies);
+                        timings.add(timing);
+                    }
+                    deliveries.incrementAndGet();
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(@NonNull Exception e) {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+        assertTrue("batches stuck: " + done.getCount(), done.await(30, TimeUnit.SECONDS));
+        // Let any second delivery of a batch land before counting
+        worker.shutdown();
+        assertTrue(worker.awaitTermination(10, TimeUnit.SECONDS));
+        main.shutdown();
+        assertTrue(main.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(rounds, deliveries.get());
+
+        for (List<ReplyEngine.ReplyResult> replies : results) {
+            assertEquals(4, replies.size());
+            assertEquals("es", replies.get(0).sendLangCode);
+            assertTrue(replies.get(0).replyToSend, replies.get(0).replyToSend.startsWith("ES:"));
+            assertEquals("en", replies.get(1).sendLangCode);
+            assertEquals("xx", replies.get(2).sendLangCode);
+            assertEquals(replies.get(2).replyUserMeaning, replies.get(2).replyToSend);
+            assertTrue(replies.get(3).replyToSend, replies.get(3).replyToSend.startsWith("ES:"));
+        }
+        for (ReplyEngine.BatchTiming timing : timings) {
+            assertEquals(4, timing.messages);
+            assertEquals(2, timing.translatorPairs);
+        }
+    }
+
+    private static ReplyEngine.ReplyInput input(String userLang, String sendLang) {
+        return new ReplyEngine.ReplyInput("are you coming tonight",
+                "the train leaves at seven from the north station", userLang, sendLang, "neutral");
+    }
+}
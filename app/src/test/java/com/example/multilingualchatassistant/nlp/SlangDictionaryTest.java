@@ -0,0 +1,53 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SlangDictionaryTest {
+
+    @Test
+    public void index_isBuiltOncePerLanguage() {
+        assertSame(SlangDictionary.getIndex("fr"), SlangDictionary.getIndex("fr"));
+        // Unknown codes share the EN index, like getEntries
+        assertSame(SlangDictionary.getIndex("en"), SlangDictionary.getIndex("und"));
+    }
+
+    @Test
+    public void meaningOf_tokensAndPhrases() {
+        SlangDictionary.Index en = SlangDictionary.getIndex("en");
+        assertEquals("be right back", en.meaningOf("BRB"));
+        assertEquals("I'm not lying", en.meaningOf("no   cap"));
+        assertNull(en.meaningOf("capital"));
+
+        SlangDictionary.Index fr = SlangDictionary.getIndex("fr");
+        assertEquals("it's not great", fr.meaningOf("C'est pas ouf"));
+    }
+
+    @Test
+    public void phraseLengthAt_prefersLongestPhrase() {
+        SlangDictionary.Index en = SlangDictionary.getIndex("en");
+        List<String> tokens = Arrays.asList("no", "cap", "bro");
+        assertEquals(2, en.phraseLengthAt(tokens, 0));
+        assertEquals(1, en.phraseLengthAt(tokens, 1));
+        assertEquals(1, en.phraseLengthAt(tokens, 2));
+
+        SlangDictionary.Index de = SlangDictionary.getIndex("de");
+        assertEquals(4, de.phraseLengthAt(
+                SlangDictionary.Index.tokenize("Läuft bei dir nicht, oder?"), 0));
+    }
+
+    @Test
+    public void containsSlang_matchesWholeTokensOnly() {
+        SlangDictionary.Index en = SlangDictionary.getIndex("en");
+        assertTrue(en.containsSlang("ok ngl that was fire"));
+        assertFalse(en.containsSlang("a little capital"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: old regex-per-entry normalisation vs the single-pass SlangMatcher.
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.SlangNormalizeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlangNormalizeBenchmark {
+
+    @Param({"en", "es", "fr", "de", "ta"})
+    public String lang;
+
+    private String[] messages;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        messages = SlangProcessorTest.corpus(lang).toArray(new String[0]);
+        // Build the automaton outside the measured loop
+        SlangProcessor.normalizeInput(lang, "warm up");
+    }
+
+    @Benchmark
+    public String legacyRegexLoop() {
+        return LegacySlangNormalizer.normalizeInput(lang, nextMessage());
+    }
+
+    @Benchmark
+    public String automaton() {
+        return SlangProcessor.normalizeInput(lang, nextMessage());
+    }
+
+    private String nextMessage() {
+        String m = messages[cursor];
+        cursor = (cursor + 1) % messages.length;
+        return m;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlangNormalizeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
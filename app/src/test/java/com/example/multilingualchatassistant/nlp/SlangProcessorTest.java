@@ -0,0 +1,94 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Parity between the single-pass slang automaton and the old regex loop.
+ */
+public class SlangProcessorTest {
+
+    private static final String[] LANGS = {"en", "es", "fr", "de", "ta", "und"};
+
+    private static final String[] FILLER = {
+            "hey", "so", "that", "is", "really", "ok", "you", "the", "and",
+            "😂", "!", "?", ",", ".", "-", "'", "_", "123", "café", "வணக்கம்"
+    };
+
+    @Test
+    public void normalizeInput_basicExamples() {
+        assertEquals("be right back, laughing out loud",
+                SlangProcessor.normalizeInput("en", "brb, LOL"));
+        assertEquals("I'm not lying you are great",
+                SlangProcessor.normalizeInput("en", "no cap u are great"));
+        // Inside a longer word → untouched
+        assertEquals("capital", SlangProcessor.normalizeInput("en", "capital"));
+    }
+
+    @Test
+    public void normalizeInput_noSlangReturnsSameInstance() {
+        String text = "Nothing to replace here";
+        assertSame(text, SlangProcessor.normalizeInput("en", text));
+    }
+
+    @Test
+    public void normalizeInput_matchesLegacyRegexLoop() {
+        for (String lang : LANGS) {
+            for (String text : corpus(lang)) {
+                assertEquals(lang + ": " + text,
+                        LegacySlangNormalizer.normalizeInput(lang, text),
+                        SlangProcessor.normalizeInput(lang, text));
+            }
+        }
+    }
+
+    // Every entry in a few contexts + random mixes of slang, meanings and filler
+    static List<String> corpus(String lang) {
+        List<SlangDictionary.Entry> entries = SlangDictionary.getEntries(lang);
+        List<String> words = new ArrayList<>();
+        for (SlangDictionary.Entry e : entries) {
+            words.add(e.slang);
+            words.add(e.meaning);
+            if (isAscii(e.slang)) {
+                words.add(e.slang.toUpperCase(Locale.ROOT));
+            }
+        }
+        for (String f : FILLER) words.add(f);
+
+        List<String> out = new ArrayList<>();
+        for (SlangDictionary.Entry e : entries) {
+            out.add(e.slang);
+            out.add("hey " + e.slang + "!");
+            out.add(e.slang + " " + e.slang);
+            out.add("x" + e.slang + " " + e.slang + "x");
+            out.add("(" + e.slang + ")" + e.slang + "_");
+        }
+
+        Random random = new Random(42);
+        String[] separators = {" ", " ", " ", "", ", ", "!", "-", "'"};
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = 1 + random.nextInt(8);
+            for (int w = 0; w < n; w++) {
+                if (w > 0) sb.append(separators[random.nextInt(separators.length)]);
+                sb.append(words.get(random.nextInt(words.size())));
+            }
+            out.add(sb.toString());
+        }
+        return out;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TemplateCatalogTest {
+
+    private static final String[] INTENTS = {"greeting", "thanks", "apology", "congrats", "love"};
+    private static final String[] TONES = {
+            "formal", "humorous", "empathetic", "casual", "friendly", "neutral", "angry", "sad"
+    };
+
+    @Test
+    public void catalog_coversEveryTemplateAndLanguage() {
+        for (String intent : INTENTS) {
+            for (String tone : TONES) {
+                String key = StyleEngine.templateKey("hi", "en", tone, intent);
+                assertNotNull(intent + "/" + tone, key);
+                for (String lang : new String[]{"es", "fr", "ta", "de"}) {
+                    assertNotNull(key + " " + lang, TemplateCatalog.lookup(key, lang));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void catalog_matchesStyleEngineForEsAndFr() {
+        for (String intent : INTENTS) {
+            for (String tone : TONES) {
+                String key = StyleEngine.templateKey("hi", "en", tone, intent);
+                for (String lang : new String[]{"es", "fr"}) {
+                    assertEquals(key + " " + lang,
+                            StyleEngine.styleReply("hi", lang, tone, intent),
+                            TemplateCatalog.lookup(key, lang));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void templateKey_nullForNonTemplatedReplies() {
+        assertNull(StyleEngine.templateKey("see you", "en", "casual", "farewell"));
+        // Only EN / ES / FR replies are templated
+        assertNull(StyleEngine.templateKey("nandri", "ta", "casual", "thanks"));
+        // Unknown intent but a plain greeting → greeting template
+        assertEquals("greeting.neutral", StyleEngine.templateKey("Hello!", "en", "neutral", "unknown"));
+    }
+
+    @Test
+    public void lookup_acceptsRegionCodesAndRejectsUnknown() {
+        assertEquals(TemplateCatalog.lookup("thanks.neutral", "es"),
+                TemplateCatalog.lookup("thanks.neutral", "es-419"));
+        assertNull(TemplateCatalog.lookup("thanks.neutral", "en"));
+        assertNull(TemplateCatalog.lookup("farewell.neutral", "es"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: old multi-pass ToneDetector vs the single-pass feature extractor.
+ * Allocation per message comes from the GC profiler (gc.alloc.rate.norm).
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.nlp.ToneDetectBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToneDetectBenchmark {
+
+    private String[] messages;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        messages = ToneDetectorTest.corpus().toArray(new String[0]);
+    }
+
+    @Benchmark
+    public String legacyMultiPass() {
+        return LegacyToneDetector.detectTone(nextMessage());
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return ToneDetector.detectTone(nextMessage());
+    }
+
+    private String nextMessage() {
+        String m = messages[cursor];
+        cursor = (cursor + 1) % messages.length;
+        return m;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ToneDetectBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Golden outputs + parity between the single-pass feature extractor and
+ * the old multi-pass ToneDetector.
+ */
+public class ToneDetectorTest {
+
+    private static final String[] FRAGMENTS = {
+            // keywords
+            "great", "love", "thank you", "thanks", "muy bien", "super", "génial", "நன்றி",
+            "hate", "tired", "can't deal", "fed up", "odio", "je déteste", "fatigué", "கோபம்",
+            "sorry", "my bad", "i apologize", "lo siento", "désolé", "மன்னிச்சு",
+            "i'm here for you", "take your time", "je suis là pour toi",
+            "lol", "haha", "funny", "jaja", "mdr",
+            "please", "could you", "regarding", "best regards", "por favor", "cordialement",
+            "s'il vous plaît", "veuillez trouver ci-joint",
+            // slang markers and near misses
+            "bro", "dude", "no cap", "no", "cap", "fr", "lit", "little", "sup", "gonna",
+            "tío", "chévere", "wesh", "machan", "da", "dei", "bro's", "l'it", "no'cap",
+            // shape
+            "😂", "🙏", "❤️", "!", "?", "...", "WOW", "OK", "NICE!", "HATE", "ÉCOLE", "STRASSE",
+            "STRAßE", "İSTANBUL", "ABC DEF", "A\u0085BC", "Σ", "x'y", "'", "’", "_",
+            "hello", "world", "the", "meeting", "is", "at", "noon", "and", "it", "was",
+            "a really long sentence that goes on for a while", "\n", "\t"
+    };
+
+    private static final String[] SEPARATORS = {" ", "", ", ", "! ", ". ", "\n", "  ", "'", " "};
+
+    @Test
+    public void detectTone_goldenExamples() {
+        String[][] golden = {
+                {"I would appreciate it if you could send the report regarding the budget.", "formal"},
+                {"I HATE this, it's the worst", "angry"},
+                {"so tired and disappointed today", "sad"},
+                {"sorry about that", "empathetic"},
+                {"lol that's hilarious 😂", "humorous"},
+                {"bro that was lit", "casual"},
+                {"this is a little thing", "neutral"},   // "lit" only as a whole token
+                {"thanks, that's great", "friendly"},
+                {"no cap", "casual"},
+                {"   ", "neutral"},
+        };
+        for (String[] g : golden) {
+            assertEquals(g[0], g[1], ToneDetector.detectTone(g[0]));
+        }
+    }
+
+    @Test
+    public void detectTone_matchesLegacyDetector() {
+        for (String text : corpus()) {
+            assertEquals(text, LegacyToneDetector.detectTone(text), ToneDetector.detectTone(text));
+            assertEquals(text, LegacyToneDetector.isLikelyFormal(text), ToneDetector.isLikelyFormal(text));
+        }
+    }
+
+    // Each fragment alone (several casings / paddings) + random mixes
+    static List<String> corpus() {
+        List<String> out = new ArrayList<>();
+        for (String f : FRAGMENTS) {
+            out.add(f);
+            out.add(f.toUpperCase(Locale.ROOT));
+            out.add(" " + f + " ");
+            out.add("well " + f + "!");
+            out.add(f.replace('i', 'İ'));
+        }
+
+        Random random = new Random(19);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextInt(4) == 0) sb.append(random.nextBoolean() ? "  " : "\n");
+            int parts = 1 + random.nextInt(6);
+            for (int p = 0; p < parts; p++) {
+                if (p > 0) sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+                String f = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                if (random.nextInt(4) == 0) f = f.toUpperCase(Locale.ROOT);
+                sb.append(f);
+            }
+            if (random.nextInt(3) == 0) sb.append(random.nextBoolean() ? "." : " ");
+            out.add(sb.toString());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TranslationCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private long now = 1_000L;
+    private final Executor direct = Runnable::run;
+
+    @Test
+    public void memoryHit_andHitRate() {
+        TranslationCache cache = new TranslationCache(1000, 0, () -> now);
+        assertNull(cache.getFromMemory("en", "es", "thank you"));
+        cache.put("en", "es", "thank you", "gracias");
+
+        assertEquals("gracias", cache.getFromMemory("en", "es", "thank you"));
+        assertNull(cache.getFromMemory("en", "fr", "thank you"));
+
+        TranslationCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.memoryHits);
+        assertEquals(2, stats.misses);
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void memoryTier_evictsLeastRecentlyUsedBySize() {
+        // Each entry = 10 chars, room for two
+        TranslationCache cache = new TranslationCache(20, 0, () -> now);
+        cache.put("en", "es", "aaaaa", "AAAAA");
+        cache.put("en", "es", "bbbbb", "BBBBB");
+        cache.getFromMemory("en", "es", "aaaaa"); // a is now most recent
+        cache.put("en", "es", "ccccc", "CCCCC");
+
+        assertEquals("AAAAA", cache.getFromMemory("en", "es", "aaaaa"));
+        assertNull(cache.getFromMemory("en", "es", "bbbbb"));
+        assertEquals("CCCCC", cache.getFromMemory("en", "es", "ccccc"));
+        assertEquals(1, cache.getStats().evictions);
+    }
+
+    @Test
+    public void expiredEntries_areMisses() {
+        TranslationCache cache = new TranslationCache(1000, 500, () -> now);
+        cache.put("en", "fr", "hello", "bonjour");
+        now += 501;
+
+        assertNull(cache.getFromMemory("en", "fr", "hello"));
+        assertEquals(1, cache.getStats().expirations);
+    }
+
+    @Test
+    public void diskTier_survivesNewInstance() throws Exception {
+        File dir = tmp.newFolder("translations");
+        TranslationCache first = new TranslationCache(1000, 0, () -> now);
+        first.enableDisk(dir, 10_000, direct);
+        first.put("en", "ta", "thanks", "நன்றி");
+
+        TranslationCache second = new TranslationCache(1000, 0, () -> now);
+        second.enableDisk(dir, 10_000, direct);
+        assertNull(second.getFromMemory("en", "ta", "thanks"));
+
+        String[] result = new String[1];
+        second.getFromDisk("en", "ta", "thanks", translated -> result[0] = translated);
+        assertEquals("நன்றி", result[0]);
+
+        // Promoted into memory
+        assertEquals("நன்றி", second.getFromMemory("en", "ta", "thanks"));
+        assertEquals(1, second.getStats().diskHits);
+    }
+}
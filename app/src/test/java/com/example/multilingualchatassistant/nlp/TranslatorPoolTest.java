@@ -0,0 +1,146 @@
+package com.example.multilingualchatassistant.nlp;
+
+import com.google.mlkit.common.model.DownloadConditions;
+import com.google.mlkit.nl.translate.Translator;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Leasing, LRU trimming and invalidation with fake translators, so no
+ * ML Kit client, model download or main Looper is needed.
+ */
+public class TranslatorPoolTest {
+
+    private final List<String> created = new ArrayList<>();
+    private final List<String> closed = new ArrayList<>();
+    private long now = 1_000L;
+
+    private final TranslatorPool pool = new TranslatorPool(
+            new DownloadConditions.Builder().build(), this::fake, () -> now, null);
+
+    @Test
+    public void samePair_sharesOneTranslator() {
+        TranslatorPool.Lease first = pool.acquire("en", "es");
+        TranslatorPool.Lease second = pool.acquire("en", "es");
+
+        assertSame(first.translator(), second.translator());
+        assertFalse(first.isWarm());
+        assertTrue(second.isWarm());
+        assertEquals(Collections.singletonList("en->es"), created);
+
+        TranslatorPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.hits);
+        assertEquals(1, stats.misses);
+        assertEquals(1, stats.openTranslators);
+    }
+
+    @Test
+    public void busyTranslator_isNotEvicted() {
+        pool.setMaxTranslators(1);
+        TranslatorPool.Lease es = pool.acquire("en", "es");
+        TranslatorPool.Lease fr = pool.acquire("en", "fr");
+
+        // Over the limit, but both are in use
+        assertEquals(2, pool.getStats().openTranslators);
+        assertTrue(closed.isEmpty());
+
+        // A second lease on es keeps it open after the first is returned
+        TranslatorPool.Lease esAgain = pool.acquire("en", "es");
+        pool.release(es, true);
+        pool.release(es, true);
+        assertTrue(closed.isEmpty());
+
+        pool.release(esAgain, true);
+        assertEquals(Collections.singletonList("en->es"), closed);
+        assertEquals(1, pool.getStats().openTranslators);
+
+        pool.release(fr, true);
+        assertEquals(Collections.singletonList("en->es"), closed);
+    }
+
+    @Test
+    public void trim_closesLeastRecentlyUsedIdleFirst() {
+        pool.setMaxTranslators(2);
+        use("en", "es");
+        use("en", "fr");
+        use("en", "es");   // fr is now the least recently used
+
+        TranslatorPool.Lease de = pool.acquire("en", "de");
+        assertEquals(Collections.singletonList("en->fr"), closed);
+
+        // de is now the least recently used, but busy, so es goes instead
+        use("en", "es");
+        pool.acquire("en", "ta");
+        assertEquals(Arrays.asList("en->fr", "en->es"), closed);
+
+        pool.release(de, true);
+        assertEquals(2, pool.getStats().openTranslators);
+        assertEquals(2, pool.getStats().evictions);
+    }
+
+    @Test
+    public void invalidate_nextAcquireLoadsFresh() {
+        TranslatorPool.Lease broken = pool.acquire("en", "es");
+        Translator old = broken.translator();
+        pool.invalidate(broken);
+
+        // Still leased, so not closed yet
+        assertTrue(closed.isEmpty());
+        assertEquals(0, pool.getStats().openTranslators);
+
+        TranslatorPool.Lease fresh = pool.acquire("en", "es");
+        assertFalse(fresh.isWarm());
+        assertNotSame(old, fresh.translator());
+        assertEquals(Arrays.asList("en->es", "en->es"), created);
+
+        pool.release(broken, false);
+        assertEquals(Collections.singletonList("en->es"), closed);
+
+        // The fresh one is shared and stays open
+        assertSame(fresh.translator(), pool.acquire("en", "es").translator());
+        assertEquals(1, closed.size());
+    }
+
+    // ---- helpers ----
+
+    private void use(String src, String tgt) {
+        now += 10;
+        pool.release(pool.acquire(src, tgt), true);
+    }
+
+    // Proxy, so only close() needs an answer whatever the ML Kit interface declares
+    private Translator fake(String src, String tgt) {
+        String pair = src + "->" + tgt;
+        created.add(pair);
+        return (Translator) Proxy.newProxyInstance(
+                Translator.class.getClassLoader(),
+                new Class<?>[]{Translator.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            closed.add(pair);
+                            return null;
+                        case "toString":
+                            return pair;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.multilingualchatassistant.nlp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Profile table, held-out accuracy and the LanguageDetector fallback.
+ */
+public class TrigramLanguageIdentifierTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void committedTable_matchesCorpora() throws IOException {
+        // Fails after a corpus edit until LanguageProfileBuilder is re-run
+        assertArrayEquals(LanguageProfileBuilder.build(LanguageProfileBuilder.readCorpora()), table());
+    }
+
+    @Test
+    public void heldOutAccuracy() throws IOException {
+        TrigramLanguageIdentifier id = load();
+        int correct = 0;
+        int confident = 0;
+        int confidentCorrect = 0;
+        int rulesCorrect = 0;
+        List<String[]> eval = evalSet();
+        for (String[] row : eval) {
+            TrigramLanguageIdentifier.Result result = id.identify(row[1]);
+            if (result.best().equals(row[0])) correct++;
+            if (result.isConfident()) {
+                confident++;
+                if (result.best().equals(row[0])) confidentCorrect++;
+            }
+            if (LegacyLanguageDetector.simpleGuess(row[1]).equals(row[0])) rulesCorrect++;
+        }
+        assertTrue("accuracy " + correct + "/" + eval.size(), correct >= 0.95 * eval.size());
+        assertTrue("confident " + confident + "/" + eval.size(), confident >= 0.9 * eval.size());
+        assertTrue("confident accuracy " + confidentCorrect + "/" + confident,
+                confidentCorrect >= 0.98 * confident);
+        assertTrue("rules " + rulesCorrect + " vs " + correct, rulesCorrect < correct / 2);
+    }
+
+    @Test
+    public void candidates_rankedAndNormalised() throws IOException {
+        TrigramLanguageIdentifier.Result result = load().identify("on se voit demain soir chez toi");
+        List<TrigramLanguageIdentifier.Candidate> candidates = result.candidates();
+        assertEquals(Arrays.asList(LanguageProfileBuilder.LANGUAGES).size(), candidates.size());
+        assertEquals("fr", result.best());
+        assertTrue(result.isConfident());
+
+        double sum = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            sum += candidates.get(i).confidence;
+            if (i > 0) assertTrue(candidates.get(i - 1).confidence >= candidates.get(i).confidence);
+        }
+        assertEquals(1.0, sum, 1e-9);
+    }
+
+    @Test
+    public void noEvidence_isUndetermined() throws IOException {
+        TrigramLanguageIdentifier id = load();
+        for (String text : new String[]{"", "   ", "1234 !!", "😂😂", "ok"}) {
+            TrigramLanguageIdentifier.Result result = id.identify(text);
+            assertEquals(text, "und", result.best());
+            assertFalse(text, result.isConfident());
+        }
+    }
+
+    @Test
+    public void onlyFirstMaxCharsAreScanned() throws IOException {
+        TrigramLanguageIdentifier id = load();
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < TrigramLanguageIdentifier.MAX_CHARS) sb.append("wir sehen uns morgen ");
+        String head = sb.substring(0, TrigramLanguageIdentifier.MAX_CHARS);
+
+        StringBuilder tail = new StringBuilder(head);
+        for (int i = 0; i < 500; i++) tail.append(" the quick brown fox jumps over the lazy dog");
+
+        assertEquals(id.identify(head).toString(), id.identify(tail).toString());
+        assertEquals("de", id.identify(tail).best());
+    }
+
+    @Test
+    public void mappedFile_sameAsInMemory() throws IOException {
+        File file = tmp.newFile("trigrams.bin");
+        Files.write(file.toPath(), table());
+        TrigramLanguageIdentifier mapped = TrigramLanguageIdentifier.map(file);
+        TrigramLanguageIdentifier inMemory = load();
+
+        assertEquals(inMemory.languages(), mapped.languages());
+        for (String[] row : evalSet()) {
+            assertEquals(row[1], inMemory.identify(row[1]).toString(), mapped.identify(row[1]).toString());
+        }
+    }
+
+    @Test
+    public void rejectsBadTables() {
+        byte[] good;
+        try {
+            good = table();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        byte[] badMagic = good.clone();
+        badMagic[0] = 'X';
+        byte[] truncated = Arrays.copyOf(good, good.length - 1);
+        for (byte[] bytes : Arrays.asList(badMagic, truncated, new byte[3])) {
+            try {
+                TrigramLanguageIdentifier.wrap(ByteBuffer.wrap(bytes));
+                fail("accepted a bad table of " + bytes.length + " bytes");
+            } catch (IOException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void languageDetector_prefersConfidentRanking() throws IOException {
+        // Accent- and keyword-free, so the rules alone say "und"
+        String spanish = "nos vemos el lunes en la oficina";
+        String english = "we won the match in the last minute";
+        assertEquals("und", AnalyzedText.of(spanish, null).detectedLanguage());
+
+        LanguageDetector.setIdentifier(load());
+        try {
+            assertEquals("es", AnalyzedText.of(spanish, null).detectedLanguage());
+            assertEquals("en", AnalyzedText.of(english, "en").detectedLanguage());
+            // Too little evidence: the rules still decide
+            assertEquals("es", AnalyzedText.of("hola", null).detectedLanguage());
+            assertEquals("und", AnalyzedText.of("ok", null).detectedLanguage());
+            assertEquals("de", LanguageDetector.rank("bis morgen, schlaf gut").best());
+        } finally {
+            LanguageDetector.setIdentifier(null);
+        }
+    }
+
+    // ---- shared with LanguageIdBenchmark ----
+
+    static TrigramLanguageIdentifier load() throws IOException {
+        return TrigramLanguageIdentifier.wrap(ByteBuffer.wrap(table()));
+    }
+
+    /** Held-out {lang, text} rows. */
+    static List<String[]> evalSet() throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : new String(resource("/langid/eval.tsv"), StandardCharsets.UTF_8).split("\n")) {
+            if (line.trim().isEmpty() || line.startsWith("#")) continue;
+            rows.add(line.split("\t", 2));
+        }
+        return rows;
+    }
+
+    private static byte[] table() throws IOException {
+        return resource("/" + TrigramLanguageIdentifier.ASSET);
+    }
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream in = TrigramLanguageIdentifierTest.class.getResourceAsStream(name)) {
+            if (in == null) throw new IOException("missing " + name);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) > 0; ) out.write(buffer, 0, n);
+            return out.toByteArray();
+        }
+    }
+}
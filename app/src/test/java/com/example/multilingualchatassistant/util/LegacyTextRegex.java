@@ -0,0 +1,65 @@
+package com.example.multilingualchatassistant.util;
+
+import java.util.Locale;
+
+/**
+ * The regex versions the TextScan helpers replaced, kept only as the
+ * reference for parity tests and TextScanBenchmark.
+ */
+final class LegacyTextRegex {
+
+    private LegacyTextRegex() {
+    }
+
+    // GifQueryBuilder.sanitizeKeywords
+    static String sanitizeKeywords(String raw) {
+        if (raw == null) return "";
+
+        String t = raw.toLowerCase(Locale.ROOT).trim();
+
+        // Letters (including basic accents) + spaces only
+        t = t.replaceAll("[^a-zñáéíóúüçàèìòùâêîôûäëïöü ]", " ");
+        t = t.replaceAll("\\s+", " ").trim();
+
+        if (t.isEmpty()) return "";
+
+        String[] parts = t.split(" ");
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        for (String p : parts) {
+            if (p.isEmpty()) continue;
+            if (count > 0) sb.append(' ');
+            sb.append(p);
+            count++;
+            if (count >= 3) break; // max 3 words
+        }
+        return sb.toString().trim();
+    }
+
+    // StyleEngine.looksLikeGreeting
+    static boolean looksLikeGreeting(String lower, String lang) {
+        switch (lang) {
+            case "es":
+                return lower.matches("^(hola|buenos dias|buenos días|buenas tardes|buenas noches)[!.]*$");
+            case "fr":
+                return lower.matches("^(salut|bonjour|bonsoir)[!.]*$");
+            case "en":
+            default:
+                return lower.matches("^(hi|hello|hey|hey there|hi there)[!.]*$");
+        }
+    }
+
+    // LanguageDetector.simpleGuess accent checks
+    static boolean hasSpanishAccent(String lower) {
+        return lower.matches(".*[áéíóúñ].*");
+    }
+
+    static boolean hasFrenchAccent(String lower) {
+        return lower.matches(".*[àâäçéèêëîïôœùûüÿ].*");
+    }
+
+    // KeywordExtractor / ToneDetector word split
+    static String[] splitWhitespace(String text) {
+        return text.trim().split("\\s+");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.multilingualchatassistant.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: each regex the TextScan helpers replaced vs its regex-free version,
+ * one pair of benchmarks per function. Add -prof gc to see the Pattern
+ * garbage going away.
+ *
+ * Run from the IDE (main method) or with the unit-test classpath:
+ *   java -cp <testClasspath> com.example.multilingualchatassistant.util.TextScanBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextScanBenchmark {
+
+    private static final String[] GREETINGS_EN = {"hi", "hello", "hey", "hey there", "hi there"};
+    private static final TextScan.CharSet GREETING_TAIL = TextScan.CharSet.of("!.");
+
+    private String[] messages;
+    private String[] lowered;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        List<String> corpus = TextScanTest.corpus();
+        messages = corpus.toArray(new String[0]);
+        lowered = new String[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            lowered[i] = messages[i].trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // ---- GifQueryBuilder.sanitizeKeywords ----
+
+    @Benchmark
+    public String sanitizeKeywords_regex() {
+        return LegacyTextRegex.sanitizeKeywords(messages[next()]);
+    }
+
+    @Benchmark
+    public String sanitizeKeywords_scan() {
+        return GifQueryBuilder.sanitizeKeywords(messages[next()]);
+    }
+
+    // ---- StyleEngine.looksLikeGreeting ----
+
+    @Benchmark
+    public boolean looksLikeGreeting_regex() {
+        return LegacyTextRegex.looksLikeGreeting(lowered[next()], "en");
+    }
+
+    @Benchmark
+    public boolean looksLikeGreeting_scan() {
+        return TextScan.matchesPhrase(lowered[next()], GREETINGS_EN, GREETING_TAIL);
+    }
+
+    // ---- LanguageDetector accent checks ----
+
+    @Benchmark
+    public boolean accents_regex() {
+        String s = lowered[next()];
+        return LegacyTextRegex.hasSpanishAccent(s) || LegacyTextRegex.hasFrenchAccent(s);
+    }
+
+    @Benchmark
+    public boolean accents_charSet() {
+        String s = lowered[next()];
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (TextScan.SPANISH_ACCENTS.contains(c) || TextScan.FRENCH_ACCENTS.contains(c)) return true;
+        }
+        return false;
+    }
+
+    // ---- split("\\s+") ----
+
+    @Benchmark
+    public int splitWhitespace_regex() {
+        return LegacyTextRegex.splitWhitespace(messages[next()]).length;
+    }
+
+    @Benchmark
+    public int splitWhitespace_scan() {
+        return TextScan.splitWhitespace(messages[next()]).size();
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = (cursor + 1) % messages.length;
+        return i;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextScanBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
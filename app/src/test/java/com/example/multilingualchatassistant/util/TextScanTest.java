@@ -0,0 +1,106 @@
+package com.example.multilingualchatassistant.util;
+
+import com.example.multilingualchatassistant.nlp.StyleEngine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Parity between the regex-free TextScan paths and the regexes they replaced.
+ */
+public class TextScanTest {
+
+    private static final String[] FRAGMENTS = {
+            "hi", "hello", "hey", "hey there", "hi there", "hola", "buenos dias", "buenos días",
+            "buenas tardes", "buenas noches", "salut", "bonjour", "bonsoir", "HELLO", "Hola",
+            "pizza", "tonight", "café", "garçon", "mañana", "NAÏVE", "Œuvre", "straße", "İstanbul",
+            "வணக்கம்", "😂", "🍕", "❤️", "don't", "e-mail", "42", "_", "!", ".", "!!", "?", ",",
+            "ÀÉÎÕÜ", "ÿ", "ø", "Σ"
+    };
+
+    private static final String[] SEPARATORS = {" ", "", "  ", "\t", "\n", "\r\n", "\u000B", "\f", "\u2028", "."};
+
+    @Test
+    public void sanitizeKeywords_matchesLegacyRegex() {
+        for (String text : corpus()) {
+            assertEquals(text, LegacyTextRegex.sanitizeKeywords(text), GifQueryBuilder.sanitizeKeywords(text));
+        }
+        assertEquals("", GifQueryBuilder.sanitizeKeywords(null));
+    }
+
+    @Test
+    public void looksLikeGreeting_matchesLegacyRegex() {
+        for (String lang : new String[]{"en", "es", "fr"}) {
+            for (String text : corpus()) {
+                if (text.trim().isEmpty()) continue;
+                boolean expected = LegacyTextRegex.looksLikeGreeting(
+                        text.trim().toLowerCase(Locale.ROOT), lang);
+                String key = StyleEngine.templateKey(text, lang, "neutral", "unknown");
+                assertEquals(lang + ": " + text, expected, "greeting.neutral".equals(key));
+            }
+        }
+    }
+
+    @Test
+    public void accentSets_matchLegacyRegex() {
+        for (char c = 0; c < 0x600; c++) {
+            String s = String.valueOf(c);
+            assertEquals(s, LegacyTextRegex.hasSpanishAccent(s), TextScan.SPANISH_ACCENTS.contains(c));
+            assertEquals(s, LegacyTextRegex.hasFrenchAccent(s), TextScan.FRENCH_ACCENTS.contains(c));
+        }
+    }
+
+    @Test
+    public void splitWhitespace_matchesLegacySplit() {
+        for (String text : corpus()) {
+            List<String> expected = text.trim().isEmpty()
+                    ? new ArrayList<>()
+                    : Arrays.asList(LegacyTextRegex.splitWhitespace(text));
+            // trim() also strips other control chars; the corpus has none at the ends
+            assertEquals(text, expected, TextScan.splitWhitespace(text));
+        }
+    }
+
+    @Test
+    public void codePointClasses() {
+        for (int cp = 0; cp < 0x3000; cp++) {
+            String s = new String(Character.toChars(cp));
+            assertEquals(Integer.toHexString(cp), s.matches("\\s"), TextScan.isRegexSpace(cp));
+            assertEquals(Integer.toHexString(cp), !s.matches("."), TextScan.isLineTerminator(cp));
+        }
+    }
+
+    // Fragments alone (a few casings / paddings) + random mixes
+    static List<String> corpus() {
+        List<String> out = new ArrayList<>();
+        out.add("");
+        out.add("   ");
+        for (String f : FRAGMENTS) {
+            out.add(f);
+            out.add(f.toUpperCase(Locale.ROOT));
+            out.add(" " + f + "! ");
+            out.add(f + "\nok");
+        }
+
+        Random random = new Random(21);
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int parts = 1 + random.nextInt(5);
+            for (int p = 0; p < parts; p++) {
+                if (p > 0) sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+                String f = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                sb.append(random.nextInt(4) == 0 ? f.toUpperCase(Locale.ROOT) : f);
+            }
+            if (random.nextInt(3) == 0) sb.append(random.nextBoolean() ? "!!" : ".");
+            out.add(sb.toString());
+        }
+        return out;
+    }
+}